@@ -21,6 +21,7 @@ import com.ait.lienzo.client.core.types.ImageData;
 import com.ait.lienzo.client.core.types.ImageDataPixelColor;
 import com.ait.lienzo.client.core.types.LinearGradient;
 import com.ait.lienzo.client.core.types.PathPartList;
+import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.PatternGradient;
 import com.ait.lienzo.client.core.types.RadialGradient;
 import com.ait.lienzo.client.core.types.Shadow;
@@ -38,12 +39,37 @@ import com.google.gwt.dom.client.Element;
 
 /**
  * Wrapper around a JSO that serves as a proxy to access the native capabilities of Canvas 2D.
+ * <p>
+ * Style, shadow and transform setters, and save/restore, are shadowed here and only reach the native context, as the
+ * difference from what it already has, when something is drawn. Setting the same fill color for a run of shapes, or a
+ * save/restore pair around a fill, costs no native calls. Clips, line dashes and fill gradients still go through a native
+ * save, issued when they are set.
  * @see {@link NativeContext2D} 
  */
 public class Context2D
 {
+    private static final String   NO_SHADOW_COLOR = "transparent";
+
     private final NativeContext2D m_jso;
 
+    private final State           m_want          = new State().defaults();
+
+    private final State           m_have          = new State().unknown();
+
+    private State[]               m_stack         = new State[16];
+
+    private State[]               m_natv          = new State[16];
+
+    private int                   m_depth         = 0;
+
+    private int                   m_saved         = 0;
+
+    private boolean               m_dirty         = true;
+
+    private int                   m_calls         = 0;
+
+    private int                   m_native        = 0;
+
     public Context2D(final CanvasElement element)
     {
         this(NativeContext2D.make(element));
@@ -54,54 +80,124 @@ public class Context2D
         m_jso = jso;
     }
 
+    /**
+     * Returns the native context, with all pending state applied. State changed directly on it is not seen by this
+     * Context2D, which re-applies its own state before the next draw.
+     * 
+     * @return NativeContext2D
+     */
     public NativeContext2D getNativeContext()
     {
+        flushed();
+
+        m_have.unknown();
+
+        m_dirty = true;
+
         return m_jso;
     }
 
     public void save()
     {
-        m_jso.save();
+        m_calls++;
+
+        if (m_depth == m_stack.length)
+        {
+            final State[] stack = new State[m_depth * 2];
+
+            final State[] natv = new State[m_depth * 2];
+
+            System.arraycopy(m_stack, 0, stack, 0, m_depth);
+
+            System.arraycopy(m_natv, 0, natv, 0, m_depth);
+
+            m_stack = stack;
+
+            m_natv = natv;
+        }
+        State save = m_stack[m_depth];
+
+        if (null == save)
+        {
+            save = m_stack[m_depth] = new State();
+        }
+        save.copy(m_want);
+
+        m_depth++;
+
+        // a fill gradient can only be brought back by the native restore.
+
+        if (null == m_want.fill)
+        {
+            flushed();
+        }
     }
 
     public void restore()
     {
-        m_jso.restore();
+        m_calls++;
+
+        if (m_depth < 1)
+        {
+            return;
+        }
+        final State save = m_stack[--m_depth];
+
+        if (m_depth < m_saved)
+        {
+            m_saved = m_depth;
+
+            m_jso.restore();
+
+            m_have.copy(m_natv[m_depth]);
+
+            m_native++;
+        }
+        m_want.copy(save);
+
+        m_dirty = true;
     }
 
     public void beginPath()
     {
-        m_jso.beginPath();
+        synced().beginPath();
     }
 
     public void closePath()
     {
-        m_jso.closePath();
+        synced().closePath();
     }
 
     public void rect(final double x, final double y, final double w, final double h)
     {
-        m_jso.rect(x, y, w, h);
+        synced().rect(x, y, w, h);
     }
 
     public void fillRect(final double x, final double y, final double w, final double h)
     {
-        m_jso.fillRect(x, y, w, h);
+        synced().fillRect(x, y, w, h);
     }
 
     public void fill()
     {
-        m_jso.fill();
+        synced().fill();
     }
 
     public void stroke()
     {
-        m_jso.stroke();
+        synced().stroke();
     }
 
     public void setFillColor(final String color)
     {
-        m_jso.setFillColor(color);
+        m_calls++;
+
+        if (null != color)
+        {
+            m_want.fill = color;
+
+            m_dirty = true;
+        }
     }
 
     /**
@@ -113,37 +209,44 @@ public class Context2D
      */
     public void setFillColor(final IColor color)
     {
-        m_jso.setFillColor((null != color) ? color.getColorString() : null);
+        setFillColor((null != color) ? color.getColorString() : null);
     }
 
     public void arc(final double x, final double y, final double radius, final double startAngle, final double endAngle, final boolean antiClockwise)
     {
-        m_jso.arc(x, y, radius, startAngle, endAngle, antiClockwise);
+        synced().arc(x, y, radius, startAngle, endAngle, antiClockwise);
     }
 
     public void arc(final double x, final double y, final double radius, final double startAngle, final double endAngle)
     {
-        m_jso.arc(x, y, radius, startAngle, endAngle, false);
+        synced().arc(x, y, radius, startAngle, endAngle, false);
     }
 
     public void arcTo(final double x1, final double y1, final double x2, final double y2, final double radius)
     {
-        m_jso.arcTo(x1, y1, x2, y2, radius);
+        synced().arcTo(x1, y1, x2, y2, radius);
     }
 
     public void ellipse(final double x, final double y, final double radiusX, final double radiusY, final double rotation, final double startAngle, final double endAngle, final boolean antiClockwise)
     {
-        m_jso.ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle, antiClockwise);
+        synced().ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle, antiClockwise);
     }
 
     public void ellipse(final double x, final double y, final double radiusX, final double radiusY, final double rotation, final double startAngle, final double endAngle)
     {
-        m_jso.ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle);
+        synced().ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle);
     }
 
     public void setStrokeColor(final String color)
     {
-        m_jso.setStrokeColor(color);
+        m_calls++;
+
+        if (null != color)
+        {
+            m_want.stroke = color;
+
+            m_dirty = true;
+        }
     }
 
     /**
@@ -155,164 +258,237 @@ public class Context2D
      */
     public void setStrokeColor(final IColor color)
     {
-        m_jso.setStrokeColor((null != color) ? color.getColorString() : null);
+        setStrokeColor((null != color) ? color.getColorString() : null);
     }
 
     public void setStrokeWidth(final double width)
     {
-        m_jso.setStrokeWidth(width);
+        m_calls++;
+
+        m_want.width = width;
+
+        m_dirty = true;
     }
 
     public void setLineCap(final LineCap linecap)
     {
-        m_jso.setLineCap((null != linecap) ? linecap.getValue() : null);
+        m_calls++;
+
+        m_want.cap = (null != linecap) ? linecap.getValue() : LineCap.BUTT.getValue();
+
+        m_dirty = true;
     }
 
     public void setLineJoin(final LineJoin linejoin)
     {
-        m_jso.setLineJoin((null != linejoin) ? linejoin.getValue() : null);
+        m_calls++;
+
+        m_want.join = (null != linejoin) ? linejoin.getValue() : LineJoin.MITER.getValue();
+
+        m_dirty = true;
     }
 
     public void transform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
     {
-        m_jso.transform(d0, d1, d2, d3, d4, d5);
+        m_calls++;
+
+        m_want.transform(d0, d1, d2, d3, d4, d5);
+
+        m_dirty = true;
     }
 
     public void setTransform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
     {
-        m_jso.setTransform(d0, d1, d2, d3, d4, d5);
-    };
+        m_calls++;
+
+        m_want.setTransform(d0, d1, d2, d3, d4, d5);
+
+        m_dirty = true;
+    }
 
     public void setToIdentityTransform()
     {
-        m_jso.setToIdentityTransform();
-    };
+        setTransform(1, 0, 0, 1, 0, 0);
+    }
 
     public void moveTo(final double x, final double y)
     {
-        m_jso.moveTo(x, y);
+        synced().moveTo(x, y);
     }
 
     public void bezierCurveTo(final double cp1x, final double cp1y, final double cp2x, final double cp2y, final double x, final double y)
     {
-        m_jso.bezierCurveTo(cp1x, cp1y, cp2x, cp2y, x, y);
+        synced().bezierCurveTo(cp1x, cp1y, cp2x, cp2y, x, y);
     }
 
     public void lineTo(final double x, final double y)
     {
-        m_jso.lineTo(x, y);
+        synced().lineTo(x, y);
     }
 
     public void setFillGradient(final LinearGradient gradient)
     {
-        m_jso.setFillGradient((null != gradient) ? gradient.getJSO() : null);
+        synced().setFillGradient((null != gradient) ? gradient.getJSO() : null);
+
+        m_have.fill = m_want.fill = null;
     }
 
     public void setFillGradient(final RadialGradient gradient)
     {
-        m_jso.setFillGradient((null != gradient) ? gradient.getJSO() : null);
+        synced().setFillGradient((null != gradient) ? gradient.getJSO() : null);
+
+        m_have.fill = m_want.fill = null;
     }
 
     public void setFillGradient(final PatternGradient gradient)
     {
-        m_jso.setFillGradient((null != gradient) ? gradient.getJSO() : null);
+        synced().setFillGradient((null != gradient) ? gradient.getJSO() : null);
+
+        m_have.fill = m_want.fill = null;
     }
 
     public void quadraticCurveTo(final double cpx, final double cpy, final double x, final double y)
     {
-        m_jso.quadraticCurveTo(cpx, cpy, x, y);
+        synced().quadraticCurveTo(cpx, cpy, x, y);
     }
 
     public void transform(final Transform transform)
     {
-        m_jso.transform((null != transform) ? transform.getJSO() : null);
+        if (null != transform)
+        {
+            transform(transform.get(0), transform.get(1), transform.get(2), transform.get(3), transform.get(4), transform.get(5));
+        }
     }
 
     public void setTransform(final Transform transform)
     {
-        m_jso.setTransform((null != transform) ? transform.getJSO() : null);
+        if (null != transform)
+        {
+            setTransform(transform.get(0), transform.get(1), transform.get(2), transform.get(3), transform.get(4), transform.get(5));
+        }
     }
 
     public void fillTextWithGradient(final String text, final double x, final double y, final double sx, final double sy, final double ex, final double ey, final String color)
     {
-        m_jso.fillTextWithGradient(text, x, y, sx, sy, ex, ey, color);
+        synced().fillTextWithGradient(text, x, y, sx, sy, ex, ey, color);
+
+        m_have.fill = m_want.fill = null;
     }
 
     public void setTextFont(final String font)
     {
-        m_jso.setTextFont(font);
+        m_calls++;
+
+        if (null != font)
+        {
+            m_want.font = font;
+
+            m_dirty = true;
+        }
     }
 
     public void setTextBaseline(final TextBaseLine baseline)
     {
-        m_jso.setTextBaseline((null != baseline) ? baseline.getValue() : null);
+        m_calls++;
+
+        m_want.base = (null != baseline) ? baseline.getValue() : TextBaseLine.ALPHABETIC.getValue();
+
+        m_dirty = true;
     }
 
     public void setTextAlign(final TextAlign textAlign)
     {
-        m_jso.setTextAlign((null != textAlign) ? textAlign.getValue() : null);
+        m_calls++;
+
+        m_want.align = (null != textAlign) ? textAlign.getValue() : TextAlign.START.getValue();
+
+        m_dirty = true;
     }
 
     public void fillText(final String text, final double x, final double y)
     {
-        m_jso.fillText(text, x, y);
+        synced().fillText(text, x, y);
     }
 
     public void strokeText(final String text, final double x, final double y)
     {
-        m_jso.strokeText(text, x, y);
+        synced().strokeText(text, x, y);
     }
 
     public void setGlobalAlpha(final double alpha)
     {
-        m_jso.setGlobalAlpha(alpha);
+        m_calls++;
+
+        m_want.alpha = alpha;
+
+        m_dirty = true;
     }
 
     public void translate(final double x, final double y)
     {
-        m_jso.translate(x, y);
+        transform(1, 0, 0, 1, x, y);
     }
 
     public void rotate(final double rot)
     {
-        m_jso.rotate(rot);
+        final double c = Math.cos(rot);
+
+        final double s = Math.sin(rot);
+
+        transform(c, s, -s, c, 0, 0);
     }
 
     public void scale(final double sx, final double sy)
     {
-        m_jso.scale(sx, sy);
+        transform(sx, 0, 0, sy, 0, 0);
     }
 
     public void clearRect(final double x, final double y, final double wide, final double high)
     {
-        m_jso.clearRect(x, y, wide, high);
+        synced().clearRect(x, y, wide, high);
     }
 
     public void setShadow(final Shadow shadow)
     {
-        m_jso.setShadow((null != shadow) ? shadow.getJSO() : null);
+        m_calls++;
+
+        if (null != shadow)
+        {
+            final Point2D offset = shadow.getOffset();
+
+            m_want.setShadow(shadow.getColor(), offset.getX(), offset.getY(), shadow.getBlur());
+        }
+        else
+        {
+            m_want.setShadow(NO_SHADOW_COLOR, 0, 0, 0);
+        }
+        m_dirty = true;
     }
 
     public void clip()
     {
-        m_jso.clip();
+        flushed().clip();
     }
 
     public void resetClip()
     {
-        m_jso.resetClip();
+        flushed().resetClip();
     }
 
     public void setMiterLimit(final double limit)
     {
-        m_jso.setMiterLimit(limit);
+        m_calls++;
+
+        m_want.miter = limit;
+
+        m_dirty = true;
     }
 
     public boolean path(final PathPartList list)
     {
         if (null != list)
         {
-            return m_jso.path(list.getJSO());
+            return synced().path(list.getJSO());
         }
         return false;
     }
@@ -321,7 +497,7 @@ public class Context2D
     {
         if (null != list)
         {
-            return m_jso.clip(list.getJSO());
+            return flushed().clip(list.getJSO());
         }
         return false;
     }
@@ -333,7 +509,22 @@ public class Context2D
 
     public boolean isPointInPath(final double x, final double y)
     {
-        return m_jso.isPointInPath(x, y);
+        return synced().isPointInPath(x, y);
+    }
+
+    public boolean isPointInStroke(final double x, final double y)
+    {
+        return synced().isPointInStroke(x, y);
+    }
+
+    public boolean isPointInPath(final Path2D path, final double x, final double y)
+    {
+        return synced().isPointInPath(path.getNativePath2D(), x, y);
+    }
+
+    public boolean isPointInStroke(final Path2D path, final double x, final double y)
+    {
+        return synced().isPointInStroke(path.getNativePath2D(), x, y);
     }
 
     public ImageDataPixelColor getImageDataPixelColor(final int x, final int y)
@@ -343,17 +534,17 @@ public class Context2D
 
     public ImageData getImageData(final int x, final int y, final int width, final int height)
     {
-        return m_jso.getImageData(x, y, width, height);
+        return synced().getImageData(x, y, width, height);
     }
 
     public void putImageData(final ImageData imageData, final int x, final int y)
     {
-        m_jso.putImageData(imageData, x, y);
+        synced().putImageData(imageData, x, y);
     }
 
     public void putImageData(final ImageData imageData, final int x, final int y, final int dirtyX, final int dirtyY, final int dirtyWidth, final int dirtyHeight)
     {
-        m_jso.putImageData(imageData, x, y, dirtyX, dirtyY, dirtyWidth, dirtyHeight);
+        synced().putImageData(imageData, x, y, dirtyX, dirtyY, dirtyWidth, dirtyHeight);
     }
 
     public ImageData createImageData(final double width, final double height)
@@ -368,42 +559,46 @@ public class Context2D
 
     public TextMetrics measureText(final String text)
     {
-        return m_jso.measureText(text);
+        return synced().measureText(text);
     }
 
     public void setGlobalCompositeOperation(final CompositeOperation operation)
     {
-        m_jso.setGlobalCompositeOperation((null != operation) ? operation.getValue() : null);
+        m_calls++;
+
+        m_want.comp = (null != operation) ? operation.getValue() : CompositeOperation.SOURCE_OVER.getValue();
+
+        m_dirty = true;
     }
 
     public void setImageSmoothingEnabled(final boolean enabled)
     {
-        m_jso.setImageSmoothingEnabled(enabled);
+        flushed().setImageSmoothingEnabled(enabled);
     }
 
     public void drawImage(final Element image, final double x, final double y)
     {
-        m_jso.drawImage(image, x, y);
+        synced().drawImage(image, x, y);
     }
 
     public void drawImage(final Element image, final double x, final double y, final double w, final double h)
     {
-        m_jso.drawImage(image, x, y, w, h);
+        synced().drawImage(image, x, y, w, h);
     }
 
     public void drawImage(final Element image, final double sx, final double sy, final double sw, final double sh, final double x, final double y, final double w, final double h)
     {
-        m_jso.drawImage(image, sx, sy, sw, sh, x, y, w, h);
+        synced().drawImage(image, sx, sy, sw, sh, x, y, w, h);
     }
 
     public void setLineDash(final DashArray dashes)
     {
-        m_jso.setLineDash((null != dashes) ? dashes.getJSO() : null);
+        flushed().setLineDash((null != dashes) ? dashes.getJSO() : null);
     }
 
     public void setLineDashOffset(final double offset)
     {
-        m_jso.setLineDashOffset(offset);
+        flushed().setLineDashOffset(offset);
     }
 
     public double getBackingStorePixelRatio()
@@ -413,22 +608,22 @@ public class Context2D
 
     public void fill(final Path2D path)
     {
-        m_jso.fill(path.getNativePath2D());
+        synced().fill(path.getNativePath2D());
     }
 
     public void stroke(final Path2D path)
     {
-        m_jso.stroke(path.getNativePath2D());
+        synced().stroke(path.getNativePath2D());
     }
 
     public void clip(final Path2D path)
     {
-        m_jso.clip(path.getNativePath2D());
+        flushed().clip(path.getNativePath2D());
     }
 
     public Path2D getCurrentPath()
     {
-        return new Path2D(m_jso.getCurrentPath());
+        return new Path2D(synced().getCurrentPath());
     }
 
     public boolean isSelection()
@@ -445,4 +640,341 @@ public class Context2D
     {
         return false;
     }
+
+    /**
+     * Returns how many state calls (styles, shadow, transforms, save and restore) were made on this Context2D since
+     * {@link #resetStateCallCounts()}.
+     * 
+     * @return int
+     */
+    public int getStateCallCount()
+    {
+        return m_calls;
+    }
+
+    /**
+     * Returns how many native state calls were actually issued since {@link #resetStateCallCounts()}.
+     * 
+     * @return int
+     */
+    public int getNativeStateCallCount()
+    {
+        return m_native;
+    }
+
+    /**
+     * Returns how many state calls never reached the native context since {@link #resetStateCallCounts()}.
+     * Reset the counts before drawing a frame to get the count for that frame.
+     * 
+     * @return int
+     */
+    public int getElidedCallCount()
+    {
+        return Math.max(0, m_calls - m_native);
+    }
+
+    public void resetStateCallCounts()
+    {
+        m_calls = 0;
+
+        m_native = 0;
+    }
+
+    /**
+     * Forgets the shadowed native state and save stack, and starts over from the canvas defaults.
+     * Must be called when the canvas is resized, which resets its native context.
+     */
+    public void resetState()
+    {
+        m_want.defaults();
+
+        m_have.unknown();
+
+        m_depth = 0;
+
+        m_saved = 0;
+
+        m_dirty = true;
+    }
+
+    /**
+     * Applies the pending state, and returns the native context to draw with.
+     */
+    private final NativeContext2D synced()
+    {
+        if (m_dirty)
+        {
+            m_dirty = false;
+
+            m_native += m_have.apply(m_want, m_jso);
+        }
+        return m_jso;
+    }
+
+    /**
+     * As {@link #synced()}, and issues the native saves that were deferred, for calls that change state not shadowed here.
+     */
+    private final NativeContext2D flushed()
+    {
+        synced();
+
+        while (m_saved < m_depth)
+        {
+            State natv = m_natv[m_saved];
+
+            if (null == natv)
+            {
+                natv = m_natv[m_saved] = new State();
+            }
+            natv.copy(m_have);
+
+            m_jso.save();
+
+            m_native++;
+
+            m_saved++;
+        }
+        return m_jso;
+    }
+
+    /**
+     * The state shadowed by Context2D. Unknown values are null or NaN, which never compare equal.
+     */
+    private static final class State
+    {
+        private String fill;
+
+        private String stroke;
+
+        private double width;
+
+        private String cap;
+
+        private String join;
+
+        private double miter;
+
+        private double alpha;
+
+        private String comp;
+
+        private String font;
+
+        private String base;
+
+        private String align;
+
+        private String shadow;
+
+        private double shadowx;
+
+        private double shadowy;
+
+        private double shadowb;
+
+        private double m00;
+
+        private double m10;
+
+        private double m01;
+
+        private double m11;
+
+        private double m02;
+
+        private double m12;
+
+        private final State defaults()
+        {
+            fill = stroke = "#000000";
+
+            width = 1;
+
+            cap = LineCap.BUTT.getValue();
+
+            join = LineJoin.MITER.getValue();
+
+            miter = 10;
+
+            alpha = 1;
+
+            comp = CompositeOperation.SOURCE_OVER.getValue();
+
+            font = "10px sans-serif";
+
+            base = TextBaseLine.ALPHABETIC.getValue();
+
+            align = TextAlign.START.getValue();
+
+            setShadow(NO_SHADOW_COLOR, 0, 0, 0);
+
+            setTransform(1, 0, 0, 1, 0, 0);
+
+            return this;
+        }
+
+        private final State unknown()
+        {
+            fill = stroke = cap = join = comp = font = base = align = shadow = null;
+
+            width = miter = alpha = shadowx = shadowy = shadowb = Double.NaN;
+
+            setTransform(Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+
+            return this;
+        }
+
+        private final void copy(final State that)
+        {
+            fill = that.fill;
+
+            stroke = that.stroke;
+
+            width = that.width;
+
+            cap = that.cap;
+
+            join = that.join;
+
+            miter = that.miter;
+
+            alpha = that.alpha;
+
+            comp = that.comp;
+
+            font = that.font;
+
+            base = that.base;
+
+            align = that.align;
+
+            setShadow(that.shadow, that.shadowx, that.shadowy, that.shadowb);
+
+            setTransform(that.m00, that.m10, that.m01, that.m11, that.m02, that.m12);
+        }
+
+        private final void setShadow(final String color, final double x, final double y, final double blur)
+        {
+            shadow = color;
+
+            shadowx = x;
+
+            shadowy = y;
+
+            shadowb = blur;
+        }
+
+        private final void setTransform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
+        {
+            m00 = d0;
+
+            m10 = d1;
+
+            m01 = d2;
+
+            m11 = d3;
+
+            m02 = d4;
+
+            m12 = d5;
+        }
+
+        private final void transform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
+        {
+            setTransform(m00 * d0 + m01 * d1, m10 * d0 + m11 * d1, m00 * d2 + m01 * d3, m10 * d2 + m11 * d3, m00 * d4 + m01 * d5 + m02, m10 * d4 + m11 * d5 + m12);
+        }
+
+        /**
+         * Issues the native calls that bring this (native) state to the wanted one, and returns how many were issued.
+         * A null fill is a gradient already set natively.
+         */
+        private final int apply(final State want, final NativeContext2D jso)
+        {
+            int size = 0;
+
+            if ((null != want.fill) && (false == want.fill.equals(fill)))
+            {
+                jso.setFillColor(fill = want.fill);
+
+                size++;
+            }
+            if (false == want.stroke.equals(stroke))
+            {
+                jso.setStrokeColor(stroke = want.stroke);
+
+                size++;
+            }
+            if (want.width != width)
+            {
+                jso.setStrokeWidth(width = want.width);
+
+                size++;
+            }
+            if (false == want.cap.equals(cap))
+            {
+                jso.setLineCap(cap = want.cap);
+
+                size++;
+            }
+            if (false == want.join.equals(join))
+            {
+                jso.setLineJoin(join = want.join);
+
+                size++;
+            }
+            if (want.miter != miter)
+            {
+                jso.setMiterLimit(miter = want.miter);
+
+                size++;
+            }
+            if (want.alpha != alpha)
+            {
+                jso.setGlobalAlpha(alpha = want.alpha);
+
+                size++;
+            }
+            if (false == want.comp.equals(comp))
+            {
+                jso.setGlobalCompositeOperation(comp = want.comp);
+
+                size++;
+            }
+            if (false == want.font.equals(font))
+            {
+                jso.setTextFont(font = want.font);
+
+                size++;
+            }
+            if (false == want.base.equals(base))
+            {
+                jso.setTextBaseline(base = want.base);
+
+                size++;
+            }
+            if (false == want.align.equals(align))
+            {
+                jso.setTextAlign(align = want.align);
+
+                size++;
+            }
+            if ((false == want.shadow.equals(shadow)) || (want.shadowx != shadowx) || (want.shadowy != shadowy) || (want.shadowb != shadowb))
+            {
+                setShadow(want.shadow, want.shadowx, want.shadowy, want.shadowb);
+
+                jso.setShadow(shadow, shadowx, shadowy, shadowb);
+
+                size++;
+            }
+            if ((want.m00 != m00) || (want.m10 != m10) || (want.m01 != m01) || (want.m11 != m11) || (want.m02 != m02) || (want.m12 != m12))
+            {
+                setTransform(want.m00, want.m10, want.m01, want.m11, want.m02, want.m12);
+
+                jso.setTransform(m00, m10, m01, m11, m02, m12);
+
+                size++;
+            }
+            return size;
+        }
+    }
 }
@@ -388,6 +388,14 @@ public final class NativeContext2D extends JavaScriptObject
 		}
     }-*/;
 
+    public final native void setShadow(String color, double offx, double offy, double blur)
+    /*-{
+		this.shadowColor = color;
+		this.shadowOffsetX = offx;
+		this.shadowOffsetY = offy;
+		this.shadowBlur = blur;
+    }-*/;
+
     public final native boolean isSupported(String feature)
     /*-{
 		return (this[feature] !== undefined);
@@ -398,6 +406,30 @@ public final class NativeContext2D extends JavaScriptObject
 		return this.isPointInPath(x, y);
     }-*/;
 
+    public final native boolean isPointInStroke(double x, double y)
+    /*-{
+		if (this.isPointInStroke) {
+			return this.isPointInStroke(x, y);
+		}
+		return false;
+    }-*/;
+
+    public final native boolean isPointInPath(NativePath2D path, double x, double y)
+    /*-{
+		if (path) {
+			return this.isPointInPath(path, x, y);
+		}
+		return false;
+    }-*/;
+
+    public final native boolean isPointInStroke(NativePath2D path, double x, double y)
+    /*-{
+		if (path && this.isPointInStroke) {
+			return this.isPointInStroke(path, x, y);
+		}
+		return false;
+    }-*/;
+
     public final native ImageData getImageData(double x, double y, double width, double height)
     /*-{
 		return this.getImageData(x, y, width, height);
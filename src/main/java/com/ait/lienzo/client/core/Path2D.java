@@ -18,6 +18,9 @@ package com.ait.lienzo.client.core;
 
 import java.util.Objects;
 
+import com.ait.lienzo.client.core.types.PathPartEntryJSO;
+import com.ait.lienzo.client.core.types.PathPartList;
+import com.ait.lienzo.client.core.types.PathPartList.PathPartListJSO;
 import com.google.gwt.core.client.JavaScriptObject;
 
 public class Path2D
@@ -44,6 +47,70 @@ public class Path2D
 		return false;
     }-*/;
 
+    /**
+     * Builds a Path2D from the entries of the given list, or returns null if Path2D isn't supported,
+     * or can't draw one of the entries (ellipses on older browsers.)
+     * The Path2D is closed if the list closes a path, just as {@link Context2D#path(PathPartList)} returns true.
+     * 
+     * @param list
+     * @return Path2D
+     */
+    public static final Path2D make(final PathPartList list)
+    {
+        if (null == list)
+        {
+            return null;
+        }
+        final NativePath2D path = NativePath2D.make(list.getJSO(), false);
+
+        if (null == path)
+        {
+            return null;
+        }
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            if (list.get(i).getCommand() == PathPartEntryJSO.CLOSE_PATH_PART)
+            {
+                return new Path2D(path).setClosed(true);
+            }
+        }
+        return new Path2D(path);
+    }
+
+    /**
+     * Builds a Path2D for clipping from the entries of the given list, up to and including its first closed path,
+     * just as {@link Context2D#clip(PathPartList)} does, or returns null if Path2D isn't supported,
+     * can't draw one of the entries, or the list doesn't close a path.
+     * 
+     * @param list
+     * @return Path2D
+     */
+    public static final Path2D makeClip(final PathPartList list)
+    {
+        if (null == list)
+        {
+            return null;
+        }
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            if (list.get(i).getCommand() == PathPartEntryJSO.CLOSE_PATH_PART)
+            {
+                final NativePath2D path = NativePath2D.make(list.getJSO(), true);
+
+                if (null == path)
+                {
+                    return null;
+                }
+                return new Path2D(path).setClosed(true);
+            }
+        }
+        return null;
+    }
+
     public Path2D(final NativePath2D path)
     {
         m_path = path;
@@ -219,6 +286,54 @@ public class Path2D
 			return null;
         }-*/;
 
+        static final native NativePath2D make(PathPartListJSO list, boolean first)
+        /*-{
+			if (!$wnd.Path2D || !list) {
+				return null;
+			}
+			var leng = list.length;
+			if (leng < 1) {
+				return null;
+			}
+			var indx = 0;
+			var path = new $wnd.Path2D();
+			while (indx < leng) {
+				var e = list[indx++];
+				var p = e.points;
+				switch (e.command) {
+				case 1:
+					path.lineTo(p[0], p[1]);
+					break;
+				case 2:
+					path.moveTo(p[0], p[1]);
+					break;
+				case 3:
+					path.bezierCurveTo(p[0], p[1], p[2], p[3], p[4], p[5]);
+					break;
+				case 4:
+					path.quadraticCurveTo(p[0], p[1], p[2], p[3]);
+					break;
+				case 5:
+					if (!path.ellipse) {
+						return null;
+					}
+					path.ellipse(p[0], p[1], p[2], p[3], p[6], p[4], p[4] + p[5],
+							(1 - p[7]) > 0);
+					break;
+				case 6:
+					path.closePath();
+					if (first) {
+						return path;
+					}
+					break;
+				case 7:
+					path.arcTo(p[0], p[1], p[2], p[3], p[4]);
+					break;
+				}
+			}
+			return path;
+        }-*/;
+
         public final native void beginPath()
         /*-{
 			if (this.beginPath) {
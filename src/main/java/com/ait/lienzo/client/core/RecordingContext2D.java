@@ -37,12 +37,138 @@ import com.ait.lienzo.shared.core.types.TextBaseLine;
 import com.google.gwt.dom.client.Element;
 
 /**
- * Wrapper around a JSO that serves as a proxy to access the native capabilities of Canvas 2D.
- * @see {@link NativeContext2D} 
+ * A Context2D that forwards every call to the Context2D it wraps and, between {@link #start()} and {@link #stop()},
+ * also records the drawing calls into a display list: opcodes, numeric arguments and object arguments are appended
+ * to three flat arrays, which {@link #replay(Context2D, Transform)} walks to re-issue the calls, without visiting
+ * the scene graph or reading any attributes.
  */
 public class RecordingContext2D extends Context2D
 {
-    private final Context2D m_context;
+    private static final int    SAVE                 = 0;
+
+    private static final int    RESTORE              = 1;
+
+    private static final int    BEGIN_PATH           = 2;
+
+    private static final int    CLOSE_PATH           = 3;
+
+    private static final int    RECT                 = 4;
+
+    private static final int    FILL_RECT            = 5;
+
+    private static final int    FILL                 = 6;
+
+    private static final int    STROKE               = 7;
+
+    private static final int    FILL_COLOR           = 8;
+
+    private static final int    ARC                  = 9;
+
+    private static final int    ELLIPSE              = 10;
+
+    private static final int    ARC_TO               = 11;
+
+    private static final int    STROKE_COLOR         = 12;
+
+    private static final int    STROKE_WIDTH         = 13;
+
+    private static final int    LINE_CAP             = 14;
+
+    private static final int    LINE_JOIN            = 15;
+
+    private static final int    TRANSFORM            = 16;
+
+    private static final int    SET_TRANSFORM        = 17;
+
+    private static final int    IDENTITY             = 18;
+
+    private static final int    MOVE_TO              = 19;
+
+    private static final int    BEZIER_TO            = 20;
+
+    private static final int    LINE_TO              = 21;
+
+    private static final int    LINEAR_GRADIENT      = 22;
+
+    private static final int    RADIAL_GRADIENT      = 23;
+
+    private static final int    PATTERN_GRADIENT     = 24;
+
+    private static final int    QUADRATIC_TO         = 25;
+
+    private static final int    FILL_TEXT_GRADIENT   = 26;
+
+    private static final int    TEXT_FONT            = 27;
+
+    private static final int    TEXT_BASELINE        = 28;
+
+    private static final int    TEXT_ALIGN           = 29;
+
+    private static final int    FILL_TEXT            = 30;
+
+    private static final int    STROKE_TEXT          = 31;
+
+    private static final int    GLOBAL_ALPHA         = 32;
+
+    private static final int    TRANSLATE            = 33;
+
+    private static final int    ROTATE               = 34;
+
+    private static final int    SCALE                = 35;
+
+    private static final int    CLEAR_RECT           = 36;
+
+    private static final int    SHADOW               = 37;
+
+    private static final int    CLIP                 = 38;
+
+    private static final int    RESET_CLIP           = 39;
+
+    private static final int    MITER_LIMIT          = 40;
+
+    private static final int    PATH                 = 41;
+
+    private static final int    CLIP_LIST            = 42;
+
+    private static final int    PUT_IMAGE_DATA       = 43;
+
+    private static final int    PUT_IMAGE_DATA_DIRTY = 44;
+
+    private static final int    COMPOSITE            = 45;
+
+    private static final int    SMOOTHING            = 46;
+
+    private static final int    DRAW_IMAGE           = 47;
+
+    private static final int    DRAW_IMAGE_SIZE      = 48;
+
+    private static final int    DRAW_IMAGE_CLIP      = 49;
+
+    private static final int    LINE_DASH            = 50;
+
+    private static final int    LINE_DASH_OFFSET     = 51;
+
+    private static final int    FILL_PATH            = 52;
+
+    private static final int    STROKE_PATH          = 53;
+
+    private static final int    CLIP_PATH            = 54;
+
+    private final Context2D     m_context;
+
+    private boolean             m_active = false;
+
+    private int[]               m_ops    = new int[64];
+
+    private double[]            m_nums   = new double[256];
+
+    private Object[]            m_refs   = new Object[64];
+
+    private int                 m_opsz   = 0;
+
+    private int                 m_numsz  = 0;
+
+    private int                 m_refsz  = 0;
 
     public RecordingContext2D(final Context2D context)
     {
@@ -60,54 +186,108 @@ public class RecordingContext2D extends Context2D
     @Override
     public void save()
     {
+        if (m_active)
+        {
+            record(SAVE);
+        }
         m_context.save();
     }
 
     @Override
     public void restore()
     {
+        if (m_active)
+        {
+            record(RESTORE);
+        }
         m_context.restore();
     }
 
     @Override
     public void beginPath()
     {
+        if (m_active)
+        {
+            record(BEGIN_PATH);
+        }
         m_context.beginPath();
     }
 
     @Override
     public void closePath()
     {
+        if (m_active)
+        {
+            record(CLOSE_PATH);
+        }
         m_context.closePath();
     }
 
     @Override
     public void rect(final double x, final double y, final double w, final double h)
     {
+        if (m_active)
+        {
+            record(RECT);
+
+            num(x);
+
+            num(y);
+
+            num(w);
+
+            num(h);
+        }
         m_context.rect(x, y, w, h);
     }
 
     @Override
     public void fillRect(final double x, final double y, final double w, final double h)
     {
+        if (m_active)
+        {
+            record(FILL_RECT);
+
+            num(x);
+
+            num(y);
+
+            num(w);
+
+            num(h);
+        }
         m_context.fillRect(x, y, w, h);
     }
 
     @Override
     public void fill()
     {
+        if (m_active)
+        {
+            record(FILL);
+        }
         m_context.fill();
     }
 
     @Override
     public void stroke()
     {
+        if (m_active)
+        {
+            record(STROKE);
+        }
         m_context.stroke();
     }
 
     @Override
     public void setFillColor(final String color)
     {
+        if (m_active)
+        {
+            record(FILL_COLOR);
+
+            ref(color);
+        }
         m_context.setFillColor(color);
     }
 
@@ -121,42 +301,98 @@ public class RecordingContext2D extends Context2D
     @Override
     public void setFillColor(final IColor color)
     {
-        m_context.setFillColor((null != color) ? color.getColorString() : null);
+        setFillColor((null != color) ? color.getColorString() : null);
     }
 
     @Override
     public void arc(final double x, final double y, final double radius, final double startAngle, final double endAngle, final boolean antiClockwise)
     {
+        if (m_active)
+        {
+            record(ARC);
+
+            num(x);
+
+            num(y);
+
+            num(radius);
+
+            num(startAngle);
+
+            num(endAngle);
+
+            num(antiClockwise ? 1 : 0);
+        }
         m_context.arc(x, y, radius, startAngle, endAngle, antiClockwise);
     }
 
     @Override
     public void arc(final double x, final double y, final double radius, final double startAngle, final double endAngle)
     {
-        m_context.arc(x, y, radius, startAngle, endAngle, false);
+        arc(x, y, radius, startAngle, endAngle, false);
     }
 
     @Override
     public void ellipse(final double x, final double y, final double radiusX, final double radiusY, final double rotation, final double startAngle, final double endAngle, final boolean antiClockwise)
     {
+        if (m_active)
+        {
+            record(ELLIPSE);
+
+            num(x);
+
+            num(y);
+
+            num(radiusX);
+
+            num(radiusY);
+
+            num(rotation);
+
+            num(startAngle);
+
+            num(endAngle);
+
+            num(antiClockwise ? 1 : 0);
+        }
         m_context.ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle, antiClockwise);
     }
 
     @Override
     public void ellipse(final double x, final double y, final double radiusX, final double radiusY, final double rotation, final double startAngle, final double endAngle)
     {
-        m_context.ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle);
+        ellipse(x, y, radiusX, radiusY, rotation, startAngle, endAngle, false);
     }
 
     @Override
     public void arcTo(final double x1, final double y1, final double x2, final double y2, final double radius)
     {
+        if (m_active)
+        {
+            record(ARC_TO);
+
+            num(x1);
+
+            num(y1);
+
+            num(x2);
+
+            num(y2);
+
+            num(radius);
+        }
         m_context.arcTo(x1, y1, x2, y2, radius);
     }
 
     @Override
     public void setStrokeColor(final String color)
     {
+        if (m_active)
+        {
+            record(STROKE_COLOR);
+
+            ref(color);
+        }
         m_context.setStrokeColor(color);
     }
 
@@ -170,198 +406,450 @@ public class RecordingContext2D extends Context2D
     @Override
     public void setStrokeColor(final IColor color)
     {
-        m_context.setStrokeColor((null != color) ? color.getColorString() : null);
+        setStrokeColor((null != color) ? color.getColorString() : null);
     }
 
     @Override
     public void setStrokeWidth(final double width)
     {
+        if (m_active)
+        {
+            record(STROKE_WIDTH);
+
+            num(width);
+        }
         m_context.setStrokeWidth(width);
     }
 
     @Override
     public void setLineCap(final LineCap linecap)
     {
+        if (m_active)
+        {
+            record(LINE_CAP);
+
+            ref(linecap);
+        }
         m_context.setLineCap(linecap);
     }
 
     @Override
     public void setLineJoin(final LineJoin linejoin)
     {
+        if (m_active)
+        {
+            record(LINE_JOIN);
+
+            ref(linejoin);
+        }
         m_context.setLineJoin(linejoin);
     }
 
     @Override
     public void transform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
     {
+        if (m_active)
+        {
+            record(TRANSFORM);
+
+            num(d0);
+
+            num(d1);
+
+            num(d2);
+
+            num(d3);
+
+            num(d4);
+
+            num(d5);
+        }
         m_context.transform(d0, d1, d2, d3, d4, d5);
     }
 
     @Override
     public void setTransform(final double d0, final double d1, final double d2, final double d3, final double d4, final double d5)
     {
+        if (m_active)
+        {
+            record(SET_TRANSFORM);
+
+            num(d0);
+
+            num(d1);
+
+            num(d2);
+
+            num(d3);
+
+            num(d4);
+
+            num(d5);
+        }
         m_context.setTransform(d0, d1, d2, d3, d4, d5);
     };
 
     @Override
     public void setToIdentityTransform()
     {
+        if (m_active)
+        {
+            record(IDENTITY);
+        }
         m_context.setToIdentityTransform();
     };
 
     @Override
     public void moveTo(final double x, final double y)
     {
+        if (m_active)
+        {
+            record(MOVE_TO);
+
+            num(x);
+
+            num(y);
+        }
         m_context.moveTo(x, y);
     }
 
     @Override
     public void bezierCurveTo(final double cp1x, final double cp1y, final double cp2x, final double cp2y, final double x, final double y)
     {
+        if (m_active)
+        {
+            record(BEZIER_TO);
+
+            num(cp1x);
+
+            num(cp1y);
+
+            num(cp2x);
+
+            num(cp2y);
+
+            num(x);
+
+            num(y);
+        }
         m_context.bezierCurveTo(cp1x, cp1y, cp2x, cp2y, x, y);
     }
 
     @Override
     public void lineTo(final double x, final double y)
     {
+        if (m_active)
+        {
+            record(LINE_TO);
+
+            num(x);
+
+            num(y);
+        }
         m_context.lineTo(x, y);
     }
 
     @Override
     public void setFillGradient(final LinearGradient gradient)
     {
+        if (m_active)
+        {
+            record(LINEAR_GRADIENT);
+
+            ref(gradient);
+        }
         m_context.setFillGradient(gradient);
     }
 
     @Override
     public void setFillGradient(final RadialGradient gradient)
     {
+        if (m_active)
+        {
+            record(RADIAL_GRADIENT);
+
+            ref(gradient);
+        }
         m_context.setFillGradient(gradient);
     }
 
     @Override
     public void setFillGradient(final PatternGradient gradient)
     {
+        if (m_active)
+        {
+            record(PATTERN_GRADIENT);
+
+            ref(gradient);
+        }
         m_context.setFillGradient(gradient);
     }
 
     @Override
     public void quadraticCurveTo(final double cpx, final double cpy, final double x, final double y)
     {
+        if (m_active)
+        {
+            record(QUADRATIC_TO);
+
+            num(cpx);
+
+            num(cpy);
+
+            num(x);
+
+            num(y);
+        }
         m_context.quadraticCurveTo(cpx, cpy, x, y);
     }
 
     @Override
     public void transform(final Transform transform)
     {
-        m_context.transform(transform);
+        if (null != transform)
+        {
+            transform(transform.get(0), transform.get(1), transform.get(2), transform.get(3), transform.get(4), transform.get(5));
+        }
     }
 
     @Override
     public void setTransform(final Transform transform)
     {
-        m_context.setTransform(transform);
+        if (null != transform)
+        {
+            setTransform(transform.get(0), transform.get(1), transform.get(2), transform.get(3), transform.get(4), transform.get(5));
+        }
     }
 
     @Override
     public void fillTextWithGradient(final String text, final double x, final double y, final double sx, final double sy, final double ex, final double ey, final String color)
     {
+        if (m_active)
+        {
+            record(FILL_TEXT_GRADIENT);
+
+            num(x);
+
+            num(y);
+
+            num(sx);
+
+            num(sy);
+
+            num(ex);
+
+            num(ey);
+
+            ref(text);
+
+            ref(color);
+        }
         m_context.fillTextWithGradient(text, x, y, sx, sy, ex, ey, color);
     }
 
     @Override
     public void setTextFont(final String font)
     {
+        if (m_active)
+        {
+            record(TEXT_FONT);
+
+            ref(font);
+        }
         m_context.setTextFont(font);
     }
 
     @Override
     public void setTextBaseline(final TextBaseLine baseline)
     {
+        if (m_active)
+        {
+            record(TEXT_BASELINE);
+
+            ref(baseline);
+        }
         m_context.setTextBaseline(baseline);
     }
 
     @Override
     public void setTextAlign(final TextAlign textAlign)
     {
+        if (m_active)
+        {
+            record(TEXT_ALIGN);
+
+            ref(textAlign);
+        }
         m_context.setTextAlign(textAlign);
     }
 
     @Override
     public void fillText(final String text, final double x, final double y)
     {
+        if (m_active)
+        {
+            record(FILL_TEXT);
+
+            num(x);
+
+            num(y);
+
+            ref(text);
+        }
         m_context.fillText(text, x, y);
     }
 
     @Override
     public void strokeText(final String text, final double x, final double y)
     {
+        if (m_active)
+        {
+            record(STROKE_TEXT);
+
+            num(x);
+
+            num(y);
+
+            ref(text);
+        }
         m_context.strokeText(text, x, y);
     }
 
     @Override
     public void setGlobalAlpha(final double alpha)
     {
+        if (m_active)
+        {
+            record(GLOBAL_ALPHA);
+
+            num(alpha);
+        }
         m_context.setGlobalAlpha(alpha);
     }
 
     @Override
     public void translate(final double x, final double y)
     {
+        if (m_active)
+        {
+            record(TRANSLATE);
+
+            num(x);
+
+            num(y);
+        }
         m_context.translate(x, y);
     }
 
     @Override
     public void rotate(final double rot)
     {
+        if (m_active)
+        {
+            record(ROTATE);
+
+            num(rot);
+        }
         m_context.rotate(rot);
     }
 
     @Override
     public void scale(final double sx, final double sy)
     {
+        if (m_active)
+        {
+            record(SCALE);
+
+            num(sx);
+
+            num(sy);
+        }
         m_context.scale(sx, sy);
     }
 
     @Override
     public void clearRect(final double x, final double y, final double wide, final double high)
     {
+        if (m_active)
+        {
+            record(CLEAR_RECT);
+
+            num(x);
+
+            num(y);
+
+            num(wide);
+
+            num(high);
+        }
         m_context.clearRect(x, y, wide, high);
     }
 
     @Override
     public void setShadow(final Shadow shadow)
     {
+        if (m_active)
+        {
+            record(SHADOW);
+
+            ref(shadow);
+        }
         m_context.setShadow(shadow);
     }
 
     @Override
     public void clip()
     {
+        if (m_active)
+        {
+            record(CLIP);
+        }
         m_context.clip();
     }
 
     @Override
     public void resetClip()
     {
+        if (m_active)
+        {
+            record(RESET_CLIP);
+        }
         m_context.resetClip();
     }
 
     @Override
     public void setMiterLimit(final double limit)
     {
+        if (m_active)
+        {
+            record(MITER_LIMIT);
+
+            num(limit);
+        }
         m_context.setMiterLimit(limit);
     }
 
     @Override
     public boolean path(final PathPartList list)
     {
+        if (m_active)
+        {
+            record(PATH);
+
+            ref(list);
+        }
         return m_context.path(list);
     }
 
     @Override
     public boolean clip(final PathPartList list)
     {
+        if (m_active)
+        {
+            record(CLIP_LIST);
+
+            ref(list);
+        }
         return m_context.clip(list);
     }
 
@@ -377,6 +865,24 @@ public class RecordingContext2D extends Context2D
         return m_context.isPointInPath(x, y);
     }
 
+    @Override
+    public boolean isPointInStroke(final double x, final double y)
+    {
+        return m_context.isPointInStroke(x, y);
+    }
+
+    @Override
+    public boolean isPointInPath(final Path2D path, final double x, final double y)
+    {
+        return m_context.isPointInPath(path, x, y);
+    }
+
+    @Override
+    public boolean isPointInStroke(final Path2D path, final double x, final double y)
+    {
+        return m_context.isPointInStroke(path, x, y);
+    }
+
     @Override
     public ImageDataPixelColor getImageDataPixelColor(final int x, final int y)
     {
@@ -392,12 +898,40 @@ public class RecordingContext2D extends Context2D
     @Override
     public void putImageData(final ImageData imageData, final int x, final int y)
     {
+        if (m_active)
+        {
+            record(PUT_IMAGE_DATA);
+
+            num(x);
+
+            num(y);
+
+            ref(imageData);
+        }
         m_context.putImageData(imageData, x, y);
     }
 
     @Override
     public void putImageData(final ImageData imageData, final int x, final int y, final int dirtyX, final int dirtyY, final int dirtyWidth, final int dirtyHeight)
     {
+        if (m_active)
+        {
+            record(PUT_IMAGE_DATA_DIRTY);
+
+            num(x);
+
+            num(y);
+
+            num(dirtyX);
+
+            num(dirtyY);
+
+            num(dirtyWidth);
+
+            num(dirtyHeight);
+
+            ref(imageData);
+        }
         m_context.putImageData(imageData, x, y, dirtyX, dirtyY, dirtyWidth, dirtyHeight);
     }
 
@@ -422,42 +956,112 @@ public class RecordingContext2D extends Context2D
     @Override
     public void setGlobalCompositeOperation(final CompositeOperation operation)
     {
+        if (m_active)
+        {
+            record(COMPOSITE);
+
+            ref(operation);
+        }
         m_context.setGlobalCompositeOperation(operation);
     }
 
     @Override
     public void setImageSmoothingEnabled(final boolean enabled)
     {
+        if (m_active)
+        {
+            record(SMOOTHING);
+
+            num(enabled ? 1 : 0);
+        }
         m_context.setImageSmoothingEnabled(enabled);
     }
 
     @Override
     public void drawImage(final Element image, final double x, final double y)
     {
+        if (m_active)
+        {
+            record(DRAW_IMAGE);
+
+            num(x);
+
+            num(y);
+
+            ref(image);
+        }
         m_context.drawImage(image, x, y);
     }
 
     @Override
     public void drawImage(final Element image, final double x, final double y, final double w, final double h)
     {
+        if (m_active)
+        {
+            record(DRAW_IMAGE_SIZE);
+
+            num(x);
+
+            num(y);
+
+            num(w);
+
+            num(h);
+
+            ref(image);
+        }
         m_context.drawImage(image, x, y, w, h);
     }
 
     @Override
     public void drawImage(final Element image, final double sx, final double sy, final double sw, final double sh, final double x, final double y, final double w, final double h)
     {
+        if (m_active)
+        {
+            record(DRAW_IMAGE_CLIP);
+
+            num(sx);
+
+            num(sy);
+
+            num(sw);
+
+            num(sh);
+
+            num(x);
+
+            num(y);
+
+            num(w);
+
+            num(h);
+
+            ref(image);
+        }
         m_context.drawImage(image, sx, sy, sw, sh, x, y, w, h);
     }
 
     @Override
     public void setLineDash(final DashArray dashes)
     {
+        if (m_active)
+        {
+            record(LINE_DASH);
+
+            ref(dashes);
+        }
         m_context.setLineDash(dashes);
     }
 
     @Override
     public void setLineDashOffset(final double offset)
     {
+        if (m_active)
+        {
+            record(LINE_DASH_OFFSET);
+
+            num(offset);
+        }
         m_context.setLineDashOffset(offset);
     }
 
@@ -467,21 +1071,69 @@ public class RecordingContext2D extends Context2D
         return m_context.getBackingStorePixelRatio();
     }
 
+    @Override
+    public int getStateCallCount()
+    {
+        return m_context.getStateCallCount();
+    }
+
+    @Override
+    public int getNativeStateCallCount()
+    {
+        return m_context.getNativeStateCallCount();
+    }
+
+    @Override
+    public int getElidedCallCount()
+    {
+        return m_context.getElidedCallCount();
+    }
+
+    @Override
+    public void resetStateCallCounts()
+    {
+        m_context.resetStateCallCounts();
+    }
+
+    @Override
+    public void resetState()
+    {
+        m_context.resetState();
+    }
+
     @Override
     public void fill(final Path2D path)
     {
+        if (m_active)
+        {
+            record(FILL_PATH);
+
+            ref(path);
+        }
         m_context.fill(path);
     }
 
     @Override
     public void stroke(final Path2D path)
     {
+        if (m_active)
+        {
+            record(STROKE_PATH);
+
+            ref(path);
+        }
         m_context.stroke(path);
     }
 
     @Override
     public void clip(final Path2D path)
     {
+        if (m_active)
+        {
+            record(CLIP_PATH);
+
+            ref(path);
+        }
         m_context.clip(path);
     }
 
@@ -509,18 +1161,362 @@ public class RecordingContext2D extends Context2D
         return true;
     }
 
+    /**
+     * Clears the display list and starts recording every drawing call into it. Calls are still forwarded to the wrapped Context2D.
+     * 
+     * @return this RecordingContext2D
+     */
     public RecordingContext2D start()
     {
+        reset();
+
+        m_active = true;
+
         return this;
     }
 
+    /**
+     * Stops recording. The display list is kept, and can be replayed with {@link #replay(Context2D)}.
+     * 
+     * @return this RecordingContext2D
+     */
     public RecordingContext2D stop()
     {
+        m_active = false;
+
         return this;
     }
 
+    /**
+     * Clears the display list.
+     * 
+     * @return this RecordingContext2D
+     */
     public RecordingContext2D reset()
     {
+        m_opsz = 0;
+
+        m_numsz = 0;
+
+        if (m_refsz > 0)
+        {
+            m_refsz = 0;
+
+            m_refs = new Object[64];
+        }
         return this;
     }
+
+    public boolean isActive()
+    {
+        return m_active;
+    }
+
+    /**
+     * Returns the number of recorded drawing calls.
+     * 
+     * @return int
+     */
+    public int size()
+    {
+        return m_opsz;
+    }
+
+    public boolean isEmpty()
+    {
+        return (m_opsz == 0);
+    }
+
+    /**
+     * Re-issues the recorded drawing calls on the given Context2D.
+     * 
+     * @param context
+     */
+    public void replay(final Context2D context)
+    {
+        replay(context, null);
+    }
+
+    /**
+     * Re-issues the recorded drawing calls on the given Context2D, with the given Transform applied first.
+     * Recorded calls that set the transform outright are combined with it too, so the whole picture moves.
+     * Gradients, images, paths and other objects are replayed by reference, so changes made to them since
+     * recording show up in the replay.
+     * 
+     * @param context
+     * @param transform may be null
+     */
+    public void replay(final Context2D context, final Transform transform)
+    {
+        if ((null == context) || (context == this))
+        {
+            return;
+        }
+        final int[] ops = m_ops;
+
+        final double[] nums = m_nums;
+
+        final Object[] refs = m_refs;
+
+        final int size = m_opsz;
+
+        int n = 0;
+
+        int r = 0;
+
+        context.save();
+
+        if (null != transform)
+        {
+            context.transform(transform);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            switch (ops[i])
+            {
+                case SAVE:
+                    context.save();
+                    break;
+                case RESTORE:
+                    context.restore();
+                    break;
+                case BEGIN_PATH:
+                    context.beginPath();
+                    break;
+                case CLOSE_PATH:
+                    context.closePath();
+                    break;
+                case RECT:
+                    context.rect(nums[n], nums[n + 1], nums[n + 2], nums[n + 3]);
+                    n += 4;
+                    break;
+                case FILL_RECT:
+                    context.fillRect(nums[n], nums[n + 1], nums[n + 2], nums[n + 3]);
+                    n += 4;
+                    break;
+                case FILL:
+                    context.fill();
+                    break;
+                case STROKE:
+                    context.stroke();
+                    break;
+                case FILL_COLOR:
+                    context.setFillColor((String) refs[r++]);
+                    break;
+                case ARC:
+                    context.arc(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5] != 0);
+                    n += 6;
+                    break;
+                case ELLIPSE:
+                    context.ellipse(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5], nums[n + 6], nums[n + 7] != 0);
+                    n += 8;
+                    break;
+                case ARC_TO:
+                    context.arcTo(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4]);
+                    n += 5;
+                    break;
+                case STROKE_COLOR:
+                    context.setStrokeColor((String) refs[r++]);
+                    break;
+                case STROKE_WIDTH:
+                    context.setStrokeWidth(nums[n++]);
+                    break;
+                case LINE_CAP:
+                    context.setLineCap((LineCap) refs[r++]);
+                    break;
+                case LINE_JOIN:
+                    context.setLineJoin((LineJoin) refs[r++]);
+                    break;
+                case TRANSFORM:
+                    context.transform(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5]);
+                    n += 6;
+                    break;
+                case SET_TRANSFORM:
+                    if (null != transform)
+                    {
+                        context.setTransform(transform.copy().multiply(new Transform(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5])));
+                    }
+                    else
+                    {
+                        context.setTransform(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5]);
+                    }
+                    n += 6;
+                    break;
+                case IDENTITY:
+                    if (null != transform)
+                    {
+                        context.setTransform(transform);
+                    }
+                    else
+                    {
+                        context.setToIdentityTransform();
+                    }
+                    break;
+                case MOVE_TO:
+                    context.moveTo(nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case BEZIER_TO:
+                    context.bezierCurveTo(nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5]);
+                    n += 6;
+                    break;
+                case LINE_TO:
+                    context.lineTo(nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case LINEAR_GRADIENT:
+                    context.setFillGradient((LinearGradient) refs[r++]);
+                    break;
+                case RADIAL_GRADIENT:
+                    context.setFillGradient((RadialGradient) refs[r++]);
+                    break;
+                case PATTERN_GRADIENT:
+                    context.setFillGradient((PatternGradient) refs[r++]);
+                    break;
+                case QUADRATIC_TO:
+                    context.quadraticCurveTo(nums[n], nums[n + 1], nums[n + 2], nums[n + 3]);
+                    n += 4;
+                    break;
+                case FILL_TEXT_GRADIENT:
+                    context.fillTextWithGradient((String) refs[r], nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5], (String) refs[r + 1]);
+                    n += 6;
+                    r += 2;
+                    break;
+                case TEXT_FONT:
+                    context.setTextFont((String) refs[r++]);
+                    break;
+                case TEXT_BASELINE:
+                    context.setTextBaseline((TextBaseLine) refs[r++]);
+                    break;
+                case TEXT_ALIGN:
+                    context.setTextAlign((TextAlign) refs[r++]);
+                    break;
+                case FILL_TEXT:
+                    context.fillText((String) refs[r++], nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case STROKE_TEXT:
+                    context.strokeText((String) refs[r++], nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case GLOBAL_ALPHA:
+                    context.setGlobalAlpha(nums[n++]);
+                    break;
+                case TRANSLATE:
+                    context.translate(nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case ROTATE:
+                    context.rotate(nums[n++]);
+                    break;
+                case SCALE:
+                    context.scale(nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case CLEAR_RECT:
+                    context.clearRect(nums[n], nums[n + 1], nums[n + 2], nums[n + 3]);
+                    n += 4;
+                    break;
+                case SHADOW:
+                    context.setShadow((Shadow) refs[r++]);
+                    break;
+                case CLIP:
+                    context.clip();
+                    break;
+                case RESET_CLIP:
+                    context.resetClip();
+                    break;
+                case MITER_LIMIT:
+                    context.setMiterLimit(nums[n++]);
+                    break;
+                case PATH:
+                    context.path((PathPartList) refs[r++]);
+                    break;
+                case CLIP_LIST:
+                    context.clip((PathPartList) refs[r++]);
+                    break;
+                case PUT_IMAGE_DATA:
+                    context.putImageData((ImageData) refs[r++], (int) nums[n], (int) nums[n + 1]);
+                    n += 2;
+                    break;
+                case PUT_IMAGE_DATA_DIRTY:
+                    context.putImageData((ImageData) refs[r++], (int) nums[n], (int) nums[n + 1], (int) nums[n + 2], (int) nums[n + 3], (int) nums[n + 4], (int) nums[n + 5]);
+                    n += 6;
+                    break;
+                case COMPOSITE:
+                    context.setGlobalCompositeOperation((CompositeOperation) refs[r++]);
+                    break;
+                case SMOOTHING:
+                    context.setImageSmoothingEnabled(nums[n++] != 0);
+                    break;
+                case DRAW_IMAGE:
+                    context.drawImage((Element) refs[r++], nums[n], nums[n + 1]);
+                    n += 2;
+                    break;
+                case DRAW_IMAGE_SIZE:
+                    context.drawImage((Element) refs[r++], nums[n], nums[n + 1], nums[n + 2], nums[n + 3]);
+                    n += 4;
+                    break;
+                case DRAW_IMAGE_CLIP:
+                    context.drawImage((Element) refs[r++], nums[n], nums[n + 1], nums[n + 2], nums[n + 3], nums[n + 4], nums[n + 5], nums[n + 6], nums[n + 7]);
+                    n += 8;
+                    break;
+                case LINE_DASH:
+                    context.setLineDash((DashArray) refs[r++]);
+                    break;
+                case LINE_DASH_OFFSET:
+                    context.setLineDashOffset(nums[n++]);
+                    break;
+                case FILL_PATH:
+                    context.fill((Path2D) refs[r++]);
+                    break;
+                case STROKE_PATH:
+                    context.stroke((Path2D) refs[r++]);
+                    break;
+                case CLIP_PATH:
+                    context.clip((Path2D) refs[r++]);
+                    break;
+            }
+        }
+        context.restore();
+    }
+
+    private final void record(final int op)
+    {
+        if (m_opsz == m_ops.length)
+        {
+            final int[] ops = new int[m_opsz * 2];
+
+            System.arraycopy(m_ops, 0, ops, 0, m_opsz);
+
+            m_ops = ops;
+        }
+        m_ops[m_opsz++] = op;
+    }
+
+    private final void num(final double value)
+    {
+        if (m_numsz == m_nums.length)
+        {
+            final double[] nums = new double[m_numsz * 2];
+
+            System.arraycopy(m_nums, 0, nums, 0, m_numsz);
+
+            m_nums = nums;
+        }
+        m_nums[m_numsz++] = value;
+    }
+
+    private final void ref(final Object value)
+    {
+        if (m_refsz == m_refs.length)
+        {
+            final Object[] refs = new Object[m_refsz * 2];
+
+            System.arraycopy(m_refs, 0, refs, 0, m_refsz);
+
+            m_refs = refs;
+        }
+        m_refs[m_refsz++] = value;
+    }
 }
@@ -17,7 +17,6 @@
 package com.ait.lienzo.client.core.animation;
 
 import com.ait.lienzo.client.core.shape.Node;
-import com.google.gwt.animation.client.AnimationScheduler;
 import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 
 public abstract class AbstractAnimation implements IAnimation, IAnimationHandle
@@ -59,7 +58,7 @@ public abstract class AbstractAnimation implements IAnimation, IAnimationHandle
 
                     if (isRunning())
                     {
-                        AnimationScheduler.get().requestAnimationFrame(m_animate);
+                        LayerRedrawManager.get().requestAnimationFrame(m_animate);
                     }
                     else
                     {
@@ -84,7 +83,7 @@ public abstract class AbstractAnimation implements IAnimation, IAnimationHandle
 
         doStart();
 
-        AnimationScheduler.get().requestAnimationFrame(getAnimationCallback());
+        LayerRedrawManager.get().requestAnimationFrame(getAnimationCallback());
 
         return this;
     }
@@ -0,0 +1,36 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.animation;
+
+import com.ait.lienzo.client.core.shape.Layer;
+
+/**
+ * ILayerRedrawListener is notified by the {@link LayerRedrawManager} as it draws batched Layers:
+ * <ul>
+ * <li>onLayerDrawn - invoked after each Layer is drawn, with the time it took in milliseconds
+ * <li>onFrameDropped - invoked when the work done in one animation frame took longer than the frame interval,
+ * with that time in milliseconds and the number of Layers deferred to the next frame
+ * </ul>
+ * 
+ * @see LayerRedrawManager#addLayerRedrawListener(ILayerRedrawListener)
+ */
+public interface ILayerRedrawListener
+{
+    public void onLayerDrawn(Layer layer, double millis);
+
+    public void onFrameDropped(double millis, int deferred);
+}
@@ -20,14 +20,43 @@ import com.ait.lienzo.client.core.shape.Layer;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
 import com.google.gwt.animation.client.AnimationScheduler;
 import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.core.client.Duration;
 
+/**
+ * Draws batched Layers, see {@link Layer#batch()}, once per animation frame.
+ * <p>
+ * Animations request their frames here too, and run first, so the Layers they batch are drawn in the same frame.
+ * Layers are then drawn highest {@link Layer#getRedrawPriority()} first. When a frame budget is set and spent,
+ * the remaining Layers with a lower priority than the highest one in the frame are deferred to the next frame,
+ * at most {@link #getMaximumDeferrals()} times in a row.
+ */
 public final class LayerRedrawManager
 {
-    private static final LayerRedrawManager INSTANCE = new LayerRedrawManager();
+    public static final double                       DEFAULT_FRAME_BUDGET      = 0;
+
+    public static final double                       DEFAULT_FRAME_INTERVAL    = 1000.0 / 60.0;
+
+    public static final int                          DEFAULT_MAXIMUM_DEFERRALS = 4;
+
+    private static final LayerRedrawManager          INSTANCE                  = new LayerRedrawManager();
+
+    private final AnimationCallback                  m_redraw;
+
+    private NFastArrayList<Scheduled>                m_layers                  = new NFastArrayList<Scheduled>();
+
+    private NFastArrayList<AnimationCallback>        m_frames                  = new NFastArrayList<AnimationCallback>();
+
+    private final NFastArrayList<ILayerRedrawListener> m_listeners             = new NFastArrayList<ILayerRedrawListener>();
 
-    private final AnimationCallback         m_redraw;
+    private boolean                                  m_pending                 = false;
 
-    private NFastArrayList<Layer>           m_layers = new NFastArrayList<Layer>();
+    private double                                   m_budget                  = DEFAULT_FRAME_BUDGET;
+
+    private double                                   m_interval                = DEFAULT_FRAME_INTERVAL;
+
+    private int                                      m_maxdefer                = DEFAULT_MAXIMUM_DEFERRALS;
+
+    private long                                     m_dropped                 = 0L;
 
     public static final LayerRedrawManager get()
     {
@@ -41,19 +70,28 @@ public final class LayerRedrawManager
             @Override
             public final void execute(final double time)
             {
-                final int size = m_layers.size();
+                m_pending = false;
+
+                final double beg = Duration.currentTimeMillis();
 
-                if (size > 0)
+                runFrames(time);
+
+                final int deferred = drawLayers(beg);
+
+                final double used = Duration.currentTimeMillis() - beg;
+
+                if (used > m_interval)
                 {
-                    final NFastArrayList<Layer> list = m_layers;
+                    m_dropped++;
 
-                    m_layers = new NFastArrayList<Layer>();
+                    final int size = m_listeners.size();
 
                     for (int i = 0; i < size; i++)
                     {
-                        list.get(i).unBatchScheduled().draw();
+                        m_listeners.get(i).onFrameDropped(used, deferred);
                     }
                 }
+                kick();
             }
         };
     }
@@ -62,9 +100,9 @@ public final class LayerRedrawManager
     {
         if ((null != layer) && (false == layer.isBatchScheduled()))
         {
-            if (false == m_layers.contains(layer))
+            if (false == isScheduled(layer))
             {
-                m_layers.add(layer.doBatchScheduled());
+                m_layers.add(new Scheduled(layer.doBatchScheduled()));
 
                 kick();
             }
@@ -72,11 +110,234 @@ public final class LayerRedrawManager
         return layer;
     }
 
+    /**
+     * Runs the callback at the start of the next animation frame, before the batched Layers are drawn.
+     * 
+     * @param callback
+     */
+    public final void requestAnimationFrame(final AnimationCallback callback)
+    {
+        if (null != callback)
+        {
+            m_frames.add(callback);
+
+            kick();
+        }
+    }
+
+    /**
+     * Returns the time, in milliseconds, after which lower priority Layers are deferred to the next frame.
+     * The default value is 0, which means there is no budget.
+     * 
+     * @return double
+     */
+    public final double getFrameBudget()
+    {
+        return m_budget;
+    }
+
+    public final LayerRedrawManager setFrameBudget(final double budget)
+    {
+        m_budget = Math.max(0, budget);
+
+        return this;
+    }
+
+    /**
+     * Returns the time, in milliseconds, above which the work done in one frame counts as a dropped frame.
+     * The default value is {@link #DEFAULT_FRAME_INTERVAL}.
+     * 
+     * @return double
+     */
+    public final double getFrameInterval()
+    {
+        return m_interval;
+    }
+
+    public final LayerRedrawManager setFrameInterval(final double interval)
+    {
+        m_interval = Math.max(0, interval);
+
+        return this;
+    }
+
+    /**
+     * Returns how many frames in a row a Layer can be deferred before it is drawn regardless of the budget.
+     * 
+     * @return int
+     */
+    public final int getMaximumDeferrals()
+    {
+        return m_maxdefer;
+    }
+
+    public final LayerRedrawManager setMaximumDeferrals(final int deferrals)
+    {
+        m_maxdefer = Math.max(0, deferrals);
+
+        return this;
+    }
+
+    /**
+     * Returns the number of frames whose work took longer than {@link #getFrameInterval()}.
+     * 
+     * @return long
+     */
+    public final long getDroppedFrameCount()
+    {
+        return m_dropped;
+    }
+
+    public final LayerRedrawManager addLayerRedrawListener(final ILayerRedrawListener listener)
+    {
+        if ((null != listener) && (false == m_listeners.contains(listener)))
+        {
+            m_listeners.add(listener);
+        }
+        return this;
+    }
+
+    public final LayerRedrawManager removeLayerRedrawListener(final ILayerRedrawListener listener)
+    {
+        if (null != listener)
+        {
+            m_listeners.remove(listener);
+        }
+        return this;
+    }
+
+    private final void runFrames(final double time)
+    {
+        final int size = m_frames.size();
+
+        if (size > 0)
+        {
+            final NFastArrayList<AnimationCallback> list = m_frames;
+
+            m_frames = new NFastArrayList<AnimationCallback>();
+
+            for (int i = 0; i < size; i++)
+            {
+                list.get(i).execute(time);
+            }
+        }
+    }
+
+    /**
+     * Draws the scheduled Layers by priority, and returns the number deferred to the next frame.
+     */
+    private final int drawLayers(final double beg)
+    {
+        final int size = m_layers.size();
+
+        if (size < 1)
+        {
+            return 0;
+        }
+        final NFastArrayList<Scheduled> list = m_layers;
+
+        m_layers = new NFastArrayList<Scheduled>();
+
+        sort(list);
+
+        final int top = list.get(0).m_layer.getRedrawPriority();
+
+        int deferred = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            final Scheduled item = list.get(i);
+
+            final Layer layer = item.m_layer;
+
+            if ((m_budget > 0) && (layer.getRedrawPriority() < top) && (item.m_deferred < m_maxdefer) && ((Duration.currentTimeMillis() - beg) >= m_budget))
+            {
+                // still batch scheduled, so it isn't added twice.
+
+                item.m_deferred++;
+
+                m_layers.add(item);
+
+                deferred++;
+
+                continue;
+            }
+            final double start = Duration.currentTimeMillis();
+
+            layer.unBatchScheduled().drawDirtyRegion();
+
+            final int count = m_listeners.size();
+
+            if (count > 0)
+            {
+                final double millis = Duration.currentTimeMillis() - start;
+
+                for (int j = 0; j < count; j++)
+                {
+                    m_listeners.get(j).onLayerDrawn(layer, millis);
+                }
+            }
+        }
+        return deferred;
+    }
+
+    private final boolean isScheduled(final Layer layer)
+    {
+        final int size = m_layers.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            if (m_layers.get(i).m_layer == layer)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // stable, highest priority first, the lists are short.
+
+    private static final void sort(final NFastArrayList<Scheduled> list)
+    {
+        final int size = list.size();
+
+        for (int i = 1; i < size; i++)
+        {
+            final Scheduled item = list.get(i);
+
+            final int priority = item.m_layer.getRedrawPriority();
+
+            int j = i - 1;
+
+            while ((j >= 0) && (list.get(j).m_layer.getRedrawPriority() < priority))
+            {
+                list.set(j + 1, list.get(j));
+
+                j--;
+            }
+            list.set(j + 1, item);
+        }
+    }
+
     private void kick()
     {
-        if (m_layers.size() > 0)
+        if ((false == m_pending) && ((m_layers.size() > 0) || (m_frames.size() > 0)))
         {
+            m_pending = true;
+
             AnimationScheduler.get().requestAnimationFrame(m_redraw);
         }
     }
+
+    private static final class Scheduled
+    {
+        private final Layer m_layer;
+
+        private int         m_deferred = 0;
+
+        private Scheduled(final Layer layer)
+        {
+            m_layer = layer;
+        }
+    }
 }
@@ -61,6 +61,10 @@ public final class LienzoCore
 
     public static final String             DEFAULT_FONT_FAMILY              = "Helvetica";
 
+    public static final double             DEFAULT_INTERACTION_PIXEL_RATIO  = 1;
+
+    public static final int                DEFAULT_INTERACTION_IDLE_DELAY   = 250;
+
     public static final boolean            IS_CANVAS_SUPPORTED              = Canvas.isSupported();
 
     private double                         m_deviceScale                    = 0;
@@ -79,6 +83,10 @@ public final class LienzoCore
 
     private boolean                        m_scaledCanvasForRetina          = true;
 
+    private double                         m_interactionPixelRatio          = DEFAULT_INTERACTION_PIXEL_RATIO;
+
+    private int                            m_interactionIdleDelay           = DEFAULT_INTERACTION_IDLE_DELAY;
+
     private boolean                        m_nativeLineDashSupport          = false;
 
     private boolean                        m_enableBlobIfSupported          = true;
@@ -327,6 +335,55 @@ public final class LienzoCore
         return m_scaledCanvasForRetina;
     }
 
+    /**
+     * Returns the backing store pixel ratio of Layers with adaptive resolution, see {@link com.ait.lienzo.client.core.shape.Layer#setAdaptiveResolution(boolean)},
+     * when there is no interaction: the device scale if {@link #isScaledCanvasForRetina()}, otherwise 1.
+     * 
+     * @return double
+     */
+    public final double getCanvasPixelRatio()
+    {
+        return isScaledCanvasForRetina() ? getDeviceScale() : 1;
+    }
+
+    /**
+     * Returns the backing store pixel ratio of Layers with adaptive resolution during pan, zoom and drag interactions.
+     * The default value is {@link #DEFAULT_INTERACTION_PIXEL_RATIO}.
+     * 
+     * @return double
+     */
+    public final double getInteractionPixelRatio()
+    {
+        return m_interactionPixelRatio;
+    }
+
+    public final LienzoCore setInteractionPixelRatio(final double ratio)
+    {
+        if (ratio > 0)
+        {
+            m_interactionPixelRatio = ratio;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the milliseconds without interaction after which Layers with adaptive resolution are drawn at full resolution again.
+     * The default value is {@link #DEFAULT_INTERACTION_IDLE_DELAY}.
+     * 
+     * @return int
+     */
+    public final int getInteractionIdleDelay()
+    {
+        return m_interactionIdleDelay;
+    }
+
+    public final LienzoCore setInteractionIdleDelay(final int delay)
+    {
+        m_interactionIdleDelay = Math.max(1, delay);
+
+        return this;
+    }
+
     public final LienzoCore setDefaultFillShapeForSelection(final boolean fill)
     {
         m_fillShapeForSelection = fill;
@@ -564,6 +564,8 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
                 }
                 else
                 {
+                    context.setFillColor(m_image.getColorKey());
+
                     context.drawImage(m_selectImage.getElement(), 0, 0);
                 }
             }
@@ -644,6 +646,12 @@ public class ImageProxy<T extends AbstractImageShape<T>> implements ImageDataFil
 
         m_message = message;
 
+        if (loaded)
+        {
+            // the image's bounds and pixels changed, so drop anything cached for it.
+
+            m_image.refresh();
+        }
         if (m_handler != null)
         {
             m_handler.onImageShapeLoaded(m_image);
@@ -114,7 +114,7 @@ public abstract class AbstractMediator implements IMediator
 
     protected void setTransform(final Transform transform)
     {
-        getViewport().setTransform(transform);
+        getViewport().doInteraction().setTransform(transform);
     }
 
     @Override
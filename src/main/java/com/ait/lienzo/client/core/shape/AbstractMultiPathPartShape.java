@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.Path2D;
 import com.ait.lienzo.client.core.event.AttributesChangedEvent;
 import com.ait.lienzo.client.core.event.AttributesChangedHandler;
 import com.ait.lienzo.client.core.event.NodeDragEndEvent;
@@ -58,7 +59,11 @@ import com.google.gwt.json.client.JSONObject;
 
 public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPartShape<T>>extends Shape<T>
 {
-    private final NFastArrayList<PathPartList> m_list = new NFastArrayList<PathPartList>();
+    private final NFastArrayList<PathPartList> m_list   = new NFastArrayList<PathPartList>();
+
+    private BoundingBox                        m_bbox;
+
+    private BoundingBox[]                      m_bparts = new BoundingBox[0];
 
     protected AbstractMultiPathPartShape(final ShapeType type)
     {
@@ -70,6 +75,10 @@ public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPart
         super(type, node, ctx);
     }
 
+    /**
+     * Returns the union of the {@link PathPartList} bounds. The union is cached, and re-computed only when a list
+     * is added or removed, or when any list re-computes its own bounds after being modified.
+     */
     @Override
     public BoundingBox getBoundingBox()
     {
@@ -79,13 +88,36 @@ public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPart
         {
             return new BoundingBox(0, 0, 0, 0);
         }
-        final BoundingBox bbox = new BoundingBox();
+        if ((null == m_bbox) || (m_bparts.length != size))
+        {
+            m_bparts = new BoundingBox[size];
+
+            m_bbox = null;
+        }
+        boolean same = (null != m_bbox);
 
         for (int i = 0; i < size; i++)
         {
-            bbox.add(m_list.get(i).getBoundingBox());
+            final BoundingBox part = m_list.get(i).getBoundingBox();
+
+            if (m_bparts[i] != part)
+            {
+                m_bparts[i] = part;
+
+                same = false;
+            }
+        }
+        if (false == same)
+        {
+            final BoundingBox bbox = new BoundingBox();
+
+            for (int i = 0; i < size; i++)
+            {
+                bbox.add(m_bparts[i]);
+            }
+            m_bbox = bbox;
         }
-        return bbox;
+        return new BoundingBox(m_bbox);
     }
 
     @Override
@@ -104,12 +136,20 @@ public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPart
         }
         m_list.clear();
 
+        m_bbox = null;
+
+        doBoundsChanged();
+
         return cast();
     }
 
     protected final void add(PathPartList list)
     {
         m_list.add(list);
+
+        m_bbox = null;
+
+        doBoundsChanged();
     }
 
     public final NFastArrayList<PathPartList> getPathPartListArray()
@@ -128,6 +168,10 @@ public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPart
         {
             return;
         }
+        if (doLevelOfDetail(context, attr, alpha))
+        {
+            return;
+        }
         if (prepare(context, attr, alpha))
         {
             final int size = m_list.size();
@@ -146,11 +190,24 @@ public abstract class AbstractMultiPathPartShape<T extends AbstractMultiPathPart
                 {
                     boolean fill = false;
 
-                    if (context.path(list))
+                    final Path2D path = list.getPath2D();
+
+                    if (null != path)
                     {
-                        fill = fill(context, attr, alpha);
+                        if (path.isClosed())
+                        {
+                            fill = fill(context, attr, alpha, path);
+                        }
+                        stroke(context, attr, alpha, path, fill);
+                    }
+                    else
+                    {
+                        if (context.path(list))
+                        {
+                            fill = fill(context, attr, alpha);
+                        }
+                        stroke(context, attr, alpha, fill);
                     }
-                    stroke(context, attr, alpha, fill);
                 }
             }
         }
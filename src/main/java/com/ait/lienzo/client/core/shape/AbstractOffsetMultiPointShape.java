@@ -100,7 +100,7 @@ public abstract class AbstractOffsetMultiPointShape<T extends AbstractOffsetMult
 
         if (prepared)
         {
-            context.path(getPathPartList());
+            preparePath(context, getPathPartList());
         }
         return prepared;
     }
@@ -71,6 +71,8 @@ public class Attributes
 {
     private final IJSONSerializable<?> m_ser;
 
+    private final Node<?>              m_nod;
+
     private final NObjectJSO           m_jso;
 
     private AttributesChangedManager   m_man;
@@ -81,6 +83,8 @@ public class Attributes
     {
         m_ser = ser;
 
+        m_nod = asNode(ser);
+
         m_jso = NObjectJSO.make();
     }
 
@@ -88,6 +92,8 @@ public class Attributes
     {
         m_ser = ser;
 
+        m_nod = asNode(ser);
+
         if ((null != jso) && (JSONType.OBJECT == Native.getNativeTypeOfJSO(jso)))
         {
             m_jso = jso.cast();
@@ -132,8 +138,29 @@ public class Attributes
         }
     }
 
+    private static final Node<?> asNode(final IJSONSerializable<?> ser)
+    {
+        if (ser instanceof Node)
+        {
+            return (Node<?>) ser;
+        }
+        return null;
+    }
+
+    private final void checkDispatchAttributesChanging(final String name)
+    {
+        if (null != m_nod)
+        {
+            m_nod.doAttributeChanging(name);
+        }
+    }
+
     private final void checkDispatchAttributesChanged(final String name)
     {
+        if (null != m_nod)
+        {
+            m_nod.doAttributeChanged(name);
+        }
         if ((null != m_man) && (null != m_ser) && (null != m_bat))
         {
             if (m_man.canDispatchAttributesChanged(name))
@@ -1679,6 +1706,8 @@ public class Attributes
 
     public final void put(final String name, final String value)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1686,6 +1715,8 @@ public class Attributes
 
     public final void put(final String name, final int value)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1693,6 +1724,8 @@ public class Attributes
 
     public final void put(final String name, final double value)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1700,6 +1733,8 @@ public class Attributes
 
     public final void put(final String name, final boolean value)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -1707,6 +1742,8 @@ public class Attributes
 
     public final void put(final String name, final JavaScriptObject value)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.put(name, value);
 
         checkDispatchAttributesChanged(name);
@@ -2014,6 +2051,8 @@ public class Attributes
 
     public final void remove(final String name)
     {
+        checkDispatchAttributesChanging(name);
+
         m_jso.remove(name);
 
         checkDispatchAttributesChanged(name);
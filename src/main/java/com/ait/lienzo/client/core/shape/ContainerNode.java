@@ -53,6 +53,8 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
 
     private IStorageEngine<M> m_stor;
 
+    private BoundingBox       m_cbox;
+
     protected ContainerNode(final NodeType type, final IStorageEngine<M> storage)
     {
         super(type);
@@ -148,12 +150,20 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T add(final M child)
     {
+        notifySubtreeChanging(this);
+
         final Node<?> node = child.asNode();
 
         node.setParent(this);
 
         getStorageEngine().add(child);
 
+        doContentsChanged();
+
+        node.doRedrawRegionReset();
+
+        node.doRedrawRegionChanging();
+
         return cast();
     }
 
@@ -167,12 +177,18 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T remove(final M child)
     {
+        notifySubtreeChanging(this);
+
         final Node<?> node = child.asNode();
 
+        node.doRedrawRegionChanging();
+
         node.setParent(null);
 
         getStorageEngine().remove(child);
 
+        doContentsChanged();
+
         return cast();
     }
 
@@ -186,11 +202,104 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T removeAll()
     {
+        notifySubtreeChanging(this);
+
+        final NFastArrayList<M> list = getChildNodes();
+
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            list.get(i).asNode().doRedrawRegionChanging();
+        }
         getStorageEngine().clear();
 
+        doContentsChanged();
+
         return cast();
     }
 
+    /**
+     * Used internally. Returns the union of the children's areas, or null if any of them is unknown.
+     */
+    @Override
+    BoundingBox getRedrawBounds()
+    {
+        final NFastArrayList<M> list = getChildNodes();
+
+        final int size = list.size();
+
+        final BoundingBox bbox = new BoundingBox();
+
+        for (int i = 0; i < size; i++)
+        {
+            final BoundingBox area = list.get(i).asNode().getRedrawBounds();
+
+            if (null == area)
+            {
+                return null;
+            }
+            bbox.add(area);
+        }
+        return bbox;
+    }
+
+    /**
+     * Used internally. Re-indexes the child in this container's storage (if spatially indexed)
+     * and invalidates this container's cached bounds, since they may have changed too.
+     */
+    @SuppressWarnings("unchecked")
+    final void doChildBoundsChanged(final Node<?> child)
+    {
+        final IStorageEngine<M> storage = getStorageEngine();
+
+        if (storage.isSpatiallyIndexed())
+        {
+            storage.refresh((M) child);
+        }
+        doContentsChanged();
+    }
+
+    /**
+     * Used internally. Returns true if a change in a child's bounds needs to be reported to this container,
+     * either because it has cached its bounds, or because it or one of its ancestors is spatially indexed.
+     */
+    final boolean isChildBoundsObserved()
+    {
+        return ((null != m_cbox) || (isSpatiallyIndexedPath()));
+    }
+
+    /**
+     * Drops the cached bounds and notifies the parent. If nothing was cached, no ancestor can have cached
+     * bounds that depend on them, so propagation stops, unless a spatially indexed ancestor needs to re-index.
+     */
+    private final void doContentsChanged()
+    {
+        if (isChildBoundsObserved())
+        {
+            m_cbox = null;
+
+            doBoundsInvalidated();
+        }
+    }
+
+    private final boolean isSpatiallyIndexedPath()
+    {
+        Node<?> node = this;
+
+        while (null != node)
+        {
+            final ContainerNode<?, ?> container = node.asContainerNode();
+
+            if ((null != container) && (container.getStorageEngine().isSpatiallyIndexed()))
+            {
+                return true;
+            }
+            node = node.getParent();
+        }
+        return false;
+    }
+
     /**
      * Used internally. Draws the node in the current Context2D
      * without applying the transformation-related attributes 
@@ -231,7 +340,12 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
 
             for (int i = 0; i < size; i++)
             {
-                list.get(i).drawWithTransforms(context, alpha, bbox);
+                final M child = list.get(i);
+
+                if (isChildVisibleIn(child, bbox))
+                {
+                    child.drawWithTransforms(context, alpha, bbox);
+                }
             }
             context.restore();
         }
@@ -239,34 +353,70 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
         {
             for (int i = 0; i < size; i++)
             {
-                list.get(i).drawWithTransforms(context, alpha, bbox);
+                final M child = list.get(i);
+
+                if (isChildVisibleIn(child, bbox))
+                {
+                    child.drawWithTransforms(context, alpha, bbox);
+                }
             }
         }
     }
 
-    @Override
-    public BoundingBox getBoundingBox()
+    /**
+     * Returns false only if the child's transformed bounds are known and lie entirely outside the given bounds.
+     * Children without usable bounds are always drawn.
+     */
+    static final boolean isChildVisibleIn(final IDrawable<?> child, final BoundingBox bounds)
     {
-        final BoundingBox bbox = new BoundingBox();
+        if (null == bounds)
+        {
+            return true;
+        }
+        final BoundingPoints points = child.getBoundingPoints();
 
-        final NFastArrayList<M> list = getChildNodes();
+        if (null == points)
+        {
+            return true;
+        }
+        final BoundingBox bbox = points.getBoundingBox();
 
-        final int size = list.size();
+        if ((null == bbox) || (bbox.getX() == Double.MAX_VALUE) || (bbox.getY() == Double.MAX_VALUE))
+        {
+            return true;
+        }
+        return bbox.intersects(bounds);
+    }
 
-        for (int i = 0; i < size; i++)
+    /**
+     * Returns the union of the children's bounds, in this container's coordinate space.
+     * The result is cached until a child is added or removed, or a child's bounds change.
+     */
+    @Override
+    public BoundingBox getBoundingBox()
+    {
+        if (null == m_cbox)
         {
-            final BoundingPoints bpts = list.get(i).getBoundingPoints();
+            final BoundingBox bbox = new BoundingBox();
 
-            if (null != bpts)
+            final NFastArrayList<M> list = getChildNodes();
+
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
             {
-                bbox.add(bpts.getArray());
+                final BoundingPoints bpts = list.get(i).getBoundingPoints();
+
+                if (null != bpts)
+                {
+                    bbox.add(bpts.getArray());
+                }
             }
+            m_cbox = bbox;
         }
-        return bbox;
+        return new BoundingBox(m_cbox);
     }
 
-    // TODO - do this for containers
-
     @Override
     public List<Attribute> getBoundingBoxAttributes()
     {
@@ -279,6 +429,10 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T moveUp(final M node)
     {
+        notifySubtreeChanging(this);
+
+        node.asNode().doRedrawRegionChanging();
+
         getStorageEngine().moveUp(node);
 
         return cast();
@@ -290,6 +444,10 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T moveDown(final M node)
     {
+        notifySubtreeChanging(this);
+
+        node.asNode().doRedrawRegionChanging();
+
         getStorageEngine().moveDown(node);
 
         return cast();
@@ -301,6 +459,10 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T moveToTop(final M node)
     {
+        notifySubtreeChanging(this);
+
+        node.asNode().doRedrawRegionChanging();
+
         getStorageEngine().moveToTop(node);
 
         return cast();
@@ -312,6 +474,10 @@ public abstract class ContainerNode<M extends IDrawable<?>, T extends ContainerN
     @Override
     public T moveToBottom(final M node)
     {
+        notifySubtreeChanging(this);
+
+        node.asNode().doRedrawRegionChanging();
+
         getStorageEngine().moveToBottom(node);
 
         return cast();
@@ -22,9 +22,12 @@ import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
 import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
 import com.ait.lienzo.client.core.types.BoundingBox;
 import com.ait.lienzo.client.core.types.DashArray;
+import com.ait.lienzo.client.core.types.PatternGradient;
 import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Point2DArray;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.ScratchPad;
+import com.ait.lienzo.shared.core.types.FillRepeat;
 import com.ait.lienzo.shared.core.types.NodeType;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONNull;
@@ -64,10 +67,16 @@ public class GridLayer extends Layer
 
     private static final int SECONDARY_Y = 3;
 
+    public static final double MINIMUM_PATTERN_LINE_SPACING = 2;
+
     private double[]         m_sizes     = { 10, 10, 5, 5 };
 
     private Line[]           m_lines     = new Line[4];
 
+    private boolean          m_pattern   = false;
+
+    private ScratchPad       m_cell      = null;
+
     // NOTE: we can't put Lines in Attributes
 
     /**
@@ -331,6 +340,37 @@ public class GridLayer extends Layer
         m_lines[SECONDARY_Y] = secondaryLineY;
     }
 
+    /**
+     * Returns whether the grid is drawn as a repeated pattern of one cell. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isPatternRendering()
+    {
+        return m_pattern;
+    }
+
+    /**
+     * Sets whether the grid is drawn as a repeated pattern of one cell.
+     * When true, one primary cell with its primary and secondary lines is drawn into a small canvas at the current
+     * zoom level, and the visible area is filled with it in a single call, instead of stroking every visible line.
+     * The lines are drawn as usual when their spacing is under {@link #MINIMUM_PATTERN_LINE_SPACING} pixels,
+     * when a primary cell is larger than the Viewport, or when the Viewport is rotated or skewed.
+     * 
+     * @param pattern
+     * @return this GridLayer
+     */
+    public GridLayer setPatternRendering(final boolean pattern)
+    {
+        m_pattern = pattern;
+
+        if (false == pattern)
+        {
+            m_cell = null;
+        }
+        return this;
+    }
+
     @Override
     protected void drawWithoutTransforms(Context2D context, double alpha, final BoundingBox bounds)
     {
@@ -338,6 +378,14 @@ public class GridLayer extends Layer
         {
             return;
         }
+        if (isProgressiveContinuation(context))
+        {
+            // the grid was drawn with the first slice
+
+            super.drawWithoutTransforms(context, alpha, bounds);
+
+            return;
+        }
         Viewport vp = getViewport();
 
         int vw = vp.getWidth();
@@ -350,6 +398,8 @@ public class GridLayer extends Layer
 
         double scaleX = 1, scaleY = 1;
 
+        boolean skewed = false;
+
         Transform t = isTransformable() ? vp.getTransform() : null;
 
         if (t != null)
@@ -358,6 +408,8 @@ public class GridLayer extends Layer
 
             scaleY = t.getScaleY();
 
+            skewed = ((t.getShearX() != 0) || (t.getShearY() != 0));
+
             t = t.getInverse();
 
             t.transform(a, a);
@@ -372,6 +424,19 @@ public class GridLayer extends Layer
 
         double y2 = b.getY();
 
+        if ((m_pattern) && (false == skewed) && (false == context.isSelection()))
+        {
+            final BoundingBox area = (null != bounds) ? bounds : new BoundingBox(x1, y1, x2, y2);
+
+            if (drawPattern(context, alpha, area, scaleX, scaleY, vw, vh))
+            {
+                // Draw children (if any)
+                super.drawWithoutTransforms(context, alpha, bounds);
+
+                return;
+            }
+        }
+
         for (int direction = X; direction <= Y; direction++)
         {
             boolean vertical = (direction == X);
@@ -489,6 +554,125 @@ public class GridLayer extends Layer
         super.drawWithoutTransforms(context, alpha, bounds);
     }
 
+    /**
+     * Draws one primary cell, in Viewport pixels, and fills the area with it. Returns false if the lines have to be drawn instead.
+     */
+    private final boolean drawPattern(final Context2D context, final double alpha, final BoundingBox area, final double scaleX, final double scaleY, final int vw, final int vh)
+    {
+        final double cw = m_sizes[PRIMARY_X] * scaleX;
+
+        final double ch = m_sizes[PRIMARY_Y] * scaleY;
+
+        if ((false == (cw > 0)) || (false == (ch > 0)) || (cw > vw) || (ch > vh))
+        {
+            return false;
+        }
+        for (int index = 0; index < 4; index++)
+        {
+            if ((m_lines[index] != null) && (false == (m_sizes[index] * ((index % 2 == X) ? scaleX : scaleY) >= MINIMUM_PATTERN_LINE_SPACING)))
+            {
+                return false;
+            }
+        }
+        // the cell is a whole number of pixels, and is scaled back to the exact cell size when it's repeated.
+
+        final int wide = Math.max(1, (int) Math.round(cw));
+
+        final int high = Math.max(1, (int) Math.round(ch));
+
+        if (null == m_cell)
+        {
+            m_cell = new ScratchPad(wide, high);
+        }
+        else if ((m_cell.getWidth() != wide) || (m_cell.getHeight() != high))
+        {
+            m_cell.setPixelSize(wide, high);
+        }
+        else
+        {
+            m_cell.clear();
+        }
+        final Context2D cell = m_cell.getContext();
+
+        for (int direction = X; direction <= Y; direction++)
+        {
+            final boolean vertical = (direction == X);
+
+            final int span = vertical ? wide : high;
+
+            for (int primSec = 0; primSec <= 1; primSec++)
+            {
+                final int index = primSec * 2 + direction;
+
+                final Line line = m_lines[index];
+
+                if (line == null)
+                {
+                    continue;
+                }
+                if (primSec == 0)
+                {
+                    // half of the line on each edge, so the halves meet when the cell is repeated.
+
+                    drawCellLine(cell, line, vertical, 0, wide, high);
+
+                    drawCellLine(cell, line, vertical, span, wide, high);
+                }
+                else
+                {
+                    final int n = (int) Math.round(m_sizes[direction] / m_sizes[index]);
+
+                    for (int i = 1; i < n; i++)
+                    {
+                        drawCellLine(cell, line, vertical, ((double) span * i) / n, wide, high);
+                    }
+                }
+            }
+        }
+        final double sx = m_sizes[PRIMARY_X] / wide;
+
+        final double sy = m_sizes[PRIMARY_Y] / high;
+
+        context.save();
+
+        context.scale(sx, sy);
+
+        context.setGlobalAlpha(alpha);
+
+        context.setImageSmoothingEnabled(true);
+
+        context.setFillGradient(new PatternGradient(m_cell.getElement(), FillRepeat.REPEAT));
+
+        context.fillRect(area.getX() / sx, area.getY() / sy, area.getWidth() / sx, area.getHeight() / sy);
+
+        context.restore();
+
+        return true;
+    }
+
+    private static final void drawCellLine(final Context2D cell, final Line line, final boolean vertical, final double offset, final int wide, final int high)
+    {
+        final Point2DArray points = line.getPoints();
+
+        final Point2D p1 = points.get(0);
+
+        final Point2D p2 = points.get(1);
+
+        if (vertical)
+        {
+            p1.setX(offset).setY(0);
+
+            p2.setX(offset).setY(high);
+        }
+        else
+        {
+            p1.setX(0).setY(offset);
+
+            p2.setX(wide).setY(offset);
+        }
+        line.drawWithTransforms(cell, 1, null);
+    }
+
     @Override
     public JSONObject toJSONObject()
     {
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.ait.lienzo.client.core.Attribute;
+import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.config.LienzoCore;
 import com.ait.lienzo.client.core.shape.json.IFactory;
 import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
@@ -32,8 +33,13 @@ import com.ait.lienzo.client.core.shape.storage.IStorageEngine;
 import com.ait.lienzo.client.core.shape.wires.IControlHandle.ControlHandleType;
 import com.ait.lienzo.client.core.shape.wires.IControlHandleFactory;
 import com.ait.lienzo.client.core.shape.wires.IControlHandleList;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
 import com.ait.lienzo.client.core.types.DragBounds;
 import com.ait.lienzo.client.core.types.Point2D;
+import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.GeometryException;
+import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.client.widget.DefaultDragConstraintEnforcer;
 import com.ait.lienzo.client.widget.DragConstraintEnforcer;
 import com.ait.lienzo.shared.core.types.DragConstraint;
@@ -43,6 +49,8 @@ import com.ait.lienzo.shared.core.types.GroupType;
 import com.ait.lienzo.shared.core.types.NodeType;
 import com.ait.tooling.common.api.java.util.function.Predicate;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.google.gwt.dom.client.CanvasElement;
+import com.google.gwt.dom.client.Document;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONString;
@@ -52,6 +60,10 @@ import com.google.gwt.json.client.JSONString;
  */
 public abstract class GroupOf<T extends IPrimitive<?>, C extends GroupOf<T, C>> extends ContainerNode<T, C>implements IPrimitive<C>
 {
+    public static final double     DEFAULT_BITMAP_CACHE_SCALE_THRESHOLD = 1.25;
+
+    public static final int        BITMAP_CACHE_MAXIMUM_SIZE            = 4096;
+
     private GroupType              m_type                   = null;
 
     private IControlHandleFactory  m_controlHandleFactory   = null;
@@ -60,6 +72,24 @@ public abstract class GroupOf<T extends IPrimitive<?>, C extends GroupOf<T, C>>
 
     private boolean                m_drag                   = false;
 
+    private boolean                m_bcache                 = false;
+
+    private double                 m_bthresh                = DEFAULT_BITMAP_CACHE_SCALE_THRESHOLD;
+
+    private double                 m_bscale                 = 0;
+
+    private BoundingBox            m_bbounds                = null;
+
+    private ScratchPad             m_bimage                 = null;
+
+    private boolean                m_bimage_ok              = false;
+
+    private CanvasElement          m_bmask                  = null;
+
+    private Context2D              m_bmask_ctx              = null;
+
+    private boolean                m_bmask_ok               = false;
+
     /**
      * Constructor. Creates an instance of a group.
      */
@@ -104,6 +134,268 @@ public abstract class GroupOf<T extends IPrimitive<?>, C extends GroupOf<T, C>>
         return cast();
     }
 
+    /**
+     * Returns whether this group is drawn from a cached bitmap of its contents. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isBitmapCached()
+    {
+        return m_bcache;
+    }
+
+    /**
+     * Sets whether this group is drawn from a cached bitmap of its contents.
+     * When true, the contents are rendered once into an offscreen canvas at the current scale, and a matching color key
+     * mask for the {@link Layer.SelectionLayer}; later draws just blit them. The bitmaps are re-rendered when anything
+     * below the group changes, or the scale moves past {@link #getBitmapCacheScaleThreshold()}.
+     * Moving, rotating or fading the group itself keeps the cache. Use it for static, complex sub-trees.
+     * 
+     * @param cached
+     * @return C
+     */
+    public C setBitmapCached(final boolean cached)
+    {
+        if (cached != m_bcache)
+        {
+            doChangeTrackers(cached ? 1 : -1);
+        }
+        m_bcache = cached;
+
+        m_bscale = 0;
+
+        doSubtreeChanging();
+
+        if (false == cached)
+        {
+            m_bimage = null;
+
+            m_bmask = null;
+
+            m_bmask_ctx = null;
+        }
+        return cast();
+    }
+
+    public double getBitmapCacheScaleThreshold()
+    {
+        return m_bthresh;
+    }
+
+    /**
+     * Sets how far, as a ratio, the scale the group is drawn at may drift from the scale of its cached bitmap,
+     * either way, before the bitmap is re-rendered. The default value is {@link #DEFAULT_BITMAP_CACHE_SCALE_THRESHOLD}.
+     * 
+     * @param threshold at least 1
+     * @return C
+     */
+    public C setBitmapCacheScaleThreshold(final double threshold)
+    {
+        m_bthresh = Math.max(1, threshold);
+
+        return cast();
+    }
+
+    /**
+     * Drops the cached bitmaps, so the next draw re-renders them. Changes to attributes and children do this
+     * automatically; call it after changing something the group can't see, i.e. a gradient modified in place.
+     * 
+     * @return C
+     */
+    public C invalidateBitmapCache()
+    {
+        doSubtreeChanging();
+
+        return cast();
+    }
+
+    @Override
+    void doAttributeChanged(final String name)
+    {
+        super.doAttributeChanged(name);
+
+        // the group's own alpha is rendered into the bitmap.
+
+        if ((m_bcache) && (Attribute.ALPHA.getProperty().equals(name)))
+        {
+            doSubtreeChanging();
+        }
+    }
+
+    @Override
+    void doSubtreeChanging()
+    {
+        m_bbounds = null;
+
+        m_bimage_ok = false;
+
+        m_bmask_ok = false;
+    }
+
+    @Override
+    protected void drawWithoutTransforms(final Context2D context, final double alpha, final BoundingBox bounds)
+    {
+        if ((m_bcache) && (false == (context instanceof PickingContext2D)) && (drawBitmapCache(context, alpha)))
+        {
+            return;
+        }
+        super.drawWithoutTransforms(context, alpha, bounds);
+    }
+
+    /**
+     * Draws the group from its cached bitmap, or its mask when drawing the selection layer, re-rendering it if needed.
+     * Returns false if the group can't be cached, and has to be drawn normally.
+     */
+    private final boolean drawBitmapCache(final Context2D context, final double alpha)
+    {
+        if (false == LienzoCore.IS_CANVAS_SUPPORTED)
+        {
+            return false;
+        }
+        final boolean selection = context.isSelection();
+
+        if (((selection) && (false == isListening())) || ((alpha * getAttributes().getAlpha()) <= 0))
+        {
+            return true;
+        }
+        final Transform xfrm = getAbsoluteTransform();
+
+        final double scale = Math.max(Math.hypot(xfrm.get(0), xfrm.get(1)), Math.hypot(xfrm.get(2), xfrm.get(3)));
+
+        if (false == (scale > 0))
+        {
+            return false;
+        }
+        if ((m_bscale <= 0) || (scale > (m_bscale * m_bthresh)) || ((scale * m_bthresh) < m_bscale))
+        {
+            m_bscale = scale;
+
+            doSubtreeChanging();
+        }
+        if (null == m_bbounds)
+        {
+            m_bbounds = getBitmapCacheBounds(xfrm);
+
+            if (null == m_bbounds)
+            {
+                return false;
+            }
+        }
+        final int wide = (int) Math.ceil(m_bbounds.getWidth() * m_bscale);
+
+        final int high = (int) Math.ceil(m_bbounds.getHeight() * m_bscale);
+
+        if ((wide > BITMAP_CACHE_MAXIMUM_SIZE) || (high > BITMAP_CACHE_MAXIMUM_SIZE))
+        {
+            return false;
+        }
+        if ((wide < 1) || (high < 1))
+        {
+            return true;
+        }
+        final CanvasElement element;
+
+        if (selection)
+        {
+            if ((null == m_bmask) || (m_bmask.getWidth() != wide) || (m_bmask.getHeight() != high))
+            {
+                m_bmask = Document.get().createCanvasElement();
+
+                m_bmask.setWidth(wide);
+
+                m_bmask.setHeight(high);
+
+                m_bmask_ctx = new Layer.SelectionLayer.SelectionContext2D(m_bmask);
+
+                m_bmask_ok = false;
+            }
+            if (false == m_bmask_ok)
+            {
+                m_bmask_ctx.clearRect(0, 0, wide, high);
+
+                drawBitmapCacheContents(m_bmask_ctx);
+
+                m_bmask_ok = true;
+            }
+            element = m_bmask;
+        }
+        else
+        {
+            if (null == m_bimage)
+            {
+                m_bimage = new ScratchPad(wide, high);
+
+                m_bimage_ok = false;
+            }
+            else if ((m_bimage.getWidth() != wide) || (m_bimage.getHeight() != high))
+            {
+                m_bimage.setPixelSize(wide, high);
+
+                m_bimage_ok = false;
+            }
+            if (false == m_bimage_ok)
+            {
+                m_bimage.clear();
+
+                drawBitmapCacheContents(m_bimage.getContext());
+
+                m_bimage_ok = true;
+            }
+            element = m_bimage.getElement();
+        }
+        context.save();
+
+        if (selection)
+        {
+            // blending neighbouring color keys would create keys of other shapes.
+
+            context.setImageSmoothingEnabled(false);
+        }
+        else
+        {
+            context.setGlobalAlpha(alpha);
+        }
+        context.drawImage(element, m_bbounds.getX(), m_bbounds.getY(), wide / m_bscale, high / m_bscale);
+
+        context.restore();
+
+        return true;
+    }
+
+    private final void drawBitmapCacheContents(final Context2D context)
+    {
+        context.save();
+
+        context.scale(m_bscale, m_bscale);
+
+        context.translate(-m_bbounds.getX(), -m_bbounds.getY());
+
+        super.drawWithoutTransforms(context, 1, null);
+
+        context.restore();
+    }
+
+    /**
+     * Returns the area covered by the contents, strokes and shadows included, in this group's coordinates.
+     */
+    private final BoundingBox getBitmapCacheBounds(final Transform xfrm)
+    {
+        final BoundingBox area = getRedrawBounds();
+
+        if ((null == area) || (area.getX() == Double.MAX_VALUE) || (area.getY() == Double.MAX_VALUE))
+        {
+            return null;
+        }
+        try
+        {
+            return new BoundingPoints(area).transform(xfrm.getInverse()).getBoundingBox();
+        }
+        catch (GeometryException e)
+        {
+            return null;
+        }
+    }
+
     /**
      * Only sub-classes that wish to extend a Shape should use this.
      * 
@@ -752,6 +1044,10 @@ public abstract class GroupOf<T extends IPrimitive<?>, C extends GroupOf<T, C>>
     @Override
     public void attachToLayerColorMap()
     {
+        // the children get new color keys, so the selection mask is out of date.
+
+        m_bmask_ok = false;
+
         final Layer layer = getLayer();
 
         if (null != layer)
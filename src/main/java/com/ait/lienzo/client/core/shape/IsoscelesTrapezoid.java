@@ -67,7 +67,7 @@ public class IsoscelesTrapezoid extends Shape<IsoscelesTrapezoid>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
@@ -155,6 +155,8 @@ public class IsoscelesTrapezoid extends Shape<IsoscelesTrapezoid>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
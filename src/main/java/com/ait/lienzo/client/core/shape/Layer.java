@@ -29,17 +29,23 @@ import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
 import com.ait.lienzo.client.core.shape.storage.IStorageEngine;
 import com.ait.lienzo.client.core.shape.storage.PrimitiveFastArrayStorageEngine;
 import com.ait.lienzo.client.core.types.BoundingBox;
-import com.ait.lienzo.client.core.types.ColorKeyRotor;
+import com.ait.lienzo.client.core.types.BoundingPoints;
+import com.ait.lienzo.client.core.types.ColorKeyAllocator;
+import com.ait.lienzo.client.core.types.ImageData;
 import com.ait.lienzo.client.core.types.ImageDataPixelColor;
 import com.ait.lienzo.client.core.types.OnLayerAfterDraw;
 import com.ait.lienzo.client.core.types.OnLayerBeforeDraw;
+import com.ait.lienzo.client.core.types.OnLayerDrawComplete;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.GeometryException;
+import com.ait.lienzo.shared.core.types.CompositeOperation;
 import com.ait.lienzo.shared.core.types.DataURLType;
 import com.ait.lienzo.shared.core.types.LayerClearMode;
 import com.ait.lienzo.shared.core.types.NodeType;
 import com.ait.tooling.common.api.java.util.function.Predicate;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
-import com.ait.tooling.nativetools.client.collection.NFastStringMap;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.dom.client.CanvasElement;
 import com.google.gwt.dom.client.DivElement;
 import com.google.gwt.dom.client.Document;
@@ -50,6 +56,7 @@ import com.google.gwt.dom.client.Style.Visibility;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONString;
+import com.google.gwt.user.client.Timer;
 
 /**
  * Layer is an abstraction for the Canvas element.
@@ -61,6 +68,18 @@ import com.google.gwt.json.client.JSONString;
  */
 public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 {
+    public static final double             DEFAULT_CULLING_MARGIN = 8;
+
+    public static final double             DEFAULT_DIRTY_REGION_RATIO = 0.5;
+
+    public static final int                DEFAULT_TILE_SIZE = 256;
+
+    public static final int                DEFAULT_TILE_CACHE_BUDGET = 64 * 1024 * 1024;
+
+    public static final double             DEFAULT_PROGRESSIVE_BUDGET = 8;
+
+    private static final double            SCROLL_BLIT_EPSILON = 0.0001;
+
     private int                            m_wide            = 0;
 
     private int                            m_high            = 0;
@@ -69,6 +88,38 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 
     private boolean                        m_record          = false;
 
+    private boolean                        m_culling         = false;
+
+    private boolean                        m_lazysel         = false;
+
+    private boolean                        m_seldirty        = false;
+
+    private int                            m_selidle         = 0;
+
+    private Timer                          m_seltimer        = null;
+
+    private boolean                        m_selcache        = false;
+
+    private ImageData                      m_selpixels       = null;
+
+    private long                           m_readbacks       = 0L;
+
+    private boolean                        m_analytic        = false;
+
+    private PickingContext2D               m_picker          = null;
+
+    private boolean                        m_dirtyrgn        = false;
+
+    private boolean                        m_dirtyall        = false;
+
+    private double                         m_dirtymax        = DEFAULT_DIRTY_REGION_RATIO;
+
+    private BoundingBox                    m_dirtybox        = null;
+
+    private final NFastArrayList<Node<?>>  m_dirtynodes      = new NFastArrayList<Node<?>>();
+
+    private double                         m_cullmarg        = DEFAULT_CULLING_MARGIN;
+
     private SelectionLayer                 m_select          = null;
 
     private OnLayerBeforeDraw              m_olbd            = null;
@@ -81,15 +132,41 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 
     private RecordingContext2D             m_recctx          = null;
 
+    private Transform                      m_recxfrm         = null;
+
+    private LevelOfDetail                  m_lod             = null;
+
+    private double                         m_lodscale        = 1;
+
+    private LayerTileCache                 m_tiles           = null;
+
+    private BoundingBox                    m_tilebox         = null;
+
+    private int                            m_tilesize        = DEFAULT_TILE_SIZE;
+
+    private int                            m_tilebudget      = DEFAULT_TILE_CACHE_BUDGET;
+
+    private boolean                        m_blit            = false;
+
+    private boolean                        m_tracking        = false;
+
+    private Transform                      m_drawxfrm        = null;
+
+    private ProgressiveDraw                m_progress        = null;
+
+    private boolean                        m_adaptive        = false;
+
+    private double                         m_ratio           = 1;
+
     private DivElement                     m_wrapper         = null;
 
     private long                           m_batched         = 0L;
 
-    private final ColorKeyRotor            m_c_rotor         = new ColorKeyRotor();
+    private int                            m_redrawpri       = 0;
 
-    private Layer                          m_replicatedLayer;
+    private final ColorKeyAllocator<Shape<?>> m_c_keys  = new ColorKeyAllocator<Shape<?>>();
 
-    private final NFastStringMap<Shape<?>> m_shape_color_map = new NFastStringMap<Shape<?>>();
+    private Layer                          m_replicatedLayer;
 
     /**
      * Constructor. Creates an instance of a Layer.
@@ -156,6 +233,30 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         return this;
     }
 
+    /**
+     * Returns the priority of batched draws of this Layer. The default value is 0.
+     * 
+     * @return int
+     */
+    public final int getRedrawPriority()
+    {
+        return m_redrawpri;
+    }
+
+    /**
+     * Sets the priority of batched draws of this Layer. Higher priority Layers are drawn first in an animation frame,
+     * and lower priority ones may be deferred to later frames when the {@link LayerRedrawManager} frame budget is spent.
+     * 
+     * @param priority
+     * @return Layer
+     */
+    public final Layer setRedrawPriority(final int priority)
+    {
+        m_redrawpri = priority;
+
+        return this;
+    }
+
     @Override
     public final IStorageEngine<IPrimitive<?>> getDefaultStorageEngine()
     {
@@ -169,7 +270,7 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
      */
     public final SelectionLayer getSelectionLayer()
     {
-        if (isListening())
+        if ((isListening()) && (false == isAnalyticPicking()))
         {
             if (null == m_select)
             {
@@ -199,11 +300,40 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
     {
         if (isVisible())
         {
+            if (isAnalyticPicking())
+            {
+                return findShapeAtPointAnalytic(x, y);
+            }
             final SelectionLayer selection = getSelectionLayer();
 
             if (null != selection)
             {
-                final ImageDataPixelColor rgba = selection.getContext().getImageDataPixelColor(x, y);// x,y is adjusted to canvas coordinates in event dispatch
+                validateSelectionLayer();
+
+                // x,y is adjusted to canvas coordinates in event dispatch
+
+                if (isSelectionPixelCaching())
+                {
+                    final ImageData data = getSelectionPixels(selection);
+
+                    if ((null != data) && (x >= 0) && (y >= 0) && (x < data.getWidth()) && (y < data.getHeight()))
+                    {
+                        if (data.getAlphaAt(x, y) != 255)
+                        {
+                            return null;
+                        }
+                        final Shape<?> shape = m_c_keys.get(data.getRedAt(x, y), data.getGreenAt(x, y), data.getBlueAt(x, y));
+
+                        if ((null != shape) && (shape.isVisible()))
+                        {
+                            return shape;
+                        }
+                    }
+                    return null;
+                }
+                m_readbacks++;
+
+                final ImageDataPixelColor rgba = selection.getContext().getImageDataPixelColor(x, y);
 
                 if (null != rgba)
                 {
@@ -211,7 +341,7 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
                     {
                         return null;
                     }
-                    final Shape<?> shape = m_shape_color_map.get(rgba.toBrowserRGB());
+                    final Shape<?> shape = m_c_keys.get(rgba.getR(), rgba.getG(), rgba.getB());
 
                     if ((null != shape) && (shape.isVisible()))
                     {
@@ -223,6 +353,115 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         return null;
     }
 
+    private final Shape<?> findShapeAtPointAnalytic(final int x, final int y)
+    {
+        if ((false == isListening()) || (false == LienzoCore.IS_CANVAS_SUPPORTED))
+        {
+            return null;
+        }
+        if (null == m_picker)
+        {
+            final CanvasElement element = Document.get().createCanvasElement();
+
+            element.setWidth(1);
+
+            element.setHeight(1);
+
+            m_picker = new PickingContext2D(element, m_c_keys);
+        }
+        final Transform transform = getViewportTransform();
+
+        BoundingBox bbox = getStorageBounds();
+
+        if (null == bbox)
+        {
+            final double margin = getViewportCullingMargin();
+
+            bbox = toLayerBounds(transform, x - margin, y - margin, x + margin, y + margin);
+        }
+        final PickingContext2D context = m_picker;
+
+        context.reset(x, y);
+
+        context.save();
+
+        if (null != transform)
+        {
+            context.transform(transform);
+        }
+        drawWithTransforms(context, 1, bbox);
+
+        context.restore();
+
+        final Shape<?> shape = context.getShape();
+
+        context.reset(0, 0);
+
+        if ((null != shape) && (shape.isVisible()))
+        {
+            return shape;
+        }
+        return null;
+    }
+
+    private final ImageData getSelectionPixels(final SelectionLayer selection)
+    {
+        if (null == m_selpixels)
+        {
+            final int wide = getWidth();
+
+            final int high = getHeight();
+
+            if ((wide < 1) || (high < 1))
+            {
+                return null;
+            }
+            m_readbacks++;
+
+            m_selpixels = selection.getContext().getImageData(0, 0, wide, high);
+        }
+        return m_selpixels;
+    }
+
+    /**
+     * Returns whether picking reads the whole {@link SelectionLayer} back once after it is drawn,
+     * and serves every pick from that buffer until it is drawn again. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isSelectionPixelCaching()
+    {
+        return m_selcache;
+    }
+
+    /**
+     * Sets whether picking reads the whole {@link SelectionLayer} back once after it is drawn, and serves every pick
+     * from that buffer until it is drawn again, instead of a 1x1 readback per pick. This trades memory
+     * (4 bytes per pixel) for fewer synchronous GPU to CPU readbacks.
+     * 
+     * @param caching
+     * @return Layer
+     */
+    public Layer setSelectionPixelCaching(final boolean caching)
+    {
+        m_selcache = caching;
+
+        m_selpixels = null;
+
+        return this;
+    }
+
+    /**
+     * Returns the number of pixel readbacks done from the {@link SelectionLayer} so far, one per pick without
+     * pixel caching, or one per selection layer redraw (on the first pick after it) with pixel caching.
+     * 
+     * @return long
+     */
+    public long getSelectionReadbackCount()
+    {
+        return m_readbacks;
+    }
+
     @Override
     public List<Attribute> getTransformingAttributes()
     {
@@ -327,31 +566,9 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
     {
         if (null != shape)
         {
-            String color = shape.getColorKey();
+            detachShapeFromColorMap(shape);
 
-            if (null != color)
-            {
-                m_shape_color_map.remove(color);
-
-                shape.setColorKey(null);
-            }
-            int count = 0;
-
-            do
-            {
-                count++;
-
-                color = m_c_rotor.next();
-            }
-            while ((m_shape_color_map.get(color) != null) && (count <= ColorKeyRotor.COLOR_SPACE_MAXIMUM));
-
-            if (count > ColorKeyRotor.COLOR_SPACE_MAXIMUM)
-            {
-                throw new IllegalArgumentException("Exhausted color space " + count);
-            }
-            m_shape_color_map.put(color, shape);
-
-            shape.setColorKey(color);
+            shape.setColorKeyValue(m_c_keys.acquire(shape));
         }
     }
 
@@ -364,17 +581,15 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
     {
         if (null != shape)
         {
-            final String color = shape.getColorKey();
+            final int ikey = shape.getColorKeyValue();
 
-            if (null != color)
+            if (ikey >= 0)
             {
-                final Shape<?> look = m_shape_color_map.get(color);
-
-                if (shape == look)
+                if (shape == m_c_keys.get(ikey))
                 {
-                    shape.setColorKey(null);
+                    m_c_keys.release(ikey);
 
-                    m_shape_color_map.remove(color);
+                    shape.setColorKeyValue(-1);
                 }
             }
         }
@@ -442,21 +657,39 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 
         if (LienzoCore.IS_CANVAS_SUPPORTED)
         {
+            final CanvasElement element = getCanvasElement();
+
             if (false == isSelection())
             {
                 getElement().getStyle().setWidth(wide, Unit.PX);
 
                 getElement().getStyle().setHeight(high, Unit.PX);
+
+                // the backing store may be scaled by the pixel ratio, the canvas is always shown at the Layer's size
+
+                element.getStyle().setWidth(wide, Unit.PX);
+
+                element.getStyle().setHeight(high, Unit.PX);
             }
-            final CanvasElement element = getCanvasElement();
+            element.setWidth((int) Math.round(wide * m_ratio));
 
-            element.setWidth(wide);
+            element.setHeight((int) Math.round(high * m_ratio));
+
+            final Context2D context = getContext();
 
-            element.setHeight(high);
+            if (null != context)
+            {
+                context.resetState();
+            }
+            m_drawxfrm = null;
 
             if ((false == isSelection()) && (null != m_select))
             {
                 m_select.setPixelSize(wide, high);
+
+                m_selpixels = null;
+
+                m_seldirty = isLazySelectionLayer();
             }
         }
     }
@@ -489,6 +722,8 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
                 doShowSelectionLayer(false);
             }
             m_select = null;
+
+            m_selpixels = null;
         }
         return this;
     }
@@ -502,6 +737,10 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
     {
         m_shower = shower;
 
+        if (shower)
+        {
+            validateSelectionLayer();
+        }
         return doShowSelectionLayer(shower);
     }
 
@@ -687,136 +926,1644 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
         return this;
     }
 
-    public boolean isRecording()
+    /**
+     * Returns whether children that lie entirely outside the visible area are skipped during draw.
+     * The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isViewportCulling()
     {
-        return m_record;
+        return m_culling;
     }
 
-    public Layer setRecording(final boolean record)
+    /**
+     * Sets whether children (and whole {@link Group} subtrees) that lie entirely outside the visible area
+     * of the {@link Viewport} are skipped during draw, for both this Layer and its {@link SelectionLayer}.
+     * Culling uses each node's transformed bounding box, so shapes with inaccurate bounds should leave this off.
+     * 
+     * @param culling
+     * @return Layer
+     */
+    public Layer setViewportCulling(final boolean culling)
     {
-        m_record = record;
+        m_culling = culling;
 
         return this;
     }
 
     /**
-     * Draws the layer and invokes pre/post draw handlers.
-     * Drawing only takes place if the layer is visible.
+     * Returns the margin, in screen pixels, added around the visible area when culling.
+     * 
+     * @return double
      */
-
-    @Override
-    public Layer draw()
+    public double getViewportCullingMargin()
     {
-        return draw(isRecording() ? getRecordingContext() : getContext());
+        return m_cullmarg;
     }
 
-    public Layer getReplicatedLayer() {
-        return m_replicatedLayer;
-    }
+    /**
+     * Sets the margin, in screen pixels, added around the visible area when culling, so strokes and shadows
+     * that extend past a shape's bounding box are not clipped at the edges.
+     * 
+     * @param margin
+     * @return Layer
+     */
+    public Layer setViewportCullingMargin(final double margin)
+    {
+        m_cullmarg = Math.max(0, margin);
 
-    public void setReplicatedLayer(Layer replicatedLayer) {
-        m_replicatedLayer = replicatedLayer;
+        return this;
     }
 
-    protected Layer draw(Context2D context)
+    /**
+     * Returns the area of this Layer that is visible on screen, in the Layer's coordinate space,
+     * or null if it can't be determined.
+     * 
+     * @return BoundingBox
+     */
+    public BoundingBox getVisibleBounds()
     {
-        if (LienzoCore.IS_CANVAS_SUPPORTED)
-        {
-            if (isClearLayerBeforeDraw())
-            {
-                clear();
-            }
-            if (isVisible())
-            {
-                boolean draw = true;
-
-                if (null != m_olbd)
-                {
-                    draw = m_olbd.onLayerBeforeDraw(this);
-                }
-                if (draw)
-                {
-                    Transform transform = null;
-
-                    final Viewport viewport = getViewport();
-
-                    if ((isTransformable()) && (null != viewport))
-                    {
-                        transform = viewport.getTransform();
-                    }
-                    context.save();
+        final Transform transform = getViewportTransform();
 
-                    if (null != transform)
-                    {
-                        context.transform(transform);
-                    }
-                    final BoundingBox bbox = getStorageBounds();
-
-                    IPathClipper vclp = null;
-
-                    if (null != viewport)
-                    {
-                        vclp = viewport.getPathClipper();
-
-                        if ((null != vclp) && (vclp.isActive()))
-                        {
-                            vclp.clip(context);
-                        }
-                    }
-                    final IPathClipper lclp = getPathClipper();
-
-                    if ((null != lclp) && (lclp.isActive()))
-                    {
-                        lclp.clip(context);
-                    }
-                    drawWithTransforms(context, 1, bbox);
-
-                    context.restore();
-
-                    if (null != m_olad)
-                    {
-                        m_olad.onLayerAfterDraw(this);
-                    }
-                    final SelectionLayer selection = getSelectionLayer();
+        return getVisibleBounds(transform, 0);
+    }
 
-                    if (null != selection)
-                    {
-                        selection.clear();
+    private final BoundingBox getVisibleBounds(final Transform transform, final double margin)
+    {
+        final int wide = getWidth();
 
-                        context = selection.getContext();
+        final int high = getHeight();
 
-                        context.save();
+        if ((wide < 1) || (high < 1))
+        {
+            return null;
+        }
+        return toLayerBounds(transform, -margin, -margin, wide + margin, high + margin);
+    }
 
-                        if (null != transform)
-                        {
-                            context.transform(transform);
-                        }
-                        if ((null != vclp) && (vclp.isActive()))
-                        {
-                            vclp.clip(context);
-                        }
-                        if ((null != lclp) && (lclp.isActive()))
-                        {
-                            lclp.clip(context);
-                        }
-                        drawWithTransforms(context, 1, bbox);
+    private final BoundingBox toLayerBounds(final Transform transform, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if ((null == transform) || (transform.isIdentity()))
+        {
+            return new BoundingBox(minx, miny, maxx, maxy);
+        }
+        final Transform inverse;
 
-                        context.restore();
-                    }
-                }
-            }
+        try
+        {
+            inverse = transform.getInverse();
         }
-        return this;
+        catch (GeometryException e)
+        {
+            return null;
+        }
+        return new BoundingPoints(new BoundingBox(minx, miny, maxx, maxy)).transform(inverse).getBoundingBox();
     }
 
     /**
-     * Performs batch updates to the Layer, that is, drawing is deferred till the next AnimationFrame,
-     * to cut down on redraws on rapid event dispatch.
+     * Returns whether the {@link SelectionLayer} is only redrawn when a pick needs it, rather than on every draw.
+     * The default value is false.
      * 
-     * @return Layer
+     * @return boolean
      */
-    @Override
-    public Layer batch()
+    public boolean isLazySelectionLayer()
+    {
+        return m_lazysel;
+    }
+
+    /**
+     * Sets whether the {@link SelectionLayer} is only redrawn when a pick needs it, rather than on every draw.
+     * When true, drawing the Layer just marks the selection layer as out of date, and {@link #findShapeAtPoint(int, int)}
+     * redraws it first if needed. The selection layer is always drawn eagerly while it is being shown.
+     * 
+     * @param lazy
+     * @return Layer
+     */
+    public Layer setLazySelectionLayer(final boolean lazy)
+    {
+        m_lazysel = lazy;
+
+        if (false == lazy)
+        {
+            validateSelectionLayer();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the delay, in milliseconds, after the last draw before an out of date {@link SelectionLayer} is redrawn
+     * in the background. Zero or less means it is only redrawn on demand.
+     * 
+     * @return int
+     */
+    public int getSelectionLayerIdleDelay()
+    {
+        return m_selidle;
+    }
+
+    /**
+     * Sets the delay, in milliseconds, after the last draw before an out of date {@link SelectionLayer} is redrawn
+     * in the background, so the first pick after an animation settles doesn't pay for it.
+     * Zero or less (the default) means it is only redrawn on demand.
+     * 
+     * @param millis
+     * @return Layer
+     */
+    public Layer setSelectionLayerIdleDelay(final int millis)
+    {
+        m_selidle = millis;
+
+        if ((millis <= 0) && (null != m_seltimer))
+        {
+            m_seltimer.cancel();
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether {@link #findShapeAtPoint(int, int)} resolves Shapes geometrically instead of reading back a {@link SelectionLayer}.
+     * The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isAnalyticPicking()
+    {
+        return m_analytic;
+    }
+
+    /**
+     * Sets whether {@link #findShapeAtPoint(int, int)} resolves Shapes geometrically instead of reading back a {@link SelectionLayer}.
+     * When true, the Layer has no selection canvas: a pick replays the selection pass of the Shapes near the point into a
+     * 1x1 context, testing each color keyed fill and stroke with <code>isPointInPath</code> and <code>isPointInStroke</code>,
+     * so picking never waits on a redraw. Clip paths are not taken into account.
+     * 
+     * @param analytic
+     * @return Layer
+     */
+    public Layer setAnalyticPicking(final boolean analytic)
+    {
+        if (analytic != m_analytic)
+        {
+            if ((analytic) && (isShowSelectionLayer()))
+            {
+                doShowSelectionLayer(false);
+            }
+            m_analytic = analytic;
+
+            m_select = null;
+
+            m_selpixels = null;
+
+            m_seldirty = (false == analytic);
+
+            if (null != m_seltimer)
+            {
+                m_seltimer.cancel();
+            }
+            if ((false == analytic) && (isShowSelectionLayer()) && (null != getSelectionLayer()))
+            {
+                validateSelectionLayer();
+
+                doShowSelectionLayer(true);
+            }
+        }
+        return this;
+    }
+
+    public boolean isRecording()
+    {
+        return m_record;
+    }
+
+    /**
+     * Sets whether drawing this Layer records a display list in its {@link RecordingContext2D}, so it can be
+     * re-drawn with {@link #replay()} while its contents don't change.
+     * 
+     * @param record
+     * @return Layer
+     */
+    public Layer setRecording(final boolean record)
+    {
+        m_record = record;
+
+        if ((false == record) && (null != m_recctx))
+        {
+            m_recctx.stop().reset();
+        }
+        m_recxfrm = null;
+
+        return this;
+    }
+
+    public LevelOfDetail getLevelOfDetail()
+    {
+        return m_lod;
+    }
+
+    /**
+     * Sets the {@link LevelOfDetail} policy used to draw this Layer's Shapes with cheaper renderings when the {@link Viewport}
+     * is zoomed out, or null (the default) to always draw them in full.
+     * 
+     * @param lod
+     * @return Layer
+     */
+    public Layer setLevelOfDetail(final LevelOfDetail lod)
+    {
+        m_lod = lod;
+
+        doDirtyAll();
+
+        return this;
+    }
+
+    /**
+     * Returns the screen scale of the Viewport transform the Layer is being drawn with, for {@link LevelOfDetail}.
+     */
+    final double getLevelOfDetailScale()
+    {
+        return m_lodscale;
+    }
+
+    /**
+     * Draws the layer and invokes pre/post draw handlers.
+     * Drawing only takes place if the layer is visible.
+     */
+
+    @Override
+    public Layer draw()
+    {
+        final RecordingContext2D recording = isRecording() ? getRecordingContext() : null;
+
+        if (null == recording)
+        {
+            return draw(getContext());
+        }
+        recording.start();
+
+        draw(recording);
+
+        recording.stop();
+
+        final Transform transform = getViewportTransform();
+
+        m_recxfrm = (null != transform) ? transform.copy() : new Transform();
+
+        return this;
+    }
+
+    /**
+     * Re-draws the Layer from the display list recorded by its last {@link #draw()}, without visiting its nodes,
+     * adjusted for any Viewport transform change since. Falls back to {@link #draw()} if nothing was recorded.
+     * Only use this while the Layer's contents are unchanged; the {@link SelectionLayer} is redrawn as usual.
+     * 
+     * @return Layer
+     */
+    public Layer replay()
+    {
+        final RecordingContext2D recording = getRecordingContext();
+
+        if ((false == isRecording()) || (null == m_recxfrm) || (null == recording) || (recording.isEmpty()))
+        {
+            return draw();
+        }
+        if (LienzoCore.IS_CANVAS_SUPPORTED)
+        {
+            Transform delta = null;
+
+            final Transform transform = getViewportTransform();
+
+            if (null != transform)
+            {
+                try
+                {
+                    delta = transform.copy().multiply(m_recxfrm.getInverse());
+                }
+                catch (GeometryException e)
+                {
+                    return draw();
+                }
+                if (delta.isIdentity())
+                {
+                    delta = null;
+                }
+            }
+            clear();
+
+            recording.replay(getContext(), delta);
+
+            doDrawnTransform();
+
+            if (null != delta)
+            {
+                final SelectionLayer selection = getSelectionLayer();
+
+                if (null != selection)
+                {
+                    if ((isLazySelectionLayer()) && (false == isShowSelectionLayer()))
+                    {
+                        doSelectionLayerChanged();
+                    }
+                    else
+                    {
+                        drawSelectionLayer(selection);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    private final Transform getViewportTransform()
+    {
+        final Viewport viewport = getViewport();
+
+        if ((isTransformable()) && (null != viewport))
+        {
+            return viewport.getTransform();
+        }
+        return null;
+    }
+
+    public Layer getReplicatedLayer() {
+        return m_replicatedLayer;
+    }
+
+    public void setReplicatedLayer(Layer replicatedLayer) {
+        m_replicatedLayer = replicatedLayer;
+    }
+
+    protected Layer draw(Context2D context)
+    {
+        if ((null != m_progress) && (context == m_context))
+        {
+            doProgressiveRestart(m_progress);
+
+            return this;
+        }
+        final int[] blit = getScrollBlitOffset(context);
+
+        doTileInvalidate();
+
+        doDirtyReset();
+
+        if (LienzoCore.IS_CANVAS_SUPPORTED)
+        {
+            if ((isClearLayerBeforeDraw()) && (null == blit))
+            {
+                clear();
+            }
+            if (isVisible())
+            {
+                boolean draw = true;
+
+                if (null != m_olbd)
+                {
+                    draw = m_olbd.onLayerBeforeDraw(this);
+                }
+                if (draw)
+                {
+                    if (null != blit)
+                    {
+                        drawScrollBlit(context, getCanvasElement(), blit[0], blit[1]);
+                    }
+                    else if (false == drawTiles(context))
+                    {
+                        drawLayer(context, null);
+                    }
+                    if (null != m_olad)
+                    {
+                        m_olad.onLayerAfterDraw(this);
+                    }
+                    final SelectionLayer selection = getSelectionLayer();
+
+                    if (null != selection)
+                    {
+                        if ((null != blit) && (false == m_seldirty))
+                        {
+                            // the selection layer is up to date with the previous draw, so it can be shifted too.
+
+                            m_selpixels = null;
+
+                            drawScrollBlit(selection.getContext(), selection.getCanvasElement(), blit[0], blit[1]);
+                        }
+                        else if ((isLazySelectionLayer()) && (false == isShowSelectionLayer()))
+                        {
+                            doSelectionLayerChanged();
+                        }
+                        else
+                        {
+                            drawSelectionLayer(selection);
+                        }
+                    }
+                }
+                else if (null != blit)
+                {
+                    clear();
+                }
+            }
+            else if (null != blit)
+            {
+                clear();
+            }
+            doDrawnTransform();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the whole pixel offset between the Viewport transform the canvas was last drawn with and the current one,
+     * if nothing else changed since and the canvas can be shifted by it, or null.
+     */
+    private final int[] getScrollBlitOffset(final Context2D context)
+    {
+        if ((false == m_blit) || (null == m_drawxfrm) || (m_dirtyall) || (m_dirtynodes.size() > 0) || (context != m_context) || (isRecording()) || (false == isClearLayerBeforeDraw()) || (null != m_tiles) || (m_ratio != 1))
+        {
+            return null;
+        }
+        final Transform transform = getViewportTransform();
+
+        if (null == transform)
+        {
+            return null;
+        }
+        if ((transform.getScaleX() != m_drawxfrm.getScaleX()) || (transform.getScaleY() != m_drawxfrm.getScaleY()) || (transform.getShearX() != m_drawxfrm.getShearX()) || (transform.getShearY() != m_drawxfrm.getShearY()))
+        {
+            return null;
+        }
+        final double tx = transform.getTranslateX() - m_drawxfrm.getTranslateX();
+
+        final double ty = transform.getTranslateY() - m_drawxfrm.getTranslateY();
+
+        final long dx = Math.round(tx);
+
+        final long dy = Math.round(ty);
+
+        // fractional offsets would resample the bitmap, so they are drawn in full.
+
+        if ((Math.abs(tx - dx) > SCROLL_BLIT_EPSILON) || (Math.abs(ty - dy) > SCROLL_BLIT_EPSILON))
+        {
+            return null;
+        }
+        if (((dx == 0) && (dy == 0)) || (Math.abs(dx) >= getWidth()) || (Math.abs(dy) >= getHeight()))
+        {
+            return null;
+        }
+        return new int[] { (int) dx, (int) dy };
+    }
+
+    /**
+     * Shifts the canvas contents by the given offset, then clears and redraws the strips it exposed.
+     */
+    private final void drawScrollBlit(final Context2D context, final CanvasElement element, final int dx, final int dy)
+    {
+        final int wide = getWidth();
+
+        final int high = getHeight();
+
+        // the source is copied before it is drawn, and "copy" replaces the pixels instead of blending over the old ones.
+
+        context.save();
+
+        context.setTransform(1, 0, 0, 1, 0, 0);
+
+        context.setGlobalAlpha(1);
+
+        context.setGlobalCompositeOperation(CompositeOperation.COPY);
+
+        context.drawImage(element, dx, dy);
+
+        context.restore();
+
+        int x = 0;
+
+        int w = wide;
+
+        if (dx > 0)
+        {
+            drawScrollStrip(context, 0, 0, dx, high);
+
+            x = dx;
+
+            w = wide - dx;
+        }
+        else if (dx < 0)
+        {
+            drawScrollStrip(context, wide + dx, 0, -dx, high);
+
+            w = wide + dx;
+        }
+        if (dy > 0)
+        {
+            drawScrollStrip(context, x, 0, w, dy);
+        }
+        else if (dy < 0)
+        {
+            drawScrollStrip(context, x, high + dy, w, -dy);
+        }
+    }
+
+    private final void drawScrollStrip(final Context2D context, final int x, final int y, final int w, final int h)
+    {
+        context.clearRect(x, y, w, h);
+
+        drawLayer(context, new BoundingBox(x, y, x + w, y + h));
+    }
+
+    /**
+     * Remembers the Viewport transform the canvas contents were drawn with.
+     */
+    private final void doDrawnTransform()
+    {
+        final Transform transform = getViewportTransform();
+
+        m_drawxfrm = (null != transform) ? transform.copy() : new Transform();
+    }
+
+    /**
+     * Returns true if the canvas contents were drawn with the current Viewport transform.
+     */
+    private final boolean isDrawnTransform()
+    {
+        if (null == m_drawxfrm)
+        {
+            return false;
+        }
+        final Transform transform = getViewportTransform();
+
+        if (null == transform)
+        {
+            return m_drawxfrm.isIdentity();
+        }
+        for (int i = 0; i < 6; i++)
+        {
+            if (transform.get(i) != m_drawxfrm.get(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Redraws only the part of the Layer covered by the nodes that changed since it was last drawn, when
+     * {@link #isDirtyRegionRedraw()} is true. Falls back to {@link #draw()} when the changed area can't be
+     * determined, or covers more than {@link #getDirtyRegionMaximumRatio()} of the canvas.
+     * This is what {@link LayerRedrawManager} calls for batched draws.
+     * 
+     * @return Layer
+     */
+    public Layer drawDirtyRegion()
+    {
+        if (null != m_progress)
+        {
+            doProgressiveRestart(m_progress);
+
+            return this;
+        }
+        final BoundingBox region = getDirtyRegion();
+
+        if (null == region)
+        {
+            return draw();
+        }
+        doDirtyReset();
+
+        if ((region.getWidth() < 1) || (region.getHeight() < 1))
+        {
+            return this;
+        }
+        if ((LienzoCore.IS_CANVAS_SUPPORTED) && (isVisible()))
+        {
+            boolean draw = true;
+
+            if (null != m_olbd)
+            {
+                draw = m_olbd.onLayerBeforeDraw(this);
+            }
+            if (draw)
+            {
+                final Context2D context = getContext();
+
+                context.clearRect(region.getX() * m_ratio, region.getY() * m_ratio, region.getWidth() * m_ratio, region.getHeight() * m_ratio);
+
+                drawLayer(context, region);
+
+                if (null != m_olad)
+                {
+                    m_olad.onLayerAfterDraw(this);
+                }
+                final SelectionLayer selection = getSelectionLayer();
+
+                if (null != selection)
+                {
+                    if (((isLazySelectionLayer()) && (false == isShowSelectionLayer())) || (m_seldirty))
+                    {
+                        doSelectionLayerChanged();
+                    }
+                    else
+                    {
+                        m_selpixels = null;
+
+                        final Context2D selctx = selection.getContext();
+
+                        selctx.clearRect(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+
+                        drawLayer(selctx, region);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether batched draws only redraw the part of the Layer that changed. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isDirtyRegionRedraw()
+    {
+        return m_dirtyrgn;
+    }
+
+    /**
+     * Sets whether batched draws only redraw the part of the Layer that changed.
+     * When true, the Layer collects the canvas area of every node before and after its attributes change,
+     * and {@link #batch()} clears and redraws only the union of those areas, on this Layer and its {@link SelectionLayer}.
+     * Structural changes (add, remove, re-ordering) are tracked the same way; geometry changed in place
+     * and followed by {@link Node#refresh()} causes a full redraw.
+     * 
+     * @param dirty
+     * @return Layer
+     */
+    public Layer setDirtyRegionRedraw(final boolean dirty)
+    {
+        m_dirtyrgn = dirty;
+
+        doChangeTracking();
+
+        doDirtyReset();
+
+        return this;
+    }
+
+    /**
+     * Returns the fraction of the canvas area above which a batched draw redraws the whole Layer,
+     * rather than just the changed region.
+     * 
+     * @return double
+     */
+    public double getDirtyRegionMaximumRatio()
+    {
+        return m_dirtymax;
+    }
+
+    /**
+     * Sets the fraction of the canvas area, between 0 and 1, above which a batched draw redraws the whole Layer,
+     * rather than just the changed region. The default value is {@link #DEFAULT_DIRTY_REGION_RATIO}.
+     * 
+     * @param ratio
+     * @return Layer
+     */
+    public Layer setDirtyRegionMaximumRatio(final double ratio)
+    {
+        m_dirtymax = Math.max(0, Math.min(ratio, 1));
+
+        return this;
+    }
+
+    /**
+     * Keeps the count of Layers tracking node changes, see {@link Node#doAttributeChanging(String)}, up to date.
+     */
+    private final void doChangeTracking()
+    {
+        final boolean tracking = ((m_dirtyrgn) || (m_blit) || (null != m_tiles));
+
+        if (tracking != m_tracking)
+        {
+            m_tracking = tracking;
+
+            doChangeTrackers(tracking ? 1 : -1);
+        }
+    }
+
+    /**
+     * Used internally. Records the current area of a node that is about to change.
+     * 
+     * @return true if the Layer tracks dirty regions
+     */
+    final boolean doDirtyNode(final Node<?> node)
+    {
+        if ((false == m_dirtyrgn) && (false == m_blit) && (null == m_tiles))
+        {
+            return false;
+        }
+        m_dirtynodes.add(node);
+
+        if (false == m_dirtyall)
+        {
+            if (node == this)
+            {
+                m_dirtyall = true;
+            }
+            else
+            {
+                doDirtyBounds(node.getRedrawBounds());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Used internally. Records a change whose area is unknown, so the next batched draw redraws everything.
+     */
+    final void doDirtyAll()
+    {
+        if ((m_dirtyrgn) || (m_blit) || (null != m_tiles))
+        {
+            m_dirtyall = true;
+        }
+    }
+
+    private final void doDirtyBounds(final BoundingBox bbox)
+    {
+        if (null == bbox)
+        {
+            m_dirtyall = true;
+        }
+        else if (bbox.getX() != Double.MAX_VALUE)
+        {
+            if (null == m_dirtybox)
+            {
+                m_dirtybox = new BoundingBox(bbox);
+            }
+            else
+            {
+                m_dirtybox.add(bbox);
+            }
+            if (null != m_tiles)
+            {
+                doTileBounds(bbox);
+            }
+        }
+    }
+
+    /**
+     * Adds a changed node area, in canvas pixels, to the Layer area whose tiles are out of date.
+     * Node areas always include the Viewport transform, even for Layers that aren't transformable.
+     */
+    private final void doTileBounds(final BoundingBox bbox)
+    {
+        final Viewport viewport = getViewport();
+
+        final BoundingBox area = toLayerBounds((null != viewport) ? viewport.getTransform() : null, bbox.getX(), bbox.getY(), bbox.getX() + bbox.getWidth(), bbox.getY() + bbox.getHeight());
+
+        if (null == area)
+        {
+            m_dirtyall = true;
+        }
+        else if (null == m_tilebox)
+        {
+            m_tilebox = area;
+        }
+        else
+        {
+            m_tilebox.add(area);
+        }
+    }
+
+    /**
+     * Drops the tiles covered by the nodes that changed since the last draw, before and after the change.
+     */
+    private final void doTileInvalidate()
+    {
+        if (null == m_tiles)
+        {
+            return;
+        }
+        if (false == m_dirtyall)
+        {
+            final int size = m_dirtynodes.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                final Node<?> node = m_dirtynodes.get(i);
+
+                if ((node != this) && (node.getLayer() == this))
+                {
+                    doDirtyBounds(node.getRedrawBounds());
+                }
+            }
+        }
+        if (m_dirtyall)
+        {
+            m_tiles.clear();
+        }
+        else if (null != m_tilebox)
+        {
+            m_tiles.invalidate(m_tilebox);
+        }
+        m_tilebox = null;
+    }
+
+    private final void doDirtyReset()
+    {
+        final int size = m_dirtynodes.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            m_dirtynodes.get(i).doRedrawRegionReset();
+        }
+        if (size > 0)
+        {
+            m_dirtynodes.clear();
+        }
+        m_dirtybox = null;
+
+        m_dirtyall = false;
+    }
+
+    /**
+     * Adds the new areas of the changed nodes to the old ones, and returns the pixel aligned union, clipped to the canvas,
+     * or null if the whole Layer has to be redrawn.
+     */
+    private final BoundingBox getDirtyRegion()
+    {
+        if ((false == m_dirtyrgn) || (m_dirtyall) || (m_dirtynodes.size() < 1) || (isRecording()) || (false == isClearLayerBeforeDraw()) || (null != m_tiles))
+        {
+            return null;
+        }
+        // the rest of the canvas has to match the transform the dirty region is drawn with.
+
+        if (false == isDrawnTransform())
+        {
+            return null;
+        }
+        final Viewport viewport = getViewport();
+
+        // node areas include the Viewport transform, which is only applied to transformable Layers.
+
+        if ((false == isTransformable()) && (null != viewport) && (null != viewport.getTransform()) && (false == viewport.getTransform().isIdentity()))
+        {
+            return null;
+        }
+        final int size = m_dirtynodes.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            final Node<?> node = m_dirtynodes.get(i);
+
+            if (node.getLayer() == this)
+            {
+                doDirtyBounds(node.getRedrawBounds());
+            }
+        }
+        if (m_dirtyall)
+        {
+            return null;
+        }
+        final int wide = getWidth();
+
+        final int high = getHeight();
+
+        if ((null == m_dirtybox) || (wide < 1) || (high < 1))
+        {
+            return new BoundingBox(0, 0, 0, 0);
+        }
+        final double minx = Math.max(0, Math.floor(m_dirtybox.getX()));
+
+        final double miny = Math.max(0, Math.floor(m_dirtybox.getY()));
+
+        final double maxx = Math.min(wide, Math.ceil(m_dirtybox.getX() + m_dirtybox.getWidth()));
+
+        final double maxy = Math.min(high, Math.ceil(m_dirtybox.getY() + m_dirtybox.getHeight()));
+
+        if ((maxx <= minx) || (maxy <= miny))
+        {
+            return new BoundingBox(0, 0, 0, 0);
+        }
+        if (((maxx - minx) * (maxy - miny)) > (m_dirtymax * wide * high))
+        {
+            return null;
+        }
+        return new BoundingBox(minx, miny, maxx, maxy);
+    }
+
+    /**
+     * Draws the contents of the Layer with the Viewport transform and clip paths, only visiting the nodes
+     * in the visible (or given) region when culling, and clipping to the region, in canvas pixels, if given.
+     */
+    private final void drawLayer(final Context2D context, final BoundingBox region)
+    {
+        final Transform transform = getViewportTransform();
+
+        m_lodscale = (null != transform) ? Math.sqrt(Math.abs((transform.getScaleX() * transform.getScaleY()) - (transform.getShearX() * transform.getShearY()))) : 1;
+
+        final Viewport viewport = getViewport();
+
+        context.save();
+
+        if ((m_ratio != 1) && (isBackingContext(context)))
+        {
+            context.scale(m_ratio, m_ratio);
+        }
+        if (null != region)
+        {
+            context.beginPath();
+
+            context.rect(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+
+            context.clip();
+        }
+        if (null != transform)
+        {
+            context.transform(transform);
+        }
+        BoundingBox bbox = getStorageBounds();
+
+        if (null == bbox)
+        {
+            if (null != region)
+            {
+                bbox = toLayerBounds(transform, region.getX(), region.getY(), region.getX() + region.getWidth(), region.getY() + region.getHeight());
+            }
+            else if (isViewportCulling())
+            {
+                bbox = getVisibleBounds(transform, getViewportCullingMargin());
+            }
+        }
+        drawClipped(context, viewport, bbox);
+
+        context.restore();
+    }
+
+    /**
+     * Draws the contents of the Layer, already transformed, within the Viewport and Layer clip paths.
+     */
+    private final void drawClipped(final Context2D context, final Viewport viewport, final BoundingBox bbox)
+    {
+        if (null != viewport)
+        {
+            final IPathClipper vclp = viewport.getPathClipper();
+
+            if ((null != vclp) && (vclp.isActive()))
+            {
+                vclp.clip(context);
+            }
+        }
+        final IPathClipper lclp = getPathClipper();
+
+        if ((null != lclp) && (lclp.isActive()))
+        {
+            lclp.clip(context);
+        }
+        drawWithTransforms(context, 1, bbox);
+    }
+
+    /**
+     * Composites the visible tiles of the current zoom level onto the Layer's canvas, drawing only the missing ones.
+     * Tiles are rendered at the zoom level nearest the Viewport scale, see {@link LayerTileCache#getZoomLevel(double)},
+     * and drawn scaled by the remaining difference, so a continuous zoom doesn't render new tiles on every frame.
+     * Returns false if the Layer can't be tiled for this draw: tiling is off, the Viewport transform rotates, skews or
+     * flips, or the context is not the Layer's own.
+     */
+    private final boolean drawTiles(final Context2D context)
+    {
+        final LayerTileCache tiles = m_tiles;
+
+        if ((null == tiles) || (context != m_context) || (isRecording()) || (false == isClearLayerBeforeDraw()) || (m_ratio != 1))
+        {
+            return false;
+        }
+        final Transform transform = getViewportTransform();
+
+        double sx = 1;
+
+        double sy = 1;
+
+        double tx = 0;
+
+        double ty = 0;
+
+        if (null != transform)
+        {
+            if ((transform.getShearX() != 0) || (transform.getShearY() != 0) || (false == (transform.getScaleX() > 0)) || (false == (transform.getScaleY() > 0)))
+            {
+                return false;
+            }
+            sx = transform.getScaleX();
+
+            sy = transform.getScaleY();
+
+            tx = Math.round(transform.getTranslateX());
+
+            ty = Math.round(transform.getTranslateY());
+        }
+        final int lx = LayerTileCache.getZoomLevel(sx);
+
+        final int ly = LayerTileCache.getZoomLevel(sy);
+
+        final double qx = LayerTileCache.getZoomScale(lx);
+
+        final double qy = LayerTileCache.getZoomScale(ly);
+
+        // the scale from the tiles' zoom level to the Viewport's
+
+        final double fx = sx / qx;
+
+        final double fy = sy / qy;
+
+        final boolean exact = ((fx == 1) && (fy == 1));
+
+        m_lodscale = Math.sqrt(qx * qy);
+
+        final int wide = getWidth();
+
+        final int high = getHeight();
+
+        final int size = tiles.getTileSize();
+
+        final double dx = size * fx;
+
+        final double dy = size * fy;
+
+        final int mini = (int) Math.floor(-tx / dx);
+
+        final int maxi = (int) Math.floor((wide - 1 - tx) / dx);
+
+        final int minj = (int) Math.floor(-ty / dy);
+
+        final int maxj = (int) Math.floor((high - 1 - ty) / dy);
+
+        for (int j = minj; j <= maxj; j++)
+        {
+            for (int i = mini; i <= maxi; i++)
+            {
+                final String key = LayerTileCache.getKey(lx, ly, i, j);
+
+                LayerTileCache.Tile tile = tiles.get(key);
+
+                if (null == tile)
+                {
+                    tile = tiles.make(key, new BoundingBox((i * size) / qx, (j * size) / qy, ((i + 1) * size) / qx, ((j + 1) * size) / qy));
+
+                    drawTile(tile, qx, qy, i * size, j * size);
+                }
+                if (exact)
+                {
+                    context.drawImage(tile.getElement(), (i * size) + tx, (j * size) + ty);
+                }
+                else
+                {
+                    // round both edges, so neighbouring tiles meet without seams
+
+                    final double x0 = Math.round(i * dx) + tx;
+
+                    final double y0 = Math.round(j * dy) + ty;
+
+                    final double x1 = Math.round((i + 1) * dx) + tx;
+
+                    final double y1 = Math.round((j + 1) * dy) + ty;
+
+                    context.drawImage(tile.getElement(), x0, y0, x1 - x0, y1 - y0);
+                }
+            }
+        }
+        return true;
+    }
+
+    private final void drawTile(final LayerTileCache.Tile tile, final double sx, final double sy, final double x, final double y)
+    {
+        final Context2D context = tile.getContext();
+
+        BoundingBox bbox = getStorageBounds();
+
+        if (null == bbox)
+        {
+            final BoundingBox area = tile.getBounds();
+
+            final double mx = getViewportCullingMargin() / sx;
+
+            final double my = getViewportCullingMargin() / sy;
+
+            bbox = new BoundingBox(area.getX() - mx, area.getY() - my, area.getX() + area.getWidth() + mx, area.getY() + area.getHeight() + my);
+        }
+        context.save();
+
+        context.setTransform(sx, 0, 0, sy, -x, -y);
+
+        drawClipped(context, getViewport(), bbox);
+
+        context.restore();
+    }
+
+    /**
+     * Returns whether the Layer is drawn from cached tiles. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isTiledRendering()
+    {
+        return (null != m_tiles);
+    }
+
+    /**
+     * Sets whether the Layer is drawn from cached tiles.
+     * When true, the contents are rendered into offscreen tiles of {@link #getTileSize()} pixels per zoom level, kept in
+     * a least recently used cache within {@link #getTileCacheBudget()} bytes, and a draw composites the visible tiles,
+     * rendering only the ones not cached yet. Zoom levels are steps of the square root of two, and tiles of the nearest
+     * level are drawn scaled to the Viewport's actual zoom. Panning then costs a few image blits instead of a scene traversal, and
+     * going back to a previous zoom level reuses its tiles. Tiles are invalidated by the areas of the nodes that change,
+     * as tracked for {@link #setDirtyRegionRedraw(boolean)}. Rotated or skewed Viewports are drawn as usual.
+     * 
+     * @param tiled
+     * @return Layer
+     */
+    public Layer setTiledRendering(final boolean tiled)
+    {
+        if (tiled != isTiledRendering())
+        {
+            m_tiles = tiled ? new LayerTileCache(m_tilesize, m_tilebudget) : null;
+
+            m_tilebox = null;
+
+            doChangeTracking();
+        }
+        return this;
+    }
+
+    public int getTileSize()
+    {
+        return m_tilesize;
+    }
+
+    /**
+     * Sets the width and height, in pixels, of the tiles. The default value is {@link #DEFAULT_TILE_SIZE}.
+     * 
+     * @param size
+     * @return Layer
+     */
+    public Layer setTileSize(final int size)
+    {
+        m_tilesize = Math.max(16, size);
+
+        if (null != m_tiles)
+        {
+            m_tiles = new LayerTileCache(m_tilesize, m_tilebudget);
+        }
+        return this;
+    }
+
+    public int getTileCacheBudget()
+    {
+        return m_tilebudget;
+    }
+
+    /**
+     * Sets the memory, in bytes, the cached tiles may use. The default value is {@link #DEFAULT_TILE_CACHE_BUDGET}.
+     * 
+     * @param budget
+     * @return Layer
+     */
+    public Layer setTileCacheBudget(final int budget)
+    {
+        m_tilebudget = Math.max(0, budget);
+
+        if (null != m_tiles)
+        {
+            m_tiles.setBudget(m_tilebudget);
+        }
+        return this;
+    }
+
+    /**
+     * Drops all cached tiles, for changes the Layer can't track, such as images drawn by Shapes that finished loading.
+     * 
+     * @return Layer
+     */
+    public Layer invalidateTiles()
+    {
+        if (null != m_tiles)
+        {
+            m_tiles.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Draws the Layer progressively, see {@link #drawProgressive(double, OnLayerDrawComplete)}, within {@link #DEFAULT_PROGRESSIVE_BUDGET} milliseconds per frame.
+     * 
+     * @param done called once the Layer is completely drawn, may be null
+     * @return Layer
+     */
+    public Layer drawProgressive(final OnLayerDrawComplete done)
+    {
+        return drawProgressive(DEFAULT_PROGRESSIVE_BUDGET, done);
+    }
+
+    /**
+     * Draws the Layer progressively, for Layers too large to draw in one go without freezing the page.
+     * The child nodes in the visible area, as culled for {@link #setViewportCulling(boolean)}, are drawn in order,
+     * spending at most the given milliseconds per animation frame and resuming where the last frame stopped;
+     * then an eager {@link SelectionLayer} is drawn the same way. Any draw of the Layer in the meantime, such as
+     * a batched draw after a change or a Viewport pan, restarts the progressive draw instead. Tiled and recording
+     * Layers are drawn at once. Sub-classes that draw under their child nodes, such as {@link GridLayer}, draw that
+     * with the first slice only, see {@link #isProgressiveContinuation(Context2D)}.
+     * 
+     * @param budget milliseconds of drawing per frame
+     * @param done called once the Layer is completely drawn, may be null
+     * @return Layer
+     */
+    public Layer drawProgressive(final double budget, final OnLayerDrawComplete done)
+    {
+        m_progress = null;
+
+        if ((false == LienzoCore.IS_CANVAS_SUPPORTED) || (false == isVisible()) || (isRecording()) || (null != m_tiles) || ((null != m_olbd) && (false == m_olbd.onLayerBeforeDraw(this))))
+        {
+            if (isVisible())
+            {
+                draw();
+            }
+            if (null != done)
+            {
+                done.onLayerDrawComplete(this);
+            }
+            return this;
+        }
+        m_progress = new ProgressiveDraw(Math.max(1, budget), done);
+
+        doProgressiveRestart(m_progress);
+
+        return this;
+    }
+
+    /**
+     * Returns true while a progressive draw is in progress.
+     * 
+     * @return boolean
+     */
+    public boolean isProgressiveDrawing()
+    {
+        return (null != m_progress);
+    }
+
+    /**
+     * Returns true while a progressive draw is drawing a slice, after the first one, on the given context. Sub-classes
+     * that draw their own content in {@link #drawWithoutTransforms(Context2D, double, BoundingBox)} must only draw it
+     * when this is false, and always call super, so it is drawn once, under the child nodes.
+     * 
+     * @param context
+     * @return boolean
+     */
+    protected final boolean isProgressiveContinuation(final Context2D context)
+    {
+        final ProgressiveDraw progress = m_progress;
+
+        return ((null != progress) && (context == progress.m_context) && (progress.m_index > 0));
+    }
+
+    private final void doProgressiveRestart(final ProgressiveDraw progress)
+    {
+        doDirtyReset();
+
+        clear();
+
+        progress.m_index = 0;
+
+        progress.m_selection = false;
+
+        final SelectionLayer selection = getSelectionLayer();
+
+        if ((null != selection) && (isLazySelectionLayer()) && (false == isShowSelectionLayer()))
+        {
+            doSelectionLayerChanged();
+        }
+        if (false == progress.m_scheduled)
+        {
+            doProgressiveStep(progress);
+        }
+    }
+
+    private final void doProgressiveStep(final ProgressiveDraw progress)
+    {
+        if (progress != m_progress)
+        {
+            return;
+        }
+        progress.m_scheduled = false;
+
+        progress.m_deadline = Duration.currentTimeMillis() + progress.m_budget;
+
+        final SelectionLayer selection = getSelectionLayer();
+
+        if (false == progress.m_selection)
+        {
+            drawProgressiveSlice(progress, getContext());
+
+            if (progress.m_index < 0)
+            {
+                if ((null == selection) || ((isLazySelectionLayer()) && (false == isShowSelectionLayer())))
+                {
+                    doProgressiveComplete(progress);
+
+                    return;
+                }
+                progress.m_selection = true;
+
+                progress.m_index = 0;
+
+                m_seldirty = false;
+
+                m_selpixels = null;
+
+                selection.clear();
+            }
+        }
+        else if (null != selection)
+        {
+            drawProgressiveSlice(progress, selection.getContext());
+
+            if (progress.m_index < 0)
+            {
+                doProgressiveComplete(progress);
+
+                return;
+            }
+        }
+        else
+        {
+            doProgressiveComplete(progress);
+
+            return;
+        }
+        progress.m_scheduled = true;
+
+        LayerRedrawManager.get().requestAnimationFrame(progress.m_step);
+    }
+
+    private final void drawProgressiveSlice(final ProgressiveDraw progress, final Context2D context)
+    {
+        progress.m_context = context;
+
+        progress.m_next = -1;
+
+        drawLayer(context, null);
+
+        progress.m_context = null;
+
+        progress.m_index = progress.m_next;
+    }
+
+    private final void doProgressiveComplete(final ProgressiveDraw progress)
+    {
+        m_progress = null;
+
+        doDrawnTransform();
+
+        if (null != m_olad)
+        {
+            m_olad.onLayerAfterDraw(this);
+        }
+        if (null != progress.m_done)
+        {
+            progress.m_done.onLayerDrawComplete(this);
+        }
+    }
+
+    /**
+     * Draws the child nodes of a progressive draw slice from where the last one stopped, until its time is spent.
+     */
+    @Override
+    protected void drawWithoutTransforms(final Context2D context, double alpha, final BoundingBox bounds)
+    {
+        final ProgressiveDraw progress = m_progress;
+
+        if ((null == progress) || (context != progress.m_context))
+        {
+            super.drawWithoutTransforms(context, alpha, bounds);
+
+            return;
+        }
+        if ((context.isSelection()) && (false == isListening()))
+        {
+            return;
+        }
+        alpha = alpha * getAttributes().getAlpha();
+
+        if (alpha <= 0)
+        {
+            return;
+        }
+        BoundingBox bbox = getStorageBounds();
+
+        if (null == bbox)
+        {
+            bbox = bounds;
+        }
+        final NFastArrayList<IPrimitive<?>> list = getChildNodes(bbox);
+
+        final int size = list.size();
+
+        final IPathClipper clip = getPathClipper();
+
+        final boolean clipped = ((null != clip) && (clip.isActive()));
+
+        if (clipped)
+        {
+            context.save();
+
+            clip.clip(context);
+        }
+        int i = Math.max(0, progress.m_index);
+
+        while (i < size)
+        {
+            final IPrimitive<?> child = list.get(i++);
+
+            if (isChildVisibleIn(child, bbox))
+            {
+                child.drawWithTransforms(context, alpha, bbox);
+
+                if (Duration.currentTimeMillis() >= progress.m_deadline)
+                {
+                    break;
+                }
+            }
+        }
+        if (clipped)
+        {
+            context.restore();
+        }
+        progress.m_next = (i < size) ? i : -1;
+    }
+
+    /**
+     * Returns whether the Layer's backing store resolution adapts to interactions. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isAdaptiveResolution()
+    {
+        return m_adaptive;
+    }
+
+    /**
+     * Sets whether the Layer's backing store resolution adapts to interactions.
+     * When true, the canvas has {@link LienzoCore#getCanvasPixelRatio()} pixels per CSS pixel, so it is drawn sharply on high density
+     * displays, and drops to {@link LienzoCore#getInteractionPixelRatio()} while the {@link Viewport} is panned or zoomed by a
+     * mediator, or a node is dragged, see {@link Viewport#doInteraction()}. It is drawn at full resolution again once there was
+     * no interaction for {@link LienzoCore#getInteractionIdleDelay()} milliseconds. The {@link SelectionLayer} keeps one pixel
+     * per CSS pixel. Scroll blits and tiles are only used at a ratio of 1.
+     * 
+     * @param adaptive
+     * @return Layer
+     */
+    public Layer setAdaptiveResolution(final boolean adaptive)
+    {
+        m_adaptive = adaptive;
+
+        setPixelRatio(adaptive ? LienzoCore.get().getCanvasPixelRatio() : 1);
+
+        return this;
+    }
+
+    /**
+     * Returns the number of canvas pixels per CSS pixel.
+     * 
+     * @return double
+     */
+    public double getPixelRatio()
+    {
+        return m_ratio;
+    }
+
+    /**
+     * Used internally. Switches a Layer with adaptive resolution to or from its interaction resolution.
+     */
+    final void doInteraction(final boolean interacting)
+    {
+        if ((m_adaptive) && (false == isRecording()))
+        {
+            setPixelRatio(interacting ? LienzoCore.get().getInteractionPixelRatio() : LienzoCore.get().getCanvasPixelRatio());
+        }
+    }
+
+    private final void setPixelRatio(final double ratio)
+    {
+        if ((ratio > 0) && (ratio != m_ratio))
+        {
+            m_ratio = ratio;
+
+            if (LienzoCore.IS_CANVAS_SUPPORTED)
+            {
+                setPixelSize(getWidth(), getHeight());
+
+                batch();
+            }
+        }
+    }
+
+    private final boolean isBackingContext(final Context2D context)
+    {
+        return ((context == m_context) || ((null != m_recctx) && (context == m_recctx)));
+    }
+
+    /**
+     * Returns whether draws after a Viewport pan shift the previous canvas contents. The default value is false.
+     * 
+     * @return boolean
+     */
+    public boolean isScrollBlit()
+    {
+        return m_blit;
+    }
+
+    /**
+     * Sets whether draws after a Viewport pan shift the previous canvas contents.
+     * When true, and the only change since the last draw is a whole pixel translation of the {@link Viewport} transform,
+     * the canvas is copied onto itself at the new offset, and only the strips it exposed are cleared and redrawn, clipped,
+     * on this Layer and on an up to date {@link SelectionLayer}. Node changes are tracked as for
+     * {@link #setDirtyRegionRedraw(boolean)}; any of them, a zoom, or a fractional offset causes a full draw.
+     * 
+     * @param blit
+     * @return Layer
+     */
+    public Layer setScrollBlit(final boolean blit)
+    {
+        m_blit = blit;
+
+        m_drawxfrm = null;
+
+        doChangeTracking();
+
+        return this;
+    }
+
+    /**
+     * Redraws the {@link SelectionLayer} if the Layer was drawn since it was last rendered.
+     * This is called automatically before picking; code reading the selection canvas directly should call it first.
+     * 
+     * @return Layer
+     */
+    public Layer validateSelectionLayer()
+    {
+        if (m_seldirty)
+        {
+            final SelectionLayer selection = getSelectionLayer();
+
+            if ((null != selection) && (LienzoCore.IS_CANVAS_SUPPORTED) && (isVisible()))
+            {
+                drawSelectionLayer(selection);
+            }
+        }
+        return this;
+    }
+
+    private final void doSelectionLayerChanged()
+    {
+        m_seldirty = true;
+
+        if (m_selidle > 0)
+        {
+            if (null == m_seltimer)
+            {
+                m_seltimer = new Timer()
+                {
+                    @Override
+                    public void run()
+                    {
+                        validateSelectionLayer();
+                    }
+                };
+            }
+            m_seltimer.schedule(m_selidle);
+        }
+    }
+
+    private final void drawSelectionLayer(final SelectionLayer selection)
+    {
+        m_seldirty = false;
+
+        m_selpixels = null;
+
+        if (null != m_seltimer)
+        {
+            m_seltimer.cancel();
+        }
+        selection.clear();
+
+        drawLayer(selection.getContext(), null);
+    }
+
+    /**
+     * Performs batch updates to the Layer, that is, drawing is deferred till the next AnimationFrame,
+     * to cut down on redraws on rapid event dispatch.
+     * 
+     * @return Layer
+     */
+    @Override
+    public Layer batch()
     {
         return LayerRedrawManager.get().schedule(this);
     }
@@ -870,7 +2617,7 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 
             if (null != context)
             {
-                context.clearRect(0, 0, getWidth(), getHeight());
+                context.clearRect(0, 0, getWidth() * m_ratio, getHeight() * m_ratio);
             }
         }
         else
@@ -1076,6 +2823,43 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
 		return element.toDataURL(mimetype);
     }-*/;
 
+    private final class ProgressiveDraw
+    {
+        private final double              m_budget;
+
+        private final OnLayerDrawComplete m_done;
+
+        private final AnimationCallback   m_step;
+
+        private Context2D                 m_context   = null;
+
+        private boolean                   m_selection = false;
+
+        private boolean                   m_scheduled = false;
+
+        private int                       m_index     = 0;
+
+        private int                       m_next      = -1;
+
+        private double                    m_deadline  = 0;
+
+        private ProgressiveDraw(final double budget, final OnLayerDrawComplete done)
+        {
+            m_budget = budget;
+
+            m_done = done;
+
+            m_step = new AnimationCallback()
+            {
+                @Override
+                public void execute(final double time)
+                {
+                    doProgressiveStep(ProgressiveDraw.this);
+                }
+            };
+        }
+    }
+
     public static class SelectionLayer extends Layer
     {
         private SelectionContext2D m_context;
@@ -1123,7 +2907,7 @@ public class Layer extends ContainerNode<IPrimitive<?>, Layer>
             return m_context;
         }
 
-        private static class SelectionContext2D extends Context2D
+        static class SelectionContext2D extends Context2D
         {
             public SelectionContext2D(final CanvasElement element)
             {
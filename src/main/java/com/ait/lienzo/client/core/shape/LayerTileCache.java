@@ -0,0 +1,184 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.util.ScratchPad;
+import com.google.gwt.dom.client.CanvasElement;
+
+/**
+ * Used internally by {@link Layer} for tiled rendering. Holds square offscreen tiles of the Layer's contents, keyed by
+ * zoom level and tile position, in least recently used order, within a memory budget. When the budget is reached, the
+ * least recently used tile's canvas is reused for the next one.
+ */
+final class LayerTileCache
+{
+    private final LinkedHashMap<String, Tile> m_tiles = new LinkedHashMap<String, Tile>(64, 0.75f, true);
+
+    private final int                         m_size;
+
+    private int                               m_budget;
+
+    LayerTileCache(final int size, final int budget)
+    {
+        m_size = size;
+
+        m_budget = budget;
+    }
+
+    final int getTileSize()
+    {
+        return m_size;
+    }
+
+    final void setBudget(final int budget)
+    {
+        m_budget = budget;
+
+        while ((m_tiles.size() > 1) && (isOverBudget(m_tiles.size())))
+        {
+            evict();
+        }
+    }
+
+    final int size()
+    {
+        return m_tiles.size();
+    }
+
+    /**
+     * Returns the tile, marking it as most recently used, or null.
+     */
+    final Tile get(final String key)
+    {
+        return m_tiles.get(key);
+    }
+
+    /**
+     * Adds an empty tile covering the given Layer bounds, reusing the least recently used tile's canvas if the budget is reached.
+     */
+    final Tile make(final String key, final BoundingBox bounds)
+    {
+        Tile tile = null;
+
+        if ((m_tiles.size() > 0) && (isOverBudget(m_tiles.size() + 1)))
+        {
+            tile = evict();
+
+            tile.getContext().clearRect(0, 0, m_size, m_size);
+        }
+        else
+        {
+            tile = new Tile(new ScratchPad(m_size, m_size));
+        }
+        tile.m_bounds = bounds;
+
+        m_tiles.put(key, tile);
+
+        return tile;
+    }
+
+    /**
+     * Drops every tile, at any zoom level, that overlaps the given Layer bounds.
+     */
+    final void invalidate(final BoundingBox bounds)
+    {
+        final Iterator<Tile> iter = m_tiles.values().iterator();
+
+        while (iter.hasNext())
+        {
+            if (iter.next().m_bounds.intersects(bounds))
+            {
+                iter.remove();
+            }
+        }
+    }
+
+    final void clear()
+    {
+        m_tiles.clear();
+    }
+
+    private final boolean isOverBudget(final int count)
+    {
+        return ((4.0 * m_size * m_size * count) > m_budget);
+    }
+
+    private final Tile evict()
+    {
+        final Iterator<Tile> iter = m_tiles.values().iterator();
+
+        final Tile tile = iter.next();
+
+        iter.remove();
+
+        return tile;
+    }
+
+    /**
+     * Returns the zoom level nearest to the given scale, counted in steps of the square root of two from a scale of one.
+     * Tiles are only rendered at these levels, so a continuous zoom reuses them instead of rendering new ones every frame.
+     */
+    static final int getZoomLevel(final double scale)
+    {
+        return (int) Math.round(2 * Math.log(scale) / Math.log(2));
+    }
+
+    /**
+     * Returns the scale tiles are rendered at for the given zoom level.
+     */
+    static final double getZoomScale(final int level)
+    {
+        return Math.pow(2, level * 0.5);
+    }
+
+    static final String getKey(final int lx, final int ly, final int i, final int j)
+    {
+        return lx + ":" + ly + ":" + i + ":" + j;
+    }
+
+    static final class Tile
+    {
+        private final ScratchPad m_pad;
+
+        private BoundingBox      m_bounds;
+
+        private Tile(final ScratchPad pad)
+        {
+            m_pad = pad;
+        }
+
+        final Context2D getContext()
+        {
+            return m_pad.getContext();
+        }
+
+        final CanvasElement getElement()
+        {
+            return m_pad.getElement();
+        }
+
+        final BoundingBox getBounds()
+        {
+            return m_bounds;
+        }
+    }
+}
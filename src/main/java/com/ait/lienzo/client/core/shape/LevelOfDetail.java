@@ -0,0 +1,274 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.HashMap;
+
+import com.ait.lienzo.client.core.types.FillGradient;
+import com.ait.lienzo.client.core.types.FillGradient.GradientJSO;
+import com.ait.lienzo.client.core.types.LinearGradient;
+import com.ait.lienzo.client.core.types.RadialGradient;
+import com.ait.lienzo.shared.core.types.IColor;
+import com.ait.lienzo.shared.core.types.ShapeType;
+
+/**
+ * Level of detail policy for a {@link Layer}, see {@link Layer#setLevelOfDetail(LevelOfDetail)}.
+ * <p>
+ * Based on the screen scale of the Layer's {@link Viewport} transform, Shapes are drawn with cheaper renderings:
+ * <ul>
+ * <li>{@link Text} whose font is smaller than {@link #getMinimumTextSize()} pixels on screen is not drawn.</li>
+ * <li>Other Shapes whose bounding box is smaller than {@link #getMinimumShapeSize(ShapeType)} pixels on screen are drawn as a filled bounding box.</li>
+ * <li>Shadows, fill gradients and dashes are dropped below their minimum scales.</li>
+ * </ul>
+ * The selection layer is always drawn in full, so picking is not affected.
+ */
+public final class LevelOfDetail
+{
+    public static final double            DEFAULT_MINIMUM_TEXT_SIZE      = 4;
+
+    public static final double            DEFAULT_MINIMUM_SHAPE_SIZE     = 2;
+
+    public static final double            DEFAULT_MINIMUM_SHADOW_SCALE   = 0.5;
+
+    public static final double            DEFAULT_MINIMUM_GRADIENT_SCALE = 0.25;
+
+    public static final double            DEFAULT_MINIMUM_DASH_SCALE     = 0.5;
+
+    public static final String            DEFAULT_PLACEHOLDER_COLOR      = "#C0C0C0";
+
+    static final int                      DROP_SHADOW                    = 1;
+
+    static final int                      DROP_GRADIENT                  = 2;
+
+    static final int                      DROP_DASH                      = 4;
+
+    private final HashMap<String, Double> m_sizes                        = new HashMap<String, Double>();
+
+    private double                        m_text                         = DEFAULT_MINIMUM_TEXT_SIZE;
+
+    private double                        m_size                         = DEFAULT_MINIMUM_SHAPE_SIZE;
+
+    private double                        m_shadow                       = DEFAULT_MINIMUM_SHADOW_SCALE;
+
+    private double                        m_gradient                     = DEFAULT_MINIMUM_GRADIENT_SCALE;
+
+    private double                        m_dash                         = DEFAULT_MINIMUM_DASH_SCALE;
+
+    private String                        m_color                        = DEFAULT_PLACEHOLDER_COLOR;
+
+    public LevelOfDetail()
+    {
+    }
+
+    /**
+     * Returns the font size, in screen pixels, below which Text is not drawn.
+     *
+     * @return double
+     */
+    public final double getMinimumTextSize()
+    {
+        return m_text;
+    }
+
+    public final LevelOfDetail setMinimumTextSize(final double size)
+    {
+        m_text = size;
+
+        return this;
+    }
+
+    /**
+     * Returns the size, in screen pixels, below which Shapes without their own size are drawn as a filled bounding box.
+     *
+     * @return double
+     */
+    public final double getMinimumShapeSize()
+    {
+        return m_size;
+    }
+
+    public final LevelOfDetail setMinimumShapeSize(final double size)
+    {
+        m_size = size;
+
+        return this;
+    }
+
+    /**
+     * Returns the size, in screen pixels, below which Shapes of the given type are drawn as a filled bounding box.
+     *
+     * @param type
+     * @return double
+     */
+    public final double getMinimumShapeSize(final ShapeType type)
+    {
+        if (null != type)
+        {
+            final Double size = m_sizes.get(type.getValue());
+
+            if (null != size)
+            {
+                return size;
+            }
+        }
+        return m_size;
+    }
+
+    /**
+     * Sets the size, in screen pixels, below which Shapes of the given type are drawn as a filled bounding box.
+     * A size of zero or less always draws them in full.
+     *
+     * @param type
+     * @param size
+     * @return this LevelOfDetail
+     */
+    public final LevelOfDetail setMinimumShapeSize(final ShapeType type, final double size)
+    {
+        if (null != type)
+        {
+            m_sizes.put(type.getValue(), size);
+        }
+        return this;
+    }
+
+    public final double getMinimumShadowScale()
+    {
+        return m_shadow;
+    }
+
+    /**
+     * Sets the screen scale below which shadows are not drawn.
+     *
+     * @param scale
+     * @return this LevelOfDetail
+     */
+    public final LevelOfDetail setMinimumShadowScale(final double scale)
+    {
+        m_shadow = scale;
+
+        return this;
+    }
+
+    public final double getMinimumGradientScale()
+    {
+        return m_gradient;
+    }
+
+    /**
+     * Sets the screen scale below which fill gradients are drawn as a single color.
+     *
+     * @param scale
+     * @return this LevelOfDetail
+     */
+    public final LevelOfDetail setMinimumGradientScale(final double scale)
+    {
+        m_gradient = scale;
+
+        return this;
+    }
+
+    public final double getMinimumDashScale()
+    {
+        return m_dash;
+    }
+
+    /**
+     * Sets the screen scale below which dashed strokes are drawn solid.
+     *
+     * @param scale
+     * @return this LevelOfDetail
+     */
+    public final LevelOfDetail setMinimumDashScale(final double scale)
+    {
+        m_dash = scale;
+
+        return this;
+    }
+
+    /**
+     * Returns the color used for Shapes drawn as a filled bounding box that have neither a fill nor a stroke color, such as Pictures.
+     *
+     * @return String
+     */
+    public final String getPlaceholderColor()
+    {
+        return m_color;
+    }
+
+    public final LevelOfDetail setPlaceholderColor(final String color)
+    {
+        m_color = (null != color) ? color : DEFAULT_PLACEHOLDER_COLOR;
+
+        return this;
+    }
+
+    public final LevelOfDetail setPlaceholderColor(final IColor color)
+    {
+        return setPlaceholderColor((null != color) ? color.getColorString() : null);
+    }
+
+    final int getDropFlags(final double scale)
+    {
+        int flags = 0;
+
+        if (scale < m_shadow)
+        {
+            flags |= DROP_SHADOW;
+        }
+        if (scale < m_gradient)
+        {
+            flags |= DROP_GRADIENT;
+        }
+        if (scale < m_dash)
+        {
+            flags |= DROP_DASH;
+        }
+        return flags;
+    }
+
+    /**
+     * Returns a single color standing in for the fill gradient.
+     */
+    final String getGradientColor(final FillGradient grad)
+    {
+        if (null != grad)
+        {
+            final String type = grad.getType();
+
+            GradientJSO jso = null;
+
+            if (LinearGradient.TYPE.equals(type))
+            {
+                jso = grad.asLinearGradient().getJSO();
+            }
+            else if (RadialGradient.TYPE.equals(type))
+            {
+                jso = grad.asRadialGradient().getJSO();
+            }
+            if (null != jso)
+            {
+                final String color = jso.getMiddleColor();
+
+                if (null != color)
+                {
+                    return color;
+                }
+            }
+        }
+        return m_color;
+    }
+}
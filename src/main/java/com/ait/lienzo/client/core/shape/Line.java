@@ -80,6 +80,8 @@ public class Line extends AbstractOffsetMultiPointShape<Line>
     @Override
     public Line refresh()
     {
+        doBoundsChanged();
+
         if (m_tailOffsetValue != m_headOffsetValue)
         {
             return this;
@@ -105,7 +107,7 @@ public class Line extends AbstractOffsetMultiPointShape<Line>
 
         if ((null != list) && (list.size() == 2))
         {
-            if (attr.isDefined(Attribute.DASH_ARRAY))
+            if ((attr.isDefined(Attribute.DASH_ARRAY)) && (false == isDashArrayDropped()))
             {
                 if (false == LienzoCore.get().isNativeLineDashSupported())
                 {
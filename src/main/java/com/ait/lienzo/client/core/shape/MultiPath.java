@@ -214,9 +214,22 @@ public class MultiPath extends AbstractMultiPathPartShape<MultiPath>
         return true;
     }
 
+    /**
+     * Drops the cached bounds and Path2D of each path, after their points were changed in place.
+     */
     @Override
     public MultiPath refresh()
     {
+        final NFastArrayList<PathPartList> list = getPathPartListArray();
+
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            list.get(i).resetBoundingBox();
+        }
+        doBoundsChanged();
+
         return this;
     }
 
@@ -242,6 +255,8 @@ public class MultiPath extends AbstractMultiPathPartShape<MultiPath>
 
     private final PathPartList getOrIncrementList()
     {
+        doBoundsChanged();
+
         final NFastArrayList<PathPartList> list = getPathPartListArray();
 
         if (list.size() < 1)
@@ -85,6 +85,7 @@ import com.ait.lienzo.client.core.types.BoundingBox;
 import com.ait.lienzo.client.core.types.BoundingPoints;
 import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.types.Transform;
+import com.ait.lienzo.client.core.util.GeometryException;
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.NodeType;
 import com.ait.tooling.common.api.java.util.UUID;
@@ -109,6 +110,12 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
 {
     private static final HashSet<Type<?>> ALL_EVENTS = new HashSet<Type<?>>();
 
+    // attributes that never change how a node is drawn, on the Layer or its SelectionLayer
+
+    private static final HashSet<String>  NON_VISUAL_ATTRIBUTES = new HashSet<String>(Arrays.asList(Attribute.ID.getProperty(), Attribute.NAME.getProperty(), Attribute.DRAGGABLE.getProperty(), Attribute.EDITABLE.getProperty(), Attribute.DRAG_CONSTRAINT.getProperty(), Attribute.DRAG_BOUNDS.getProperty(), Attribute.DRAG_MODE.getProperty(), Attribute.TRANSFORMABLE.getProperty(), Attribute.SERIALIZATION_MODE.getProperty(), Attribute.EVENT_PROPAGATION_MODE.getProperty()));
+
+    private static int                    s_trackers = 0;
+
     private final Attributes              m_attr;
 
     private final MetaData                m_meta;
@@ -125,6 +132,22 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
 
     private HandlerManager                m_events;
 
+    private Transform                     m_lxfrm;
+
+    private boolean                       m_lxfrm_ok;
+
+    private Transform                     m_axfrm;
+
+    private Transform                     m_axfrm_base;
+
+    private boolean                       m_axfrm_ok;
+
+    private BoundingBox                   m_abox;
+
+    private Transform                     m_abox_xfrm;
+
+    private boolean                       m_drty;
+
     @SafeVarargs
     public static final <T> List<T> asList(final T... list)
     {
@@ -322,6 +345,8 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
     @Override
     public T refresh()
     {
+        doBoundsChanged();
+
         return cast();
     }
 
@@ -358,6 +383,192 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
         m_parent = parent;
     }
 
+    /**
+     * Used internally. Called by this node's {@link Attributes} whenever one of its attributes is set or removed.
+     *
+     * @param name the attribute property name
+     */
+    void doAttributeChanged(final String name)
+    {
+        if (isTransformAttribute(name))
+        {
+            m_lxfrm_ok = false;
+
+            m_axfrm_ok = false;
+
+            doBoundsInvalidated();
+        }
+        else if ((isBoundsObserved()) && (isAttributeIn(getBoundingBoxAttributes(), name)))
+        {
+            doBoundsInvalidated();
+        }
+    }
+
+    /**
+     * Used internally. Called by this node's {@link Attributes} just before one of its attributes is set or removed.
+     * Does nothing unless some {@link Layer} tracks changes or some {@link GroupOf} is bitmap cached, or if the attribute
+     * doesn't change how the node is drawn.
+     *
+     * @param name the attribute property name
+     */
+    void doAttributeChanging(final String name)
+    {
+        if ((0 == s_trackers) || (NON_VISUAL_ATTRIBUTES.contains(name)))
+        {
+            return;
+        }
+        doRedrawRegionChanging();
+
+        notifySubtreeChanging(getParent());
+    }
+
+    /**
+     * Used internally. Counts the Layers tracking changes and the bitmap cached GroupOfs, as they are turned on and off.
+     */
+    static final void doChangeTrackers(final int delta)
+    {
+        s_trackers += delta;
+    }
+
+    /**
+     * Used internally. Calls {@link #doSubtreeChanging()} on the given node and each of its ancestors.
+     */
+    static final void notifySubtreeChanging(Node<?> node)
+    {
+        while (null != node)
+        {
+            node.doSubtreeChanging();
+
+            node = node.getParent();
+        }
+    }
+
+    /**
+     * Used internally. Called just before something below this node changes how it is drawn. Does nothing by default.
+     */
+    void doSubtreeChanging()
+    {
+    }
+
+    /**
+     * Used internally. Reports the area this node currently covers to its {@link Layer}, if the Layer redraws dirty regions,
+     * before something changes how or where the node is drawn. Only the first report in a frame matters.
+     */
+    final void doRedrawRegionChanging()
+    {
+        if ((false == m_drty) && (null != getParent()))
+        {
+            final Layer layer = getLayer();
+
+            if (null != layer)
+            {
+                m_drty = layer.doDirtyNode(this);
+            }
+        }
+    }
+
+    /**
+     * Used internally. Called by the {@link Layer} once the changes reported by {@link #doRedrawRegionChanging()} are drawn.
+     */
+    final void doRedrawRegionReset()
+    {
+        m_drty = false;
+    }
+
+    /**
+     * Used internally. Returns the area this node covers on the {@link Layer} canvas, in pixels, or null if unknown.
+     */
+    BoundingBox getRedrawBounds()
+    {
+        return getAbsoluteBoundingBox();
+    }
+
+    /**
+     * Invalidates any cached bounds of this node and its ancestors, and re-indexes it in spatially indexed containers.
+     * Attribute changes call this automatically; sub-classes whose geometry changes in some other way
+     * (i.e. points modified in place, followed by {@link #refresh()}) should call it too.
+     */
+    protected final void doBoundsChanged()
+    {
+        if ((false == m_drty) && (null != getParent()))
+        {
+            // the old area is gone, so a Layer redrawing dirty regions has to redraw everything.
+
+            final Layer layer = getLayer();
+
+            if (null != layer)
+            {
+                layer.doDirtyAll();
+            }
+        }
+        notifySubtreeChanging(getParent());
+
+        doBoundsInvalidated();
+    }
+
+    final void doBoundsInvalidated()
+    {
+        m_abox = null;
+
+        final Node<?> parent = getParent();
+
+        if (null != parent)
+        {
+            final ContainerNode<?, ?> container = parent.asContainerNode();
+
+            if (null != container)
+            {
+                container.doChildBoundsChanged(this);
+            }
+        }
+    }
+
+    private final boolean isBoundsObserved()
+    {
+        if (null != m_abox)
+        {
+            return true;
+        }
+        final Node<?> parent = getParent();
+
+        if (null != parent)
+        {
+            final ContainerNode<?, ?> container = parent.asContainerNode();
+
+            if (null != container)
+            {
+                return container.isChildBoundsObserved();
+            }
+        }
+        return false;
+    }
+
+    private final boolean isTransformAttribute(final String name)
+    {
+        if (Attribute.TRANSFORM.getProperty().equals(name))
+        {
+            return true;
+        }
+        return isAttributeIn(getTransformingAttributes(), name);
+    }
+
+    private static final boolean isAttributeIn(final List<Attribute> list, final String name)
+    {
+        if (null != list)
+        {
+            final int size = list.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                if (list.get(i).getProperty().equals(name))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public boolean isAnimating()
     {
         return (m_anim > 0);
@@ -502,18 +713,48 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
         {
             context.save();
 
-            final Transform xfrm = getPossibleNodeTransform();
+            final Transform xfrm = getCachedNodeTransform();
+
+            BoundingBox bbox = bounds;
 
             if (null != xfrm)
             {
                 context.transform(xfrm);
+
+                if ((null != bbox) && (null == asShape()))
+                {
+                    bbox = toLocalBounds(xfrm, bbox);
+                }
             }
-            drawWithoutTransforms(context, alpha, bounds);
+            drawWithoutTransforms(context, alpha, bbox);
 
             context.restore();
         }
     }
 
+    /**
+     * Maps bounds given in the parent's coordinate space into this node's coordinate space,
+     * so containers can cull their children against them. Returns null (no culling) if the transform can't be inverted.
+     */
+    private static final BoundingBox toLocalBounds(final Transform xfrm, final BoundingBox bounds)
+    {
+        if (xfrm.isIdentity())
+        {
+            return bounds;
+        }
+        final Transform inverse;
+
+        try
+        {
+            inverse = xfrm.getInverse();
+        }
+        catch (GeometryException e)
+        {
+            return null;
+        }
+        return new BoundingPoints(bounds).transform(inverse).getBoundingBox();
+    }
+
     /**
      * Used internally. Draws the node in the current Context2D
      * without applying the transformation-related attributes 
@@ -532,7 +773,7 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
     {
         final Point2D p = new Point2D(0, 0);
 
-        getAbsoluteTransform().transform(p, p);
+        getCachedAbsoluteTransform().transform(p, p);
 
         return p;
     }
@@ -545,31 +786,90 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
      */
     public Transform getAbsoluteTransform()
     {
-        final Transform xfrm = new Transform();
+        return getCachedAbsoluteTransform().copy();
+    }
+
+    /**
+     * Returns this node's bounding box in absolute (Viewport) coordinates, that is the bounding box of
+     * {@link #getBoundingBox()} transformed by {@link #getAbsoluteTransform()}.
+     * The result is cached until the bounds or any transform up the ancestor chain change.
+     * 
+     * @return {@link BoundingBox}
+     */
+    public BoundingBox getAbsoluteBoundingBox()
+    {
+        final Transform xfrm = getCachedAbsoluteTransform();
 
-        getAbsoluteTransformFromParents(this, xfrm);
+        if ((null == m_abox) || (m_abox_xfrm != xfrm))
+        {
+            final BoundingBox bbox = getBoundingBox();
 
-        return xfrm;
+            if (null == bbox)
+            {
+                return null;
+            }
+            m_abox = new BoundingPoints(bbox).transform(xfrm).getBoundingBox();
+
+            m_abox_xfrm = xfrm;
+        }
+        return new BoundingBox(m_abox);
+    }
+
+    /**
+     * Returns the uniform scale of the absolute transform, that is the square root of the absolute value of its determinant.
+     */
+    final double getAbsoluteScale()
+    {
+        final Transform xfrm = getCachedAbsoluteTransform();
+
+        return Math.sqrt(Math.abs((xfrm.getScaleX() * xfrm.getScaleY()) - (xfrm.getShearX() * xfrm.getShearY())));
     }
 
-    private final void getAbsoluteTransformFromParents(final Node<?> root, final Transform xfrm)
+    /**
+     * Returns the cached absolute transform, re-computing it only if a transforming attribute of this node changed,
+     * or if the parent's absolute transform was re-computed or the node was moved to another parent.
+     * The returned Transform is shared, and must not be modified.
+     */
+    private final Transform getCachedAbsoluteTransform()
     {
-        /*
-         * recursive walk up till parent is null
-         */
+        final Node<?> parent = getParent();
+
+        final Transform base = (null != parent) ? parent.getCachedAbsoluteTransform() : null;
 
-        if (null == root)
+        if ((m_axfrm_ok) && (m_axfrm_base == base))
         {
-            return;
+            return m_axfrm;
         }
-        getAbsoluteTransformFromParents(root.getParent(), xfrm);
+        final Transform xfrm = (null != base) ? base.copy() : new Transform();
 
-        final Transform temp = root.getPossibleNodeTransform();
+        final Transform temp = getCachedNodeTransform();
 
-        if (temp != null)
+        if (null != temp)
         {
             xfrm.multiply(temp);
         }
+        m_axfrm = xfrm;
+
+        m_axfrm_base = base;
+
+        m_axfrm_ok = true;
+
+        return xfrm;
+    }
+
+    /**
+     * Returns the cached result of {@link #getPossibleNodeTransform()}, re-computed only when a transforming attribute changes.
+     * The returned Transform is shared, and must not be modified.
+     */
+    private final Transform getCachedNodeTransform()
+    {
+        if (false == m_lxfrm_ok)
+        {
+            m_lxfrm = getPossibleNodeTransform();
+
+            m_lxfrm_ok = true;
+        }
+        return m_lxfrm;
     }
 
     protected Transform getPossibleNodeTransform()
@@ -662,7 +962,7 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
 
         if (null != bbox)
         {
-            final Transform transform = getPossibleNodeTransform();
+            final Transform transform = getCachedNodeTransform();
 
             if (null != transform)
             {
@@ -675,11 +975,11 @@ public abstract class Node<T extends Node<T>>implements IDrawable<T>
 
     public Transform getNodeTransform()
     {
-        final Transform xfrm = getPossibleNodeTransform();
+        final Transform xfrm = getCachedNodeTransform();
 
         if (null != xfrm)
         {
-            return xfrm;
+            return xfrm.copy();
         }
         return new Transform();
     }
@@ -922,6 +922,8 @@ public class OrthogonalPolyLine extends AbstractDirectionalMultiPointShape<Ortho
     {
         getPathPartList().clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
@@ -83,7 +83,7 @@ public class Parallelogram extends Shape<Parallelogram>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
@@ -156,6 +156,8 @@ public class Parallelogram extends Shape<Parallelogram>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
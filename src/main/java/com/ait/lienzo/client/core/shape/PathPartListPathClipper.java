@@ -17,6 +17,7 @@
 package com.ait.lienzo.client.core.shape;
 
 import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.Path2D;
 import com.ait.lienzo.client.core.types.PathPartList;
 import com.ait.lienzo.client.core.types.PathPartList.PathPartListJSO;
 
@@ -26,6 +27,10 @@ public final class PathPartListPathClipper extends AbstractPathClipper
 
     private final PathPartList m_path;
 
+    private Path2D             m_clip;
+
+    private Path2D             m_clip_base;
+
     public PathPartListPathClipper(final PathClipperJSO clip)
     {
         super(clip);
@@ -55,6 +60,14 @@ public final class PathPartListPathClipper extends AbstractPathClipper
     {
         if (null != m_path)
         {
+            final Path2D path = getClipPath2D();
+
+            if (null != path)
+            {
+                context.clip(path);
+
+                return true;
+            }
             context.beginPath();
 
             final boolean fill = context.clip(m_path);
@@ -67,4 +80,25 @@ public final class PathPartListPathClipper extends AbstractPathClipper
         }
         return false;
     }
+
+    /**
+     * Returns a Path2D of the first closed path of the list, as {@link Context2D#clip(PathPartList)} clips with,
+     * and not the list's own Path2D, which holds every sub-path. It's re-built only when the list's Path2D is.
+     */
+    private final Path2D getClipPath2D()
+    {
+        final Path2D base = m_path.getPath2D();
+
+        if ((null == base) || (false == base.isClosed()))
+        {
+            return null;
+        }
+        if (m_clip_base != base)
+        {
+            m_clip = Path2D.makeClip(m_path);
+
+            m_clip_base = base;
+        }
+        return m_clip;
+    }
 }
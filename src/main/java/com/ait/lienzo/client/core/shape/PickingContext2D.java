@@ -0,0 +1,274 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape;
+
+import java.util.ArrayList;
+
+import com.ait.lienzo.client.core.Context2D;
+import com.ait.lienzo.client.core.Path2D;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.ColorKeyAllocator;
+import com.ait.lienzo.shared.core.types.IColor;
+import com.google.gwt.dom.client.CanvasElement;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * Used internally for analytic picking. Shapes draw into it exactly as they draw into a {@link Layer.SelectionLayer},
+ * but nothing is rasterized: every fill and stroke tagged with a color key is tested against the pick point with
+ * <code>isPointInPath</code> or <code>isPointInStroke</code>, under the current transform and stroke settings.
+ * Shapes are drawn bottom to top, so the last hit is the top most Shape.
+ */
+final class PickingContext2D extends Context2D
+{
+    private final ColorKeyAllocator<Shape<?>> m_keys;
+
+    private double                            m_x;
+
+    private double                            m_y;
+
+    private String                            m_fill;
+
+    private String                            m_stroke;
+
+    private Shape<?>                          m_shape;
+
+    private final ArrayList<String>           m_saved = new ArrayList<String>();
+
+    PickingContext2D(final CanvasElement element, final ColorKeyAllocator<Shape<?>> keys)
+    {
+        super(element);
+
+        m_keys = keys;
+    }
+
+    final void reset(final double x, final double y)
+    {
+        m_x = x;
+
+        m_y = y;
+
+        m_fill = null;
+
+        m_stroke = null;
+
+        m_shape = null;
+
+        m_saved.clear();
+    }
+
+    final Shape<?> getShape()
+    {
+        return m_shape;
+    }
+
+    @Override
+    public boolean isSelection()
+    {
+        return true;
+    }
+
+    // the fill and stroke color keys are part of the saved state, so each Shape, drawn between a save and a restore,
+    // starts with the keys of its parent, none, and can't leave its own to the Shapes drawn after it.
+
+    @Override
+    public void save()
+    {
+        super.save();
+
+        m_saved.add(m_fill);
+
+        m_saved.add(m_stroke);
+    }
+
+    @Override
+    public void restore()
+    {
+        super.restore();
+
+        final int size = m_saved.size();
+
+        if (size > 1)
+        {
+            m_stroke = m_saved.remove(size - 1);
+
+            m_fill = m_saved.remove(size - 2);
+        }
+    }
+
+    @Override
+    public void setGlobalAlpha(final double alpha)
+    {
+    }
+
+    @Override
+    public void setFillColor(final String color)
+    {
+        m_fill = color;
+    }
+
+    @Override
+    public void setFillColor(final IColor color)
+    {
+        m_fill = (null != color) ? color.getColorString() : null;
+    }
+
+    @Override
+    public void setStrokeColor(final String color)
+    {
+        m_stroke = color;
+
+        super.setStrokeColor(color);
+    }
+
+    @Override
+    public void setStrokeColor(final IColor color)
+    {
+        setStrokeColor((null != color) ? color.getColorString() : null);
+    }
+
+    @Override
+    public void fill()
+    {
+        if ((null != m_fill) && (isPointInPath(m_x, m_y)))
+        {
+            hit(m_fill);
+        }
+    }
+
+    @Override
+    public void fill(final Path2D path)
+    {
+        if ((null != m_fill) && (null != path) && (isPointInPath(path, m_x, m_y)))
+        {
+            hit(m_fill);
+        }
+    }
+
+    @Override
+    public void stroke()
+    {
+        if ((null != m_stroke) && (isPointInStroke(m_x, m_y)))
+        {
+            hit(m_stroke);
+        }
+    }
+
+    @Override
+    public void stroke(final Path2D path)
+    {
+        if ((null != m_stroke) && (null != path) && (isPointInStroke(path, m_x, m_y)))
+        {
+            hit(m_stroke);
+        }
+    }
+
+    @Override
+    public void fillRect(final double x, final double y, final double w, final double h)
+    {
+        hitRect(m_fill, x, y, w, h);
+    }
+
+    @Override
+    public void fillText(final String text, final double x, final double y)
+    {
+        hitBounds(m_fill);
+    }
+
+    @Override
+    public void strokeText(final String text, final double x, final double y)
+    {
+        hitBounds(m_stroke);
+    }
+
+    @Override
+    public void fillTextWithGradient(final String text, final double x, final double y, final double sx, final double sy, final double ex, final double ey, final String color)
+    {
+        hitBounds(color);
+    }
+
+    @Override
+    public void drawImage(final Element image, final double x, final double y)
+    {
+        if (null != image)
+        {
+            hitRect(m_fill, x, y, image.getPropertyInt("width"), image.getPropertyInt("height"));
+        }
+    }
+
+    @Override
+    public void drawImage(final Element image, final double x, final double y, final double w, final double h)
+    {
+        hitRect(m_fill, x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(final Element image, final double sx, final double sy, final double sw, final double sh, final double x, final double y, final double w, final double h)
+    {
+        hitRect(m_fill, x, y, w, h);
+    }
+
+    private final void hitRect(final String color, final double x, final double y, final double w, final double h)
+    {
+        if ((null != color) && (w > 0) && (h > 0) && (isPointInPath(new Path2D().rect(x, y, w, h), m_x, m_y)))
+        {
+            hit(color);
+        }
+    }
+
+    // text and selection images are tested against the bounds of the Shape that owns the color key.
+
+    private final void hitBounds(final String color)
+    {
+        final Shape<?> shape = find(color);
+
+        if (null != shape)
+        {
+            final BoundingBox bbox = shape.getBoundingBox();
+
+            if ((null != bbox) && (isPointInPath(new Path2D().rect(bbox.getX(), bbox.getY(), bbox.getWidth(), bbox.getHeight()), m_x, m_y)))
+            {
+                m_shape = shape;
+            }
+        }
+    }
+
+    private final void hit(final String color)
+    {
+        final Shape<?> shape = find(color);
+
+        if (null != shape)
+        {
+            m_shape = shape;
+        }
+    }
+
+    private final Shape<?> find(final String color)
+    {
+        if ((null == color) || (color.length() != 7) || (color.charAt(0) != '#'))
+        {
+            return null;
+        }
+        try
+        {
+            return m_keys.get(Integer.parseInt(color.substring(1), 16));
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+}
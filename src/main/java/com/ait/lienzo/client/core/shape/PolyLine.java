@@ -118,6 +118,8 @@ public class PolyLine extends AbstractOffsetMultiPointShape<PolyLine>
     {
         getPathPartList().clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
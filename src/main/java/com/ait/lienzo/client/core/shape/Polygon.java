@@ -133,7 +133,7 @@ public class Polygon extends AbstractMultiPointShape<Polygon>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
@@ -155,6 +155,8 @@ public class Polygon extends AbstractMultiPointShape<Polygon>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
@@ -120,7 +120,7 @@ public class RegularPolygon extends Shape<RegularPolygon>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
@@ -169,6 +169,8 @@ public class RegularPolygon extends Shape<RegularPolygon>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
@@ -73,6 +73,10 @@ public class SVGPath extends Shape<SVGPath>
         {
             return;
         }
+        if (doLevelOfDetail(context, attr, alpha))
+        {
+            return;
+        }
         if (context.isSelection())
         {
             if (dofillBoundsForSelection(context, attr, alpha))
@@ -127,10 +131,6 @@ public class SVGPath extends Shape<SVGPath>
 
         path = path.replaceAll("\\s+", " ").trim();
 
-        if (Path2D.isSupported())
-        {
-            partlist.setPath2D(new Path2D(path));
-        }
         for (int n = 0; n < COMMANDS.length; n++)
         {
             path = path.replaceAll(COMMANDS[n] + " ", COMMANDS[n]);
@@ -34,6 +34,8 @@ import com.ait.lienzo.client.core.shape.wires.IControlHandle.ControlHandleType;
 import com.ait.lienzo.client.core.shape.wires.IControlHandleFactory;
 import com.ait.lienzo.client.core.shape.wires.IControlHandleList;
 import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
+import com.ait.lienzo.client.core.types.ColorKeyAllocator;
 import com.ait.lienzo.client.core.types.DashArray;
 import com.ait.lienzo.client.core.types.DragBounds;
 import com.ait.lienzo.client.core.types.FillGradient;
@@ -65,12 +67,24 @@ import com.google.gwt.json.client.JSONString;
 
 public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimitive<T>
 {
+    // the canvas default, used when the Shape doesn't apply its own miter limit.
+
+    private static final double    DEFAULT_MITER_LIMIT = 10;
+
     private ShapeType              m_type;
 
     private String                 m_ckey = null;
 
+    private int                    m_ikey = -1;
+
     private boolean                m_apsh = false;
 
+    private Path2D                 m_path = null;
+
+    private LevelOfDetail          m_lod  = null;
+
+    private int                    m_lodf = 0;
+
     private boolean                m_drag = false;
 
     private IControlHandleFactory  m_controlHandleFactory;
@@ -242,6 +256,10 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
         {
             return;
         }
+        if (doLevelOfDetail(context, attr, alpha))
+        {
+            return;
+        }
         if (context.isSelection())
         {
             if (dofillBoundsForSelection(context, attr, alpha))
@@ -253,12 +271,37 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
         {
             setAppliedShadow(false);
         }
+        m_path = null;
+
         if (prepare(context, attr, alpha))
         {
             final boolean fill = fill(context, attr, alpha);
 
             stroke(context, attr, alpha, fill);
         }
+        m_path = null;
+    }
+
+    /**
+     * For use in {@link #prepare(Context2D, Attributes, double)} by shapes drawn from a {@link PathPartList}.
+     * If the list has a native Path2D, it is used by the following fill and stroke, and nothing is replayed on the context;
+     * otherwise the list is replayed as the context's current path.
+     * 
+     * @param context
+     * @param list
+     * @return true if the path is closed, and can be filled
+     */
+    protected final boolean preparePath(final Context2D context, final PathPartList list)
+    {
+        final Path2D path = list.getPath2D();
+
+        m_path = path;
+
+        if (null != path)
+        {
+            return path.isClosed();
+        }
+        return context.path(list);
     }
 
     public PathPartList getPathPartList()
@@ -271,6 +314,148 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
         m_apsh = apsh;
     }
 
+    /**
+     * Applies the Layer's {@link LevelOfDetail}, if any, before this Shape is drawn.
+     * The on-screen size includes the scale of the Viewport, and of this Shape and its ancestor Groups.
+     * Returns true if the Shape is too small on screen, and was skipped or drawn as a filled bounding box.
+     * Otherwise the shadows, gradients and dashes it drops are left out by the following fill and stroke.
+     * 
+     * @param context
+     * @param attr
+     * @param alpha
+     * @return boolean
+     */
+    protected final boolean doLevelOfDetail(final Context2D context, final Attributes attr, final double alpha)
+    {
+        m_lod = null;
+
+        m_lodf = 0;
+
+        if (context.isSelection())
+        {
+            return false;
+        }
+        final Layer layer = getLayer();
+
+        if (null == layer)
+        {
+            return false;
+        }
+        final LevelOfDetail lod = layer.getLevelOfDetail();
+
+        if (null == lod)
+        {
+            return false;
+        }
+        // the Layer's Viewport scale, times the scale of this Shape and its Groups relative to the Layer
+
+        final double base = layer.getAbsoluteScale();
+
+        final double scale = (base > 0) ? (layer.getLevelOfDetailScale() * (getAbsoluteScale() / base)) : layer.getLevelOfDetailScale();
+
+        final ShapeType type = getShapeType();
+
+        if (ShapeType.TEXT == type)
+        {
+            if ((attr.getFontSize() * scale) < lod.getMinimumTextSize())
+            {
+                return true;
+            }
+        }
+        else
+        {
+            final double size = lod.getMinimumShapeSize(type);
+
+            if (size > 0)
+            {
+                final BoundingBox bbox = getBoundingBox();
+
+                if ((null != bbox) && ((Math.max(bbox.getWidth(), bbox.getHeight()) * scale) < size))
+                {
+                    drawLevelOfDetailBounds(context, attr, alpha, lod, scale, bbox);
+
+                    return true;
+                }
+            }
+        }
+        m_lod = lod;
+
+        m_lodf = lod.getDropFlags(scale);
+
+        return false;
+    }
+
+    private final void drawLevelOfDetailBounds(final Context2D context, final Attributes attr, double alpha, final LevelOfDetail lod, final double scale, final BoundingBox bbox)
+    {
+        String color = attr.getFillColor();
+
+        if ((null == color) && (null != attr.getFillGradient()))
+        {
+            color = lod.getGradientColor(attr.getFillGradient());
+        }
+        if (null != color)
+        {
+            alpha = alpha * attr.getFillAlpha();
+        }
+        else
+        {
+            color = attr.getStrokeColor();
+
+            if (null != color)
+            {
+                alpha = alpha * attr.getStrokeAlpha();
+            }
+            else
+            {
+                color = lod.getPlaceholderColor();
+            }
+        }
+        if (alpha <= 0)
+        {
+            return;
+        }
+        // at least one screen pixel, so thin lines still show.
+
+        final double size = 1 / scale;
+
+        context.save();
+
+        context.setGlobalAlpha(alpha);
+
+        context.setFillColor(color);
+
+        context.fillRect(bbox.getX(), bbox.getY(), Math.max(bbox.getWidth(), size), Math.max(bbox.getHeight(), size));
+
+        context.restore();
+    }
+
+    /**
+     * Returns the fill color to draw with. Where the Layer's {@link LevelOfDetail} drops gradients, this is a single color standing in for the fill gradient.
+     * 
+     * @param attr
+     * @return String
+     */
+    protected final String getDrawnFillColor(final Attributes attr)
+    {
+        final String fill = attr.getFillColor();
+
+        if ((null == fill) && (0 != (m_lodf & LevelOfDetail.DROP_GRADIENT)))
+        {
+            return m_lod.getGradientColor(attr.getFillGradient());
+        }
+        return fill;
+    }
+
+    /**
+     * Returns true if the Layer's {@link LevelOfDetail} draws dashed strokes solid.
+     * 
+     * @return boolean
+     */
+    protected final boolean isDashArrayDropped()
+    {
+        return (0 != (m_lodf & LevelOfDetail.DROP_DASH));
+    }
+
     protected abstract boolean prepare(Context2D context, Attributes attr, double alpha);
 
     /**
@@ -282,6 +467,10 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
      */
     protected boolean fill(final Context2D context, final Attributes attr, double alpha)
     {
+        if (null != m_path)
+        {
+            return fill(context, attr, alpha, m_path);
+        }
         final boolean filled = attr.hasFill();
 
         if ((filled) || (attr.isFillShapeForSelection()))
@@ -322,7 +511,7 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
             }
             context.setGlobalAlpha(alpha);
 
-            final String fill = attr.getFillColor();
+            final String fill = getDrawnFillColor(attr);
 
             if (null != fill)
             {
@@ -453,7 +642,7 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
             }
             context.setGlobalAlpha(alpha);
 
-            final String fill = attr.getFillColor();
+            final String fill = getDrawnFillColor(attr);
 
             if (null != fill)
             {
@@ -576,7 +765,7 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
         }
         boolean isdashed = false;
 
-        if (attr.isDefined(Attribute.DASH_ARRAY))
+        if ((attr.isDefined(Attribute.DASH_ARRAY)) && (false == isDashArrayDropped()))
         {
             if (LienzoCore.get().isLineDashSupported())
             {
@@ -625,6 +814,12 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
      */
     protected void stroke(final Context2D context, final Attributes attr, final double alpha, final boolean filled)
     {
+        if (null != m_path)
+        {
+            stroke(context, attr, alpha, m_path, filled);
+
+            return;
+        }
         if (setStrokeParams(context, attr, alpha, filled))
         {
             if ((attr.hasShadow()) && (false == context.isSelection()))
@@ -660,7 +855,7 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
      */
     protected final void doApplyShadow(final Context2D context, final Attributes attr)
     {
-        if ((m_apsh == false) && (attr.hasShadow()))
+        if ((m_apsh == false) && (attr.hasShadow()) && (0 == (m_lodf & LevelOfDetail.DROP_SHADOW)))
         {
             m_apsh = true;
 
@@ -798,6 +993,95 @@ public abstract class Shape<T extends Shape<T>>extends Node<T>implements IPrimit
         m_ckey = ckey;
     }
 
+    /**
+     * Used internally. Returns the packed <code>0xRRGGBB</code> value of the color key, or -1 if none is assigned.
+     */
+    final int getColorKeyValue()
+    {
+        return m_ikey;
+    }
+
+    final void setColorKeyValue(final int ikey)
+    {
+        m_ikey = ikey;
+
+        setColorKey((ikey < 0) ? null : ColorKeyAllocator.toBrowserHexColor(ikey));
+    }
+
+    /**
+     * Returns true if the stroke may be drawn with miter joins, the canvas default, as the line join
+     * is only applied when {@link #doStrokeExtraProperties()} or the stroke is dashed.
+     */
+    private final boolean isMiterJoined(final Attributes attr)
+    {
+        return (false == attr.isDefined(Attribute.LINE_JOIN)) || (LineJoin.MITER == attr.getLineJoin()) || (false == doStrokeExtraProperties());
+    }
+
+    /**
+     * Used internally. Pads the bounds by the stroke, which {@link #getBoundingBox()} leaves out, and by the shadow.
+     * The stroke pad is a full line width, or half the miter limit times the line width for miter joins,
+     * so the tips of sharp corners fit too.
+     */
+    @Override
+    BoundingBox getRedrawBounds()
+    {
+        final BoundingBox bbox = getBoundingBox();
+
+        if ((null == bbox) || (bbox.getX() == Double.MAX_VALUE) || (bbox.getY() == Double.MAX_VALUE))
+        {
+            return null;
+        }
+        final Attributes attr = getAttributes();
+
+        double line = (null != attr.getStrokeColor()) ? Math.max(attr.getStrokeWidth(), 1) : 0;
+
+        if ((line > 0) && (isMiterJoined(attr)))
+        {
+            double limit = DEFAULT_MITER_LIMIT;
+
+            // a dashed stroke applies the miter limit even when the Shape doesn't stroke extra properties
+
+            if (attr.isDefined(Attribute.MITER_LIMIT))
+            {
+                limit = doStrokeExtraProperties() ? attr.getMiterLimit() : Math.max(attr.getMiterLimit(), limit);
+            }
+
+            line = Math.max(line, (limit * line) / 2);
+        }
+
+        final BoundingBox area = new BoundingPoints(new BoundingBox(bbox.getX() - line, bbox.getY() - line, bbox.getX() + bbox.getWidth() + line, bbox.getY() + bbox.getHeight() + line)).transform(getAbsoluteTransform()).getBoundingBox();
+
+        double minx = area.getX() - 1;
+
+        double miny = area.getY() - 1;
+
+        double maxx = area.getX() + area.getWidth() + 1;
+
+        double maxy = area.getY() + area.getHeight() + 1;
+
+        final Shadow shadow = attr.getShadow();
+
+        if (null != shadow)
+        {
+            final double blur = shadow.getBlur();
+
+            final Point2D offset = shadow.getOffset();
+
+            final double offx = (null != offset) ? offset.getX() : 0;
+
+            final double offy = (null != offset) ? offset.getY() : 0;
+
+            minx = Math.min(minx, minx + offx - blur);
+
+            miny = Math.min(miny, miny + offy - blur);
+
+            maxx = Math.max(maxx, maxx + offx + blur);
+
+            maxy = Math.max(maxy, maxy + offy + blur);
+        }
+        return new BoundingBox(minx, miny, maxx, maxy);
+    }
+
     @Override
     public boolean removeFromParent()
     {
@@ -77,7 +77,7 @@ public class Spline extends AbstractMultiPointShape<Spline>
         {
             return false;
         }
-        m_fill = context.path(m_list);
+        m_fill = preparePath(context, m_list);
 
         return true;
     }
@@ -97,6 +97,8 @@ public class Spline extends AbstractMultiPointShape<Spline>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
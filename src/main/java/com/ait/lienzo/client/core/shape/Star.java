@@ -95,7 +95,7 @@ public class Star extends Shape<Star>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
@@ -152,6 +152,8 @@ public class Star extends Shape<Star>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
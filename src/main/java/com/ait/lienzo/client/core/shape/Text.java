@@ -274,6 +274,10 @@ public class Text extends Shape<Text>
         {
             return;
         }
+        if (doLevelOfDetail(context, attr, alpha))
+        {
+            return;
+        }
         if (context.isSelection())
         {
             if (dofillBoundsForSelection(context, attr, alpha))
@@ -375,7 +379,7 @@ public class Text extends Shape<Text>
             }
             context.setGlobalAlpha(alpha);
 
-            final String fill = attr.getFillColor();
+            final String fill = getDrawnFillColor(attr);
 
             if (null != fill)
             {
@@ -75,6 +75,8 @@ public class Triangle extends AbstractMultiPointShape<Triangle>
     {
         m_list.clear();
 
+        doBoundsChanged();
+
         return this;
     }
 
@@ -97,7 +99,7 @@ public class Triangle extends AbstractMultiPointShape<Triangle>
         {
             return false;
         }
-        context.path(m_list);
+        preparePath(context, m_list);
 
         return true;
     }
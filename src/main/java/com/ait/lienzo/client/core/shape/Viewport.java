@@ -56,6 +56,7 @@ import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONObject;
 import com.google.gwt.json.client.JSONString;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Widget;
 
 /**
@@ -88,6 +89,10 @@ public class Viewport extends ContainerNode<Scene, Viewport>
 
     private Mediators        m_mediators;
 
+    private Timer            m_idle    = null;
+
+    private boolean          m_active  = false;
+
     public Viewport()
     {
         this(0, 0);
@@ -401,6 +406,66 @@ public class Viewport extends ContainerNode<Scene, Viewport>
         return m_main;
     }
 
+    /**
+     * Notes a pan, zoom or drag step. Layers of the main {@link Scene} with adaptive resolution, see
+     * {@link Layer#setAdaptiveResolution(boolean)}, are drawn at the interaction resolution until there was no
+     * interaction for {@link LienzoCore#getInteractionIdleDelay()} milliseconds. Mediators and drags call this.
+     * 
+     * @return Viewport
+     */
+    public final Viewport doInteraction()
+    {
+        if (false == m_active)
+        {
+            m_active = true;
+
+            doInteraction(true);
+        }
+        if (null == m_idle)
+        {
+            m_idle = new Timer()
+            {
+                @Override
+                public void run()
+                {
+                    m_active = false;
+
+                    doInteraction(false);
+                }
+            };
+        }
+        m_idle.schedule(LienzoCore.get().getInteractionIdleDelay());
+
+        return this;
+    }
+
+    /**
+     * Returns true from the first {@link #doInteraction()} until the idle delay after the last one.
+     * 
+     * @return boolean
+     */
+    public final boolean isInteracting()
+    {
+        return m_active;
+    }
+
+    private final void doInteraction(final boolean interacting)
+    {
+        final Scene scene = getScene();
+
+        if (null != scene)
+        {
+            final NFastArrayList<Layer> layers = scene.getChildNodes();
+
+            final int size = layers.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                layers.get(i).doInteraction(interacting);
+            }
+        }
+    }
+
     /**
      * Sets the background layer
      * 
@@ -0,0 +1,449 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.ait.lienzo.client.core.config.LienzoCore;
+import com.ait.lienzo.client.core.shape.IPrimitive;
+import com.ait.lienzo.client.core.shape.json.IFactory;
+import com.ait.lienzo.client.core.shape.json.IJSONSerializable;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationContext;
+import com.ait.lienzo.client.core.shape.json.validators.ValidationException;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.BoundingPoints;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.ait.tooling.nativetools.client.collection.NFastStringMap;
+import com.google.gwt.json.client.JSONObject;
+
+/**
+ * A spatially indexed storage engine for {@link IPrimitive}.
+ * <p>
+ * Children are kept in an {@link NFastArrayList} for z-order, and in an {@link RTree} keyed by their bounds in the container's coordinate space,
+ * so {@link #getChildren(BoundingBox)} only returns the primitives that intersect the given bounds, still in z-order.
+ * <p>
+ * Bounds are re-indexed lazily; {@link #refresh(IPrimitive)} marks a primitive dirty, and the next bounded query re-indexes it.
+ * Containers call {@link #refresh(IPrimitive)} automatically when a child's transforming or bounding box attributes change.
+ */
+public class PrimitiveRTreeStorageEngine extends AbstractFastArrayStorageEngine<IPrimitive<?>>implements IJSONSerializable<PrimitiveRTreeStorageEngine>
+{
+    private static final Comparator<Slot> Z_ORDER = new Comparator<Slot>()
+    {
+        @Override
+        public int compare(final Slot a, final Slot b)
+        {
+            return Double.compare(a.m_order, b.m_order);
+        }
+    };
+
+    private final RTree<Slot>           m_tree  = new RTree<Slot>();
+
+    private final NFastStringMap<Slot>  m_slots = new NFastStringMap<Slot>();
+
+    private final ArrayList<Slot>       m_dirty = new ArrayList<Slot>();
+
+    private final ArrayList<Slot>       m_free  = new ArrayList<Slot>();
+
+    private double                      m_top   = 0;
+
+    private double                      m_bot   = 0;
+
+    public PrimitiveRTreeStorageEngine()
+    {
+        super(StorageEngineType.PRIMITIVE_RTREE_STORAGE_ENGINE);
+    }
+
+    protected PrimitiveRTreeStorageEngine(final JSONObject node, final ValidationContext ctx) throws ValidationException
+    {
+        super(StorageEngineType.PRIMITIVE_RTREE_STORAGE_ENGINE, node, ctx);
+    }
+
+    @Override
+    public IFactory<?> getFactory()
+    {
+        return LienzoCore.get().getFactory(getStorageEngineType());
+    }
+
+    @Override
+    public boolean isSpatiallyIndexed()
+    {
+        return true;
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+
+        m_tree.clear();
+
+        m_slots.clear();
+
+        m_dirty.clear();
+
+        m_free.clear();
+
+        m_top = 0;
+
+        m_bot = 0;
+    }
+
+    @Override
+    public void add(final IPrimitive<?> item)
+    {
+        if (null == item)
+        {
+            return;
+        }
+        final String uuid = item.uuid();
+
+        if (m_slots.isDefined(uuid))
+        {
+            super.remove(item);
+
+            unindex(m_slots.get(uuid));
+        }
+        super.add(item);
+
+        final Slot slot = new Slot(item, ++m_top);
+
+        m_slots.put(uuid, slot);
+
+        dirty(slot);
+    }
+
+    @Override
+    public void remove(final IPrimitive<?> item)
+    {
+        if (null == item)
+        {
+            return;
+        }
+        super.remove(item);
+
+        final String uuid = item.uuid();
+
+        final Slot slot = m_slots.get(uuid);
+
+        if (null != slot)
+        {
+            m_slots.remove(uuid);
+
+            unindex(slot);
+        }
+    }
+
+    /**
+     * Marks the item's bounds as changed, it will be re-indexed on the next bounded query.
+     */
+    @Override
+    public void refresh(final IPrimitive<?> item)
+    {
+        if (null != item)
+        {
+            final Slot slot = m_slots.get(item.uuid());
+
+            if (null != slot)
+            {
+                dirty(slot);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the bounds of every item.
+     */
+    @Override
+    public void refresh()
+    {
+        final NFastArrayList<IPrimitive<?>> list = getChildren();
+
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            refresh(list.get(i));
+        }
+        flush();
+    }
+
+    /**
+     * Returns the primitives whose bounds intersect the given bounds, in z-order. If bounds is null, all primitives are returned.
+     */
+    @Override
+    public NFastArrayList<IPrimitive<?>> getChildren(final BoundingBox bounds)
+    {
+        if ((null == bounds) || (isEmpty()))
+        {
+            return getChildren();
+        }
+        flush();
+
+        final double minx = bounds.getX();
+
+        final double miny = bounds.getY();
+
+        final double maxx = minx + bounds.getWidth();
+
+        final double maxy = miny + bounds.getHeight();
+
+        if (m_tree.isContainedBy(minx, miny, maxx, maxy))
+        {
+            return getChildren();
+        }
+        final List<RTree.Entry<Slot>> hits = m_tree.search(minx, miny, maxx, maxy);
+
+        final int size = hits.size();
+
+        final int free = m_free.size();
+
+        final ArrayList<Slot> found = new ArrayList<Slot>(size + free);
+
+        for (int i = 0; i < size; i++)
+        {
+            found.add(hits.get(i).getValue());
+        }
+        found.addAll(m_free);
+
+        if ((size + free) > 1)
+        {
+            Collections.sort(found, Z_ORDER);
+        }
+        final NFastArrayList<IPrimitive<?>> list = new NFastArrayList<IPrimitive<?>>();
+
+        final int tots = found.size();
+
+        for (int i = 0; i < tots; i++)
+        {
+            list.add(found.get(i).m_prim);
+        }
+        return list;
+    }
+
+    @Override
+    public void moveUp(final IPrimitive<?> item)
+    {
+        swapOrder(item, 1);
+
+        super.moveUp(item);
+    }
+
+    @Override
+    public void moveDown(final IPrimitive<?> item)
+    {
+        swapOrder(item, -1);
+
+        super.moveDown(item);
+    }
+
+    @Override
+    public void moveToTop(final IPrimitive<?> item)
+    {
+        final Slot slot = m_slots.get(item.uuid());
+
+        if (null != slot)
+        {
+            slot.m_order = ++m_top;
+        }
+        super.moveToTop(item);
+    }
+
+    @Override
+    public void moveToBottom(final IPrimitive<?> item)
+    {
+        final Slot slot = m_slots.get(item.uuid());
+
+        if (null != slot)
+        {
+            slot.m_order = --m_bot;
+        }
+        super.moveToBottom(item);
+    }
+
+    private final void swapOrder(final IPrimitive<?> item, final int step)
+    {
+        final NFastArrayList<IPrimitive<?>> list = getChildren();
+
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            if (list.get(i) == item)
+            {
+                final int next = i + step;
+
+                if ((next >= 0) && (next < size))
+                {
+                    final Slot a = m_slots.get(item.uuid());
+
+                    final Slot b = m_slots.get(list.get(next).uuid());
+
+                    if ((null != a) && (null != b))
+                    {
+                        final double order = a.m_order;
+
+                        a.m_order = b.m_order;
+
+                        b.m_order = order;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private final void dirty(final Slot slot)
+    {
+        if (false == slot.m_dirty)
+        {
+            slot.m_dirty = true;
+
+            m_dirty.add(slot);
+        }
+    }
+
+    private final void unindex(final Slot slot)
+    {
+        slot.m_gone = true;
+
+        if (null != slot.m_entry)
+        {
+            m_tree.remove(slot.m_entry);
+
+            slot.m_entry = null;
+        }
+        if (slot.m_free)
+        {
+            slot.m_free = false;
+
+            m_free.remove(slot);
+        }
+    }
+
+    private final void flush()
+    {
+        final int size = m_dirty.size();
+
+        if (size < 1)
+        {
+            return;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            final Slot slot = m_dirty.get(i);
+
+            slot.m_dirty = false;
+
+            if (false == slot.m_gone)
+            {
+                index(slot);
+            }
+        }
+        m_dirty.clear();
+    }
+
+    private final void index(final Slot slot)
+    {
+        final BoundingPoints bpts = slot.m_prim.getBoundingPoints();
+
+        BoundingBox bbox = null;
+
+        if (null != bpts)
+        {
+            bbox = bpts.getBoundingBox();
+        }
+        if ((null == bbox) || (bbox.getX() == Double.MAX_VALUE) || (bbox.getY() == Double.MAX_VALUE))
+        {
+            // no usable bounds, always report this primitive
+
+            if (null != slot.m_entry)
+            {
+                m_tree.remove(slot.m_entry);
+
+                slot.m_entry = null;
+            }
+            if (false == slot.m_free)
+            {
+                slot.m_free = true;
+
+                m_free.add(slot);
+            }
+            return;
+        }
+        if (slot.m_free)
+        {
+            slot.m_free = false;
+
+            m_free.remove(slot);
+        }
+        final double minx = bbox.getX();
+
+        final double miny = bbox.getY();
+
+        final double maxx = minx + bbox.getWidth();
+
+        final double maxy = miny + bbox.getHeight();
+
+        if (null == slot.m_entry)
+        {
+            slot.m_entry = m_tree.insert(slot, minx, miny, maxx, maxy);
+        }
+        else
+        {
+            m_tree.update(slot.m_entry, minx, miny, maxx, maxy);
+        }
+    }
+
+    private static final class Slot
+    {
+        private final IPrimitive<?>  m_prim;
+
+        private double               m_order;
+
+        private boolean              m_dirty;
+
+        private boolean              m_free;
+
+        private boolean              m_gone;
+
+        private RTree.Entry<Slot>    m_entry;
+
+        private Slot(final IPrimitive<?> prim, final double order)
+        {
+            m_prim = prim;
+
+            m_order = order;
+        }
+    }
+
+    public static class PrimitiveRTreeStorageEngineFactory extends FastArrayStorageEngineFactory<PrimitiveRTreeStorageEngine>
+    {
+        public PrimitiveRTreeStorageEngineFactory()
+        {
+            super(StorageEngineType.PRIMITIVE_RTREE_STORAGE_ENGINE);
+        }
+
+        @Override
+        public PrimitiveRTreeStorageEngine create(final JSONObject node, final ValidationContext ctx) throws ValidationException
+        {
+            return new PrimitiveRTreeStorageEngine(node, ctx);
+        }
+    }
+}
@@ -0,0 +1,634 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simple R-Tree (Guttman, quadratic split) over axis aligned rectangles.
+ * <p>
+ * Insertion returns an {@link Entry} handle that must be used to {@link #update(Entry, double, double, double, double)} or {@link #remove(Entry)} the value,
+ * so no hashing of the values is required. Searching is O(log n + k) for k results.
+ *
+ * @param <T>
+ */
+public final class RTree<T>
+{
+    public static final int DEFAULT_MAX_ENTRIES = 9;
+
+    private final int       m_maxe;
+
+    private final int       m_mine;
+
+    private RNode<T>        m_root;
+
+    private int             m_size;
+
+    public RTree()
+    {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RTree(final int maxEntries)
+    {
+        m_maxe = Math.max(4, maxEntries);
+
+        m_mine = Math.max(2, (int) Math.ceil(m_maxe * 0.4));
+
+        clear();
+    }
+
+    public final int size()
+    {
+        return m_size;
+    }
+
+    public final boolean isEmpty()
+    {
+        return (0 == m_size);
+    }
+
+    public final void clear()
+    {
+        m_root = new RNode<T>(true);
+
+        m_size = 0;
+    }
+
+    public final double getMinX()
+    {
+        return m_root.m_minx;
+    }
+
+    public final double getMinY()
+    {
+        return m_root.m_miny;
+    }
+
+    public final double getMaxX()
+    {
+        return m_root.m_maxx;
+    }
+
+    public final double getMaxY()
+    {
+        return m_root.m_maxy;
+    }
+
+    /**
+     * Returns true if the rectangle completely contains the bounds of every entry in this tree.
+     */
+    public final boolean isContainedBy(final double minx, final double miny, final double maxx, final double maxy)
+    {
+        return m_root.isContainedBy(minx, miny, maxx, maxy);
+    }
+
+    public final Entry<T> insert(final T value, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        final Entry<T> entry = new Entry<T>(value);
+
+        entry.set(minx, miny, maxx, maxy);
+
+        insert(entry);
+
+        m_size++;
+
+        return entry;
+    }
+
+    public final boolean remove(final Entry<T> entry)
+    {
+        if ((null == entry) || (null == entry.m_parent))
+        {
+            return false;
+        }
+        final RNode<T> leaf = entry.m_parent;
+
+        leaf.m_kids.remove(entry);
+
+        entry.m_parent = null;
+
+        m_size--;
+
+        condense(leaf);
+
+        return true;
+    }
+
+    /**
+     * Moves an existing entry to new bounds. If the entry is no longer in this tree it is re-inserted.
+     */
+    public final Entry<T> update(final Entry<T> entry, final double minx, final double miny, final double maxx, final double maxy)
+    {
+        if (null != entry.m_parent)
+        {
+            if ((entry.m_minx == minx) && (entry.m_miny == miny) && (entry.m_maxx == maxx) && (entry.m_maxy == maxy))
+            {
+                return entry;
+            }
+            remove(entry);
+        }
+        entry.set(minx, miny, maxx, maxy);
+
+        insert(entry);
+
+        m_size++;
+
+        return entry;
+    }
+
+    /**
+     * Appends to the list every entry whose bounds intersect the given rectangle. Edges are inclusive.
+     */
+    public final List<Entry<T>> search(final double minx, final double miny, final double maxx, final double maxy, final List<Entry<T>> list)
+    {
+        if ((m_size > 0) && (m_root.intersects(minx, miny, maxx, maxy)))
+        {
+            search(m_root, minx, miny, maxx, maxy, list);
+        }
+        return list;
+    }
+
+    public final List<Entry<T>> search(final double minx, final double miny, final double maxx, final double maxy)
+    {
+        return search(minx, miny, maxx, maxy, new ArrayList<Entry<T>>());
+    }
+
+    private final void search(final RNode<T> node, final double minx, final double miny, final double maxx, final double maxy, final List<Entry<T>> list)
+    {
+        if (node.isContainedBy(minx, miny, maxx, maxy))
+        {
+            collect(node, list);
+
+            return;
+        }
+        final ArrayList<Bounds<T>> kids = node.m_kids;
+
+        final int size = kids.size();
+
+        if (node.m_leaf)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final Bounds<T> kid = kids.get(i);
+
+                if (kid.intersects(minx, miny, maxx, maxy))
+                {
+                    list.add((Entry<T>) kid);
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final Bounds<T> kid = kids.get(i);
+
+                if (kid.intersects(minx, miny, maxx, maxy))
+                {
+                    search((RNode<T>) kid, minx, miny, maxx, maxy, list);
+                }
+            }
+        }
+    }
+
+    private final void collect(final RNode<T> node, final List<Entry<T>> list)
+    {
+        final ArrayList<Bounds<T>> kids = node.m_kids;
+
+        final int size = kids.size();
+
+        if (node.m_leaf)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                list.add((Entry<T>) kids.get(i));
+            }
+        }
+        else
+        {
+            for (int i = 0; i < size; i++)
+            {
+                collect((RNode<T>) kids.get(i), list);
+            }
+        }
+    }
+
+    private final void insert(final Entry<T> entry)
+    {
+        RNode<T> node = m_root;
+
+        while (false == node.m_leaf)
+        {
+            node = choose(node, entry);
+        }
+        node.add(entry);
+
+        while (null != node)
+        {
+            if (node.m_kids.size() > m_maxe)
+            {
+                final RNode<T> sibl = split(node);
+
+                if (node == m_root)
+                {
+                    final RNode<T> root = new RNode<T>(false);
+
+                    root.add(node);
+
+                    root.add(sibl);
+
+                    root.extend(node);
+
+                    root.extend(sibl);
+
+                    m_root = root;
+
+                    return;
+                }
+                node.m_parent.add(sibl);
+            }
+            else
+            {
+                node.extend(entry);
+            }
+            node = node.m_parent;
+        }
+    }
+
+    private final RNode<T> choose(final RNode<T> node, final Bounds<T> bounds)
+    {
+        final ArrayList<Bounds<T>> kids = node.m_kids;
+
+        final int size = kids.size();
+
+        RNode<T> best = null;
+
+        double beste = Double.POSITIVE_INFINITY;
+
+        double besta = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < size; i++)
+        {
+            final RNode<T> kid = (RNode<T>) kids.get(i);
+
+            final double area = kid.area();
+
+            final double grow = kid.enlarged(bounds) - area;
+
+            if ((grow < beste) || ((grow == beste) && (area < besta)))
+            {
+                beste = grow;
+
+                besta = area;
+
+                best = kid;
+            }
+        }
+        return best;
+    }
+
+    private final RNode<T> split(final RNode<T> node)
+    {
+        final ArrayList<Bounds<T>> rest = new ArrayList<Bounds<T>>(node.m_kids);
+
+        final RNode<T> sibl = new RNode<T>(node.m_leaf);
+
+        node.m_kids.clear();
+
+        node.reset();
+
+        // quadratic pick seeds, the pair that would waste the most area together
+
+        int seda = 0;
+
+        int sedb = 1;
+
+        double worst = Double.NEGATIVE_INFINITY;
+
+        final int size = rest.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            final Bounds<T> a = rest.get(i);
+
+            for (int j = i + 1; j < size; j++)
+            {
+                final Bounds<T> b = rest.get(j);
+
+                final double waste = a.enlarged(b) - a.area() - b.area();
+
+                if (waste > worst)
+                {
+                    worst = waste;
+
+                    seda = i;
+
+                    sedb = j;
+                }
+            }
+        }
+        final Bounds<T> bseed = rest.remove(sedb);
+
+        final Bounds<T> aseed = rest.remove(seda);
+
+        node.add(aseed);
+
+        node.extend(aseed);
+
+        sibl.add(bseed);
+
+        sibl.extend(bseed);
+
+        while (false == rest.isEmpty())
+        {
+            if ((node.m_kids.size() + rest.size()) <= m_mine)
+            {
+                addAll(node, rest);
+
+                break;
+            }
+            if ((sibl.m_kids.size() + rest.size()) <= m_mine)
+            {
+                addAll(sibl, rest);
+
+                break;
+            }
+            // quadratic pick next, the entry with the strongest preference for one group
+
+            int pick = 0;
+
+            double most = Double.NEGATIVE_INFINITY;
+
+            final int left = rest.size();
+
+            for (int i = 0; i < left; i++)
+            {
+                final Bounds<T> b = rest.get(i);
+
+                final double diff = Math.abs((node.enlarged(b) - node.area()) - (sibl.enlarged(b) - sibl.area()));
+
+                if (diff > most)
+                {
+                    most = diff;
+
+                    pick = i;
+                }
+            }
+            final Bounds<T> b = rest.remove(pick);
+
+            final double growa = node.enlarged(b) - node.area();
+
+            final double growb = sibl.enlarged(b) - sibl.area();
+
+            final RNode<T> into;
+
+            if (growa < growb)
+            {
+                into = node;
+            }
+            else if (growb < growa)
+            {
+                into = sibl;
+            }
+            else if (node.area() < sibl.area())
+            {
+                into = node;
+            }
+            else if (sibl.area() < node.area())
+            {
+                into = sibl;
+            }
+            else
+            {
+                into = (node.m_kids.size() <= sibl.m_kids.size()) ? node : sibl;
+            }
+            into.add(b);
+
+            into.extend(b);
+        }
+        return sibl;
+    }
+
+    private final void addAll(final RNode<T> node, final ArrayList<Bounds<T>> list)
+    {
+        final int size = list.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            final Bounds<T> b = list.get(i);
+
+            node.add(b);
+
+            node.extend(b);
+        }
+        list.clear();
+    }
+
+    private final void condense(RNode<T> node)
+    {
+        final ArrayList<Entry<T>> orphans = new ArrayList<Entry<T>>();
+
+        while (node != m_root)
+        {
+            final RNode<T> parent = node.m_parent;
+
+            if (node.m_kids.size() < m_mine)
+            {
+                parent.m_kids.remove(node);
+
+                node.m_parent = null;
+
+                collect(node, orphans);
+            }
+            else
+            {
+                node.recalculate();
+            }
+            node = parent;
+        }
+        m_root.recalculate();
+
+        while ((false == m_root.m_leaf) && (m_root.m_kids.size() == 1))
+        {
+            m_root = (RNode<T>) m_root.m_kids.get(0);
+
+            m_root.m_parent = null;
+        }
+        if ((false == m_root.m_leaf) && (m_root.m_kids.isEmpty()))
+        {
+            m_root = new RNode<T>(true);
+        }
+        final int size = orphans.size();
+
+        for (int i = 0; i < size; i++)
+        {
+            insert(orphans.get(i));
+        }
+    }
+
+    private static abstract class Bounds<T>
+    {
+        double   m_minx = Double.POSITIVE_INFINITY;
+
+        double   m_miny = Double.POSITIVE_INFINITY;
+
+        double   m_maxx = Double.NEGATIVE_INFINITY;
+
+        double   m_maxy = Double.NEGATIVE_INFINITY;
+
+        RNode<T> m_parent;
+
+        final void set(final double minx, final double miny, final double maxx, final double maxy)
+        {
+            m_minx = Math.min(minx, maxx);
+
+            m_miny = Math.min(miny, maxy);
+
+            m_maxx = Math.max(minx, maxx);
+
+            m_maxy = Math.max(miny, maxy);
+        }
+
+        final void reset()
+        {
+            m_minx = Double.POSITIVE_INFINITY;
+
+            m_miny = Double.POSITIVE_INFINITY;
+
+            m_maxx = Double.NEGATIVE_INFINITY;
+
+            m_maxy = Double.NEGATIVE_INFINITY;
+        }
+
+        final void extend(final Bounds<T> b)
+        {
+            if (b.m_minx < m_minx)
+            {
+                m_minx = b.m_minx;
+            }
+            if (b.m_miny < m_miny)
+            {
+                m_miny = b.m_miny;
+            }
+            if (b.m_maxx > m_maxx)
+            {
+                m_maxx = b.m_maxx;
+            }
+            if (b.m_maxy > m_maxy)
+            {
+                m_maxy = b.m_maxy;
+            }
+        }
+
+        final double area()
+        {
+            if ((m_maxx < m_minx) || (m_maxy < m_miny))
+            {
+                return 0;
+            }
+            return (m_maxx - m_minx) * (m_maxy - m_miny);
+        }
+
+        final double enlarged(final Bounds<T> b)
+        {
+            return (Math.max(m_maxx, b.m_maxx) - Math.min(m_minx, b.m_minx)) * (Math.max(m_maxy, b.m_maxy) - Math.min(m_miny, b.m_miny));
+        }
+
+        final boolean intersects(final double minx, final double miny, final double maxx, final double maxy)
+        {
+            return ((m_minx <= maxx) && (m_maxx >= minx) && (m_miny <= maxy) && (m_maxy >= miny));
+        }
+
+        final boolean isContainedBy(final double minx, final double miny, final double maxx, final double maxy)
+        {
+            return ((m_minx >= minx) && (m_maxx <= maxx) && (m_miny >= miny) && (m_maxy <= maxy));
+        }
+    }
+
+    private static final class RNode<T> extends Bounds<T>
+    {
+        final boolean              m_leaf;
+
+        final ArrayList<Bounds<T>> m_kids = new ArrayList<Bounds<T>>();
+
+        RNode(final boolean leaf)
+        {
+            m_leaf = leaf;
+        }
+
+        final void add(final Bounds<T> b)
+        {
+            m_kids.add(b);
+
+            b.m_parent = this;
+        }
+
+        final void recalculate()
+        {
+            reset();
+
+            final int size = m_kids.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                extend(m_kids.get(i));
+            }
+        }
+    }
+
+    public static final class Entry<T> extends Bounds<T>
+    {
+        private final T m_value;
+
+        Entry(final T value)
+        {
+            m_value = value;
+        }
+
+        public final T getValue()
+        {
+            return m_value;
+        }
+
+        public final boolean isIndexed()
+        {
+            return (null != m_parent);
+        }
+
+        public final double getMinX()
+        {
+            return m_minx;
+        }
+
+        public final double getMinY()
+        {
+            return m_miny;
+        }
+
+        public final double getMaxX()
+        {
+            return m_maxx;
+        }
+
+        public final double getMaxY()
+        {
+            return m_maxy;
+        }
+    }
+}
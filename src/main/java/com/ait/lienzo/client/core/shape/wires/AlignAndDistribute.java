@@ -21,6 +21,7 @@ import static com.ait.lienzo.client.core.AttributeOp.any;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -55,14 +56,18 @@ import com.google.gwt.event.shared.HandlerRegistration;
  *
  * an index is maintained for each edge and center for alignment and distribution.
  *
- * All indexing is done by rounding the double value to int - using Math.round.
+ * All indexing is done by rounding the double value to int - using Math.round. Each index is a {@link PositionIndex}, kept sorted, so the nearest
+ * indexed position within circa is found with a binary search.
  *
  * It then uses this information to optional show guidelines or perform snapping. These can be turned on and off using the setter methods of this class
  *
  * It's possible to control the style of the guideline when drawn. By using the style setter methods of this class.
  *
  * The circa property controls the number of pixes to search from the current position. For instance a circle of 4, will search 4 pixels
- * above and 4 pixels below the current y position, as well as 4 pixels to the left and 4 pixels to the right. As soon as the first index has a match, the search stops and snapping is done to that offset.
+ * above and 4 pixels below the current y position, as well as 4 pixels to the left and 4 pixels to the right. The nearest offset with a match in any index is used for snapping, the positive one if two are as near.
+ *
+ * Distribution entries pair each shape with its nearest shapes on each side, see {@link #setDistributionPartners(int)}. They are built lazily, on the next
+ * match after a shape is indexed or moved.
  *
  * The implementation is fairly generic and uses shape.getBoundingPoints().getBoundingBox() to do it's work.
  * The reason for getBoundPoints, is that the x/y of a Circle is at the center, where as other shapes are top left - getBoundingPoints normalises this to top left.
@@ -74,29 +79,31 @@ import com.google.gwt.event.shared.HandlerRegistration;
  */
 public class AlignAndDistribute
 {
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_leftIndex;
+    public static final int                                    DEFAULT_DISTRIBUTION_PARTNERS = 8;
+
+    private PositionIndex<AlignAndDistributeHandler>           m_leftIndex;
 
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_hCenterIndex;
+    private PositionIndex<AlignAndDistributeHandler>           m_hCenterIndex;
 
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_rightIndex;
+    private PositionIndex<AlignAndDistributeHandler>           m_rightIndex;
 
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_topIndex;
+    private PositionIndex<AlignAndDistributeHandler>           m_topIndex;
 
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_vCenterIndex;
+    private PositionIndex<AlignAndDistributeHandler>           m_vCenterIndex;
 
-    private Map<Double, LinkedList<AlignAndDistributeHandler>> m_bottomIndex;
+    private PositionIndex<AlignAndDistributeHandler>           m_bottomIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_leftDistIndex;
+    private PositionIndex<DistributionEntry>                   m_leftDistIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_hCenterDistIndex;
+    private PositionIndex<DistributionEntry>                   m_hCenterDistIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_rightDistIndex;
+    private PositionIndex<DistributionEntry>                   m_rightDistIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_topDistIndex;
+    private PositionIndex<DistributionEntry>                   m_topDistIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_vCenterDistIndex;
+    private PositionIndex<DistributionEntry>                   m_vCenterDistIndex;
 
-    private Map<Double, LinkedList<DistributionEntry>>         m_bottomDistIndex;
+    private PositionIndex<DistributionEntry>                   m_bottomDistIndex;
 
     private DefaultAlignAndDistributeMatchesCallback           m_alignmentCallback;
 
@@ -104,29 +111,37 @@ public class AlignAndDistribute
 
     private int                                                m_circa          = 4;
 
+    private int                                                m_distPartners   = DEFAULT_DISTRIBUTION_PARTNERS;
+
+    // shapes whose distribution entries are built on the next match
+
+    private final Set<AlignAndDistributeHandler>               m_horizontalDistDirty = new LinkedHashSet<AlignAndDistributeHandler>();
+
+    private final Set<AlignAndDistributeHandler>               m_verticalDistDirty   = new LinkedHashSet<AlignAndDistributeHandler>();
+
     protected boolean                                          m_snap           = true;
 
     protected boolean                                          m_drawGuideLines = true;
 
     public AlignAndDistribute(Layer layer)
     {
-        m_leftIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
-        m_hCenterIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
-        m_rightIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
+        m_leftIndex = new PositionIndex<AlignAndDistributeHandler>();
+        m_hCenterIndex = new PositionIndex<AlignAndDistributeHandler>();
+        m_rightIndex = new PositionIndex<AlignAndDistributeHandler>();
 
-        m_topIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
-        m_vCenterIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
-        m_bottomIndex = new HashMap<Double, LinkedList<AlignAndDistributeHandler>>();
+        m_topIndex = new PositionIndex<AlignAndDistributeHandler>();
+        m_vCenterIndex = new PositionIndex<AlignAndDistributeHandler>();
+        m_bottomIndex = new PositionIndex<AlignAndDistributeHandler>();
 
         m_alignmentCallback = new DefaultAlignAndDistributeMatchesCallback(layer);
 
-        m_leftDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
-        m_hCenterDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
-        m_rightDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
+        m_leftDistIndex = new PositionIndex<DistributionEntry>();
+        m_hCenterDistIndex = new PositionIndex<DistributionEntry>();
+        m_rightDistIndex = new PositionIndex<DistributionEntry>();
 
-        m_topDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
-        m_vCenterDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
-        m_bottomDistIndex = new HashMap<Double, LinkedList<DistributionEntry>>();
+        m_topDistIndex = new PositionIndex<DistributionEntry>();
+        m_vCenterDistIndex = new PositionIndex<DistributionEntry>();
+        m_bottomDistIndex = new PositionIndex<DistributionEntry>();
     }
 
     public static BoundingBox getBoundingBox(IDrawable<?> prim)
@@ -179,6 +194,35 @@ public class AlignAndDistribute
         m_circa = circa;
     }
 
+    public int getDistributionPartners()
+    {
+        return m_distPartners;
+    }
+
+    /**
+     * Sets the number of nearest shapes, on each side, a shape is paired with for distribution.
+     */
+    public void setDistributionPartners(int partners)
+    {
+        m_distPartners = partners;
+
+        // drop the existing pairs first, building only adds missing ones, so a lower count would keep the extra pairs.
+        for (AlignAndDistributeHandler handler : m_shapes.values())
+        {
+            if (handler.isIndexed())
+            {
+                removeDistIndex(handler);
+            }
+        }
+        for (AlignAndDistributeHandler handler : m_shapes.values())
+        {
+            if (handler.isIndexed())
+            {
+                invalidateDistIndex(handler);
+            }
+        }
+    }
+
     public boolean isSnap()
     {
         return m_snap;
@@ -241,48 +285,24 @@ public class AlignAndDistribute
         }
     }
 
-    public void addAlignIndexEntry(Map<Double, LinkedList<AlignAndDistributeHandler>> index, AlignAndDistributeHandler handler, double pos)
+    public void addAlignIndexEntry(PositionIndex<AlignAndDistributeHandler> index, AlignAndDistributeHandler handler, double pos)
     {
-        double rounded = round(pos);
-        LinkedList<AlignAndDistributeHandler> bucket = index.get(rounded);
-        if (bucket == null)
-        {
-            bucket = new LinkedList<AlignAndDistributeHandler>();
-            index.put(rounded, bucket);
-        }
-        bucket.add(handler);
+        index.add(pos, handler);
     }
 
-    public void removeAlignIndexEntry(Map<Double, LinkedList<AlignAndDistributeHandler>> index, AlignAndDistributeHandler handler, double pos)
+    public void removeAlignIndexEntry(PositionIndex<AlignAndDistributeHandler> index, AlignAndDistributeHandler handler, double pos)
     {
-        double rounded = round(pos);
-        LinkedList<AlignAndDistributeHandler> bucket = index.get(rounded);
-        bucket.remove(handler);
-        if (bucket.isEmpty())
-        {
-            index.remove(rounded);
-        }
+        index.remove(pos, handler);
     }
 
-    public void addDistIndexEntry(Map<Double, LinkedList<DistributionEntry>> index, DistributionEntry dist)
+    public void addDistIndexEntry(PositionIndex<DistributionEntry> index, DistributionEntry dist)
     {
-        LinkedList<DistributionEntry> bucket = index.get(dist.getPoint());
-        if (bucket == null)
-        {
-            bucket = new LinkedList<DistributionEntry>();
-            index.put(dist.getPoint(), bucket);
-        }
-        bucket.add(dist);
+        index.add(dist.getPoint(), dist);
     }
 
-    public void removeDistIndexEntry(Map<Double, LinkedList<DistributionEntry>> index, DistributionEntry dist)
+    public void removeDistIndexEntry(PositionIndex<DistributionEntry> index, DistributionEntry dist)
     {
-        LinkedList<DistributionEntry> bucket = index.get(dist.getPoint());
-        bucket.remove(dist);
-        if (bucket.isEmpty())
-        {
-            index.remove(dist.getPoint());
-        }
+        index.remove(dist.getPoint(), dist);
     }
 
     public void removeDistIndex(AlignAndDistributeHandler handler)
@@ -302,10 +322,12 @@ public class AlignAndDistribute
             if (handler == h1)
             {
                 h2.getHorizontalDistributionEntries().remove(dist);
+                m_horizontalDistDirty.add(h2);
             }
             else
             {
                 h1.getHorizontalDistributionEntries().remove(dist);
+                m_horizontalDistDirty.add(h1);
             }
             switch (dist.getDistributionType())
             {
@@ -321,6 +343,7 @@ public class AlignAndDistribute
             }
         }
         handler.getHorizontalDistributionEntries().clear();
+        m_horizontalDistDirty.remove(handler);
     }
 
     public void removeVerticalDistIndex(AlignAndDistributeHandler handler)
@@ -334,10 +357,12 @@ public class AlignAndDistribute
             if (handler == h1)
             {
                 h2.getVerticalDistributionEntries().remove(dist);
+                m_verticalDistDirty.add(h2);
             }
             else
             {
                 h1.getVerticalDistributionEntries().remove(dist);
+                m_verticalDistDirty.add(h1);
             }
 
             switch (dist.getDistributionType())
@@ -354,6 +379,7 @@ public class AlignAndDistribute
             }
         }
         handler.getVerticalDistributionEntries().clear();
+        m_verticalDistDirty.remove(handler);
     }
 
     public void buildDistIndex(AlignAndDistributeHandler handler)
@@ -362,14 +388,20 @@ public class AlignAndDistribute
         buildVerticalDistIndex(handler);
     }
 
+    /**
+     * Pairs the shape with its nearest shapes to the left and to the right, that it is not already paired with.
+     */
     public void buildHorizontalDistIndex(AlignAndDistributeHandler handler)
     {
         double left = round(handler.getLeft());
         double right = round(handler.getRight());
 
-        for (AlignAndDistributeHandler otherH : m_shapes.values())
+        List<AlignAndDistributeHandler> partners = new ArrayList<AlignAndDistributeHandler>();
+        m_rightIndex.collectBefore(left, m_distPartners, handler, partners);
+
+        for (AlignAndDistributeHandler otherH : partners)
         {
-            if (skipShape(handler, otherH))
+            if (skipShape(handler, otherH) || isDistPartner(handler.getHorizontalDistributionEntries(), otherH))
             {
                 continue;
             }
@@ -377,37 +409,48 @@ public class AlignAndDistribute
             double otherLeft = round(otherH.getLeft());
             double otherRight = round(otherH.getRight());
 
-            DistributionEntry leftDist = null;
-            DistributionEntry hCenterDist = null;
-            DistributionEntry rightDist = null;
-            if (otherRight < left)
-            {
-                double dx = left - otherRight;
-                double leftPoint = otherLeft - dx;
-                double rightPoint = right + dx;
-                double centerPoint = round(otherRight + ((left - otherRight) / 2));
-                leftDist = new DistributionEntry(otherH, handler, leftPoint, DistributionEntry.LEFT_DIST);
-                hCenterDist = new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.H_CENTER_DIST);
-                rightDist = new DistributionEntry(otherH, handler, rightPoint, DistributionEntry.RIGHT_DIST);
-            }
-            else if (otherLeft > right)
+            double dx = left - otherRight;
+            double leftPoint = otherLeft - dx;
+            double rightPoint = right + dx;
+            double centerPoint = round(otherRight + ((left - otherRight) / 2));
+            addDistIndexEntry(m_leftDistIndex, new DistributionEntry(otherH, handler, leftPoint, DistributionEntry.LEFT_DIST));
+            addDistIndexEntry(m_hCenterDistIndex, new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.H_CENTER_DIST));
+            addDistIndexEntry(m_rightDistIndex, new DistributionEntry(otherH, handler, rightPoint, DistributionEntry.RIGHT_DIST));
+        }
+
+        partners.clear();
+        m_leftIndex.collectAfter(right, m_distPartners, handler, partners);
+
+        for (AlignAndDistributeHandler otherH : partners)
+        {
+            if (skipShape(handler, otherH) || isDistPartner(handler.getHorizontalDistributionEntries(), otherH))
             {
-                double dx = otherLeft - right;
-                double leftPoint = left - dx;
-                double rightPoint = otherRight + dx;
-                double centerPoint = round(otherLeft + ((right - otherLeft) / 2));
-                leftDist = new DistributionEntry(handler, otherH, leftPoint, DistributionEntry.LEFT_DIST);
-                hCenterDist = new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.H_CENTER_DIST);
-                rightDist = new DistributionEntry(handler, otherH, rightPoint, DistributionEntry.RIGHT_DIST);
+                continue;
             }
 
-            if (leftDist != null)
+            double otherLeft = round(otherH.getLeft());
+            double otherRight = round(otherH.getRight());
+
+            double dx = otherLeft - right;
+            double leftPoint = left - dx;
+            double rightPoint = otherRight + dx;
+            double centerPoint = round(otherLeft + ((right - otherLeft) / 2));
+            addDistIndexEntry(m_leftDistIndex, new DistributionEntry(handler, otherH, leftPoint, DistributionEntry.LEFT_DIST));
+            addDistIndexEntry(m_hCenterDistIndex, new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.H_CENTER_DIST));
+            addDistIndexEntry(m_rightDistIndex, new DistributionEntry(handler, otherH, rightPoint, DistributionEntry.RIGHT_DIST));
+        }
+    }
+
+    private static boolean isDistPartner(Set<DistributionEntry> entries, AlignAndDistributeHandler otherH)
+    {
+        for (DistributionEntry dist : entries)
+        {
+            if (dist.getShape1() == otherH || dist.getShape2() == otherH)
             {
-                addDistIndexEntry(m_leftDistIndex, leftDist);
-                addDistIndexEntry(m_hCenterDistIndex, hCenterDist);
-                addDistIndexEntry(m_rightDistIndex, rightDist);
+                return true;
             }
         }
+        return false;
     }
 
     private boolean skipShape(AlignAndDistributeHandler handler, AlignAndDistributeHandler otherH)
@@ -420,14 +463,20 @@ public class AlignAndDistribute
         return false;
     }
 
+    /**
+     * Pairs the shape with its nearest shapes above and below, that it is not already paired with.
+     */
     public void buildVerticalDistIndex(AlignAndDistributeHandler handler)
     {
         double top = round(handler.getTop());
         double bottom = round(handler.getBottom());
 
-        for (AlignAndDistributeHandler otherH : m_shapes.values())
+        List<AlignAndDistributeHandler> partners = new ArrayList<AlignAndDistributeHandler>();
+        m_bottomIndex.collectBefore(top, m_distPartners, handler, partners);
+
+        for (AlignAndDistributeHandler otherH : partners)
         {
-            if (skipShape(handler, otherH))
+            if (skipShape(handler, otherH) || isDistPartner(handler.getVerticalDistributionEntries(), otherH))
             {
                 continue;
             }
@@ -435,39 +484,62 @@ public class AlignAndDistribute
             double otherTop = round(otherH.getTop());
             double otherBottom = round(otherH.getBottom());
 
-            DistributionEntry topDist = null;
-            DistributionEntry vCenterDist = null;
-            DistributionEntry bottomDist = null;
-            if (otherBottom < top)
-            {
-                double dx = top - otherBottom;
-                double topPoint = otherTop - dx;
-                double bottomPoint = bottom + dx;
-                double centerPoint = round(otherBottom + ((top - otherBottom) / 2));
-                topDist = new DistributionEntry(otherH, handler, topPoint, DistributionEntry.TOP_DIST);
-                vCenterDist = new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.V_CENTER_DIST);
-                bottomDist = new DistributionEntry(otherH, handler, bottomPoint, DistributionEntry.BOTTOM_DIST);
-            }
-            else if (otherTop > bottom)
-            {
-                double dx = otherTop - bottom;
-                double topPoint = top - dx;
-                double bottomPoint = otherBottom + dx;
-                double centerPoint = round(bottom + ((otherTop - bottom) / 2));
-                topDist = new DistributionEntry(handler, otherH, topPoint, DistributionEntry.TOP_DIST);
-                vCenterDist = new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.V_CENTER_DIST);
-                bottomDist = new DistributionEntry(handler, otherH, bottomPoint, DistributionEntry.BOTTOM_DIST);
-            }
+            double dx = top - otherBottom;
+            double topPoint = otherTop - dx;
+            double bottomPoint = bottom + dx;
+            double centerPoint = round(otherBottom + ((top - otherBottom) / 2));
+            addDistIndexEntry(m_topDistIndex, new DistributionEntry(otherH, handler, topPoint, DistributionEntry.TOP_DIST));
+            addDistIndexEntry(m_vCenterDistIndex, new DistributionEntry(otherH, handler, centerPoint, DistributionEntry.V_CENTER_DIST));
+            addDistIndexEntry(m_bottomDistIndex, new DistributionEntry(otherH, handler, bottomPoint, DistributionEntry.BOTTOM_DIST));
+        }
 
-            if (topDist != null)
+        partners.clear();
+        m_topIndex.collectAfter(bottom, m_distPartners, handler, partners);
+
+        for (AlignAndDistributeHandler otherH : partners)
+        {
+            if (skipShape(handler, otherH) || isDistPartner(handler.getVerticalDistributionEntries(), otherH))
             {
-                addDistIndexEntry(m_topDistIndex, topDist);
-                addDistIndexEntry(m_vCenterDistIndex, vCenterDist);
-                addDistIndexEntry(m_bottomDistIndex, bottomDist);
+                continue;
             }
+
+            double otherTop = round(otherH.getTop());
+            double otherBottom = round(otherH.getBottom());
+
+            double dx = otherTop - bottom;
+            double topPoint = top - dx;
+            double bottomPoint = otherBottom + dx;
+            double centerPoint = round(bottom + ((otherTop - bottom) / 2));
+            addDistIndexEntry(m_topDistIndex, new DistributionEntry(handler, otherH, topPoint, DistributionEntry.TOP_DIST));
+            addDistIndexEntry(m_vCenterDistIndex, new DistributionEntry(handler, otherH, centerPoint, DistributionEntry.V_CENTER_DIST));
+            addDistIndexEntry(m_bottomDistIndex, new DistributionEntry(handler, otherH, bottomPoint, DistributionEntry.BOTTOM_DIST));
         }
     }
 
+    private void invalidateDistIndex(AlignAndDistributeHandler handler)
+    {
+        m_horizontalDistDirty.add(handler);
+        m_verticalDistDirty.add(handler);
+    }
+
+    /**
+     * Builds the distribution entries of the shapes that were indexed or moved, or lost a partner, since the last match.
+     */
+    private void buildDirtyDistIndex()
+    {
+        for (AlignAndDistributeHandler handler : m_horizontalDistDirty)
+        {
+            buildHorizontalDistIndex(handler);
+        }
+        m_horizontalDistDirty.clear();
+
+        for (AlignAndDistributeHandler handler : m_verticalDistDirty)
+        {
+            buildVerticalDistIndex(handler);
+        }
+        m_verticalDistDirty.clear();
+    }
+
     public static class DistributionEntry
     {
         private static final int          LEFT_DIST     = 0;
@@ -532,6 +604,8 @@ public class AlignAndDistribute
 
     public AlignAndDistributeMatches findNearestMatches(AlignAndDistributeHandler handler, double left, double hCenter, double right, double top, double vCenter, double bottom)
     {
+        buildDirtyDistIndex();
+
         LinkedList<AlignAndDistributeHandler> leftList = null;
         LinkedList<AlignAndDistributeHandler> hCenterList = null;
         LinkedList<AlignAndDistributeHandler> rightList = null;
@@ -548,68 +622,36 @@ public class AlignAndDistribute
         LinkedList<DistributionEntry> vCenterDistList = null;
         LinkedList<DistributionEntry> bottomDistList = null;
 
-        int hOffset = 0;
-        while (hOffset <= m_circa)
+        int hOffset = nearestOffset(m_leftIndex.findNearestOffset(left, m_circa), m_hCenterIndex.findNearestOffset(hCenter, m_circa), m_rightIndex.findNearestOffset(right, m_circa), m_leftDistIndex.findNearestOffset(right, m_circa), m_hCenterDistIndex.findNearestOffset(hCenter, m_circa), m_rightDistIndex.findNearestOffset(left, m_circa));
+        if (hOffset != PositionIndex.NOT_FOUND)
         {
-            leftList = findNearestAlignIndexEntry(m_leftIndex, left + hOffset);
-            hCenterList = findNearestAlignIndexEntry(m_hCenterIndex, hCenter + hOffset);
-            rightList = findNearestAlignIndexEntry(m_rightIndex, right + hOffset);
-
-            leftDistList = findNearestDistIndexEntry(m_leftDistIndex, right + hOffset);
-            hCenterDistList = findNearestDistIndexEntry(m_hCenterDistIndex, hCenter + hOffset);
-            rightDistList = findNearestDistIndexEntry(m_rightDistIndex, left + hOffset);
-
-            if (matchFound(leftList, hCenterList, rightList, leftDistList, hCenterDistList, rightDistList))
-            {
-                break;
-            }
+            leftList = m_leftIndex.get(left + hOffset);
+            hCenterList = m_hCenterIndex.get(hCenter + hOffset);
+            rightList = m_rightIndex.get(right + hOffset);
 
-            leftList = findNearestAlignIndexEntry(m_leftIndex, left - hOffset);
-            hCenterList = findNearestAlignIndexEntry(m_hCenterIndex, hCenter - hOffset);
-            rightList = findNearestAlignIndexEntry(m_rightIndex, right - hOffset);
-
-            leftDistList = findNearestDistIndexEntry(m_leftDistIndex, right - hOffset);
-            hCenterDistList = findNearestDistIndexEntry(m_hCenterDistIndex, hCenter - hOffset);
-            rightDistList = findNearestDistIndexEntry(m_rightDistIndex, left - hOffset);
-            if (matchFound(leftList, hCenterList, rightList, leftDistList, hCenterDistList, rightDistList))
-            {
-                hOffset = -hOffset;
-                break;
-            }
-
-            hOffset++;
+            leftDistList = m_leftDistIndex.get(right + hOffset);
+            hCenterDistList = m_hCenterDistIndex.get(hCenter + hOffset);
+            rightDistList = m_rightDistIndex.get(left + hOffset);
         }
-
-        int vOffset = 0;
-        while (vOffset <= m_circa)
+        else
         {
-            topList = findNearestAlignIndexEntry(m_topIndex, top + vOffset);
-            vCenterList = findNearestAlignIndexEntry(m_vCenterIndex, vCenter + vOffset);
-            bottomList = findNearestAlignIndexEntry(m_bottomIndex, bottom + vOffset);
-
-            topDistList = findNearestDistIndexEntry(m_topDistIndex, bottom + vOffset);
-            vCenterDistList = findNearestDistIndexEntry(m_vCenterDistIndex, vCenter + vOffset);
-            bottomDistList = findNearestDistIndexEntry(m_bottomDistIndex, top + vOffset);
-
-            if (matchFound(topList, vCenterList, bottomList, topDistList, vCenterDistList, bottomDistList))
-            {
-                break;
-            }
-
-            topList = findNearestAlignIndexEntry(m_topIndex, top - vOffset);
-            vCenterList = findNearestAlignIndexEntry(m_vCenterIndex, vCenter - vOffset);
-            bottomList = findNearestAlignIndexEntry(m_bottomIndex, bottom - vOffset);
+            hOffset = 0;
+        }
 
-            topDistList = findNearestDistIndexEntry(m_topDistIndex, bottom - vOffset);
-            vCenterDistList = findNearestDistIndexEntry(m_vCenterDistIndex, vCenter - vOffset);
-            bottomDistList = findNearestDistIndexEntry(m_bottomDistIndex, top - vOffset);
+        int vOffset = nearestOffset(m_topIndex.findNearestOffset(top, m_circa), m_vCenterIndex.findNearestOffset(vCenter, m_circa), m_bottomIndex.findNearestOffset(bottom, m_circa), m_topDistIndex.findNearestOffset(bottom, m_circa), m_vCenterDistIndex.findNearestOffset(vCenter, m_circa), m_bottomDistIndex.findNearestOffset(top, m_circa));
+        if (vOffset != PositionIndex.NOT_FOUND)
+        {
+            topList = m_topIndex.get(top + vOffset);
+            vCenterList = m_vCenterIndex.get(vCenter + vOffset);
+            bottomList = m_bottomIndex.get(bottom + vOffset);
 
-            if (matchFound(topList, vCenterList, bottomList, topDistList, vCenterDistList, bottomDistList))
-            {
-                vOffset = -vOffset;
-                break;
-            }
-            vOffset++;
+            topDistList = m_topDistIndex.get(bottom + vOffset);
+            vCenterDistList = m_vCenterDistIndex.get(vCenter + vOffset);
+            bottomDistList = m_bottomDistIndex.get(top + vOffset);
+        }
+        else
+        {
+            vOffset = 0;
         }
 
         AlignAndDistributeMatches matches;
@@ -634,18 +676,32 @@ public class AlignAndDistribute
         return false;
     }
 
-    private static LinkedList<AlignAndDistributeHandler> findNearestAlignIndexEntry(Map<Double, LinkedList<AlignAndDistributeHandler>> map, double pos)
+    /**
+     * Returns the offset nearest to zero, the positive one when two are as near, as the edges are snapped together.
+     */
+    private static int nearestOffset(int o1, int o2, int o3, int o4, int o5, int o6)
     {
-        double rounded = Math.round(pos);
-        LinkedList<AlignAndDistributeHandler> indexEntries = map.get(rounded);
-        return indexEntries;
+        int offset = nearestOffset(nearestOffset(o1, o2), nearestOffset(o3, o4));
+        return nearestOffset(offset, nearestOffset(o5, o6));
     }
 
-    private static LinkedList<DistributionEntry> findNearestDistIndexEntry(Map<Double, LinkedList<DistributionEntry>> map, double pos)
+    private static int nearestOffset(int o1, int o2)
     {
-        double rounded = Math.round(pos);
-        LinkedList<DistributionEntry> indexEntries = map.get(rounded);
-        return indexEntries;
+        if (o1 == PositionIndex.NOT_FOUND)
+        {
+            return o2;
+        }
+        if (o2 == PositionIndex.NOT_FOUND)
+        {
+            return o1;
+        }
+        int d1 = Math.abs(o1);
+        int d2 = Math.abs(o2);
+        if (d1 != d2)
+        {
+            return (d1 < d2) ? o1 : o2;
+        }
+        return Math.max(o1, o2);
     }
 
     private static final EmptyAlignAndDistributeMatches emptyAlignedMatches = new EmptyAlignAndDistributeMatches();
@@ -679,7 +735,7 @@ public class AlignAndDistribute
     private void indexOnWithoutChangingStatus(AlignAndDistributeHandler handler)
     {
         buildAlignIndex(handler, handler.getLeft(), handler.getHorizontalCenter(), handler.getRight(), handler.getTop(), handler.getVerticalCenter(), handler.getBottom());
-        buildDistIndex(handler);
+        invalidateDistIndex(handler);
     }
 
     public void buildAlignIndex(AlignAndDistributeHandler handler, double left, double hCenter, double right, double top, double vCenter, double bottom)
@@ -1236,7 +1292,7 @@ public class AlignAndDistribute
                     m_alignAndDistribute.addRightAlignIndexEntry(this, m_right);
                 }
 
-                m_alignAndDistribute.buildHorizontalDistIndex(this);
+                m_alignAndDistribute.m_horizontalDistDirty.add(this);
             }
 
             if (topChanged || bottomChanged)
@@ -1276,7 +1332,7 @@ public class AlignAndDistribute
                     m_alignAndDistribute.addBottomAlignIndexEntry(this, m_bottom);
                 }
 
-                m_alignAndDistribute.buildVerticalDistIndex(this);
+                m_alignAndDistribute.m_verticalDistDirty.add(this);
             }
         }
 
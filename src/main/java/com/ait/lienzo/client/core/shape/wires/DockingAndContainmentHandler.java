@@ -18,7 +18,10 @@ package com.ait.lienzo.client.core.shape.wires;
 
 import com.ait.lienzo.client.core.event.*;
 import com.ait.lienzo.client.core.shape.MultiPath;
+import com.ait.lienzo.client.core.shape.Viewport;
 import com.ait.lienzo.client.core.shape.wires.picker.ColorMapBackedPicker;
+import com.ait.lienzo.client.core.shape.wires.picker.GeometryBackedPicker;
+import com.ait.lienzo.client.core.shape.wires.picker.IPicker;
 import com.ait.lienzo.client.core.types.*;
 import com.ait.lienzo.client.core.util.Geometry;
 import com.ait.lienzo.client.widget.DragConstraintEnforcer;
@@ -77,7 +80,7 @@ public class DockingAndContainmentHandler implements NodeMouseDownHandler, NodeM
 
     private boolean              m_startDocked;
 
-    private ColorMapBackedPicker m_picker;
+    private IPicker              m_picker;
 
     public DockingAndContainmentHandler(WiresShape shape, WiresManager wiresManager)
     {
@@ -87,14 +90,28 @@ public class DockingAndContainmentHandler implements NodeMouseDownHandler, NodeM
         m_priorFillChanged = false;
     }
 
-    public ColorMapBackedPicker getPicker() {
+    public IPicker getPicker() {
         return m_picker;
     }
 
     @Override
     public void startDrag(DragContext dragContext)
     {
-        m_picker = new ColorMapBackedPicker(m_layer.getChildShapes(), m_layer.getLayer().getScratchPad(), m_shape, true, DOCKING_BORDER_WIDTH);
+        Viewport viewport = m_layer.getLayer().getViewport();
+        if (m_wiresManager.isGeometryPicking())
+        {
+            m_picker = new GeometryBackedPicker(m_layer.getChildShapes(), m_shape, true, DOCKING_BORDER_WIDTH);
+        }
+        else if (viewport != null)
+        {
+            ColorMapBackedPicker picker = m_wiresManager.getDockingAndContainmentPicker();
+            picker.update(m_layer.getChildShapes(), m_shape, viewport.getWidth(), viewport.getHeight());
+            m_picker = picker;
+        }
+        else
+        {
+            m_picker = new ColorMapBackedPicker(m_layer.getChildShapes(), m_layer.getLayer().getScratchPad(), m_shape, true, DOCKING_BORDER_WIDTH);
+        }
 
         Point2D absShapeLoc =  m_shape.getPath().getAbsoluteLocation();
         BoundingBox box = m_shape.getPath().getBoundingBox();
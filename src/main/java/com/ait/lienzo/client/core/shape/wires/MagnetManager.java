@@ -26,6 +26,7 @@ import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.ColorName;
 import com.ait.lienzo.shared.core.types.Direction;
 import com.ait.lienzo.shared.core.types.DragMode;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
 import com.ait.tooling.nativetools.client.collection.NFastStringMap;
 
 public class MagnetManager
@@ -36,8 +37,16 @@ public class MagnetManager
 
     public static final ColorKeyRotor m_c_rotor            = new ColorKeyRotor();
 
+    private static final double       INDEX_CELL_SIZE      = 64;
+
     private NFastStringMap<Magnets>   m_magnetRegistry     = new NFastStringMap<Magnets>();
 
+    // a uniform grid over the magnets' absolute positions, and each magnet's cell by its control's uuid
+
+    private final NFastStringMap<NFastArrayList<WiresMagnet>> m_magnetIndex = new NFastStringMap<NFastArrayList<WiresMagnet>>();
+
+    private final NFastStringMap<String>                      m_magnetCells = new NFastStringMap<String>();
+
     public ImageData drawMagnetsToBack(Magnets magnets, NFastStringMap<WiresShape> shape_color_map, NFastStringMap<WiresMagnet> magnet_color_map, ScratchPad scratch)
     {
         scratch.clear();
@@ -64,6 +73,97 @@ public class MagnetManager
         return ctx.getImageData(0, 0, scratch.getHeight(), scratch.getHeight());
     }
 
+    /**
+     * Returns the nearest active magnet whose center is within the given distance of the point, or null. The point is
+     * in absolute coordinates. When magnets is not null, only its magnets are considered.
+     */
+    public WiresMagnet findMagnetAt(double x, double y, double radius, Magnets magnets)
+    {
+        WiresMagnet found = null;
+        double best = radius * radius;
+
+        int mini = cell(x - radius);
+        int maxi = cell(x + radius);
+        int minj = cell(y - radius);
+        int maxj = cell(y + radius);
+
+        for (int i = mini; i <= maxi; i++)
+        {
+            for (int j = minj; j <= maxj; j++)
+            {
+                NFastArrayList<WiresMagnet> list = m_magnetIndex.get(i + ":" + j);
+                if (list == null)
+                {
+                    continue;
+                }
+                for (int k = 0; k < list.size(); k++)
+                {
+                    WiresMagnet m = list.get(k);
+                    if ((magnets != null && m.getMagnets() != magnets) || !m.isActive())
+                    {
+                        continue;
+                    }
+                    double dx = m.getControl().getX() - x;
+                    double dy = m.getControl().getY() - y;
+                    double dist = dx * dx + dy * dy;
+                    if (dist <= best)
+                    {
+                        best = dist;
+                        found = m;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Puts the magnet in the cell of its control's current position, moving it if it was in another.
+     */
+    void index(WiresMagnet magnet)
+    {
+        String uuid = magnet.getControl().uuid();
+        String key = cell(magnet.getControl().getX()) + ":" + cell(magnet.getControl().getY());
+        String old = m_magnetCells.get(uuid);
+        if (key.equals(old))
+        {
+            return;
+        }
+        if (old != null)
+        {
+            m_magnetIndex.get(old).remove(magnet);
+        }
+        NFastArrayList<WiresMagnet> list = m_magnetIndex.get(key);
+        if (list == null)
+        {
+            list = new NFastArrayList<WiresMagnet>();
+            m_magnetIndex.put(key, list);
+        }
+        list.add(magnet);
+        m_magnetCells.put(uuid, key);
+    }
+
+    void unindex(WiresMagnet magnet)
+    {
+        String uuid = magnet.getControl().uuid();
+        String old = m_magnetCells.get(uuid);
+        if (old != null)
+        {
+            NFastArrayList<WiresMagnet> list = m_magnetIndex.get(old);
+            list.remove(magnet);
+            if (list.size() == 0)
+            {
+                m_magnetIndex.remove(old);
+            }
+            m_magnetCells.remove(uuid);
+        }
+    }
+
+    private static int cell(double v)
+    {
+        return (int) Math.floor(v / INDEX_CELL_SIZE);
+    }
+
     public NFastStringMap<Magnets> getMagnetRegistry()
     {
         return m_magnetRegistry;
@@ -93,6 +193,7 @@ public class MagnetManager
             Direction d = getDirection(p, left, right, top, bottom);
             m.setDirection(d);
             list.add(m);
+            index(m);
         }
 
         String uuid = primTarget.uuid();
@@ -274,6 +375,7 @@ public class MagnetManager
             {
                 WiresMagnet m = (WiresMagnet) m_list.getHandle(i);
                 m.shapeMoved(x, y);
+                m_magnetManager.index(m);
             }
 
             if (m_wiresShape.getChildShapes() != null)
@@ -302,6 +404,10 @@ public class MagnetManager
 
         public void destroy()
         {
+            for (int i = 0; i < m_list.size(); i++)
+            {
+                m_magnetManager.unindex((WiresMagnet) m_list.getHandle(i));
+            }
             m_list.destroy();
 
             m_magnetManager.m_magnetRegistry.remove(m_shape.uuid());
@@ -309,6 +415,7 @@ public class MagnetManager
 
         public void destroy(WiresMagnet magnet)
         {
+            m_magnetManager.unindex(magnet);
             m_list.remove(magnet);
         }
 
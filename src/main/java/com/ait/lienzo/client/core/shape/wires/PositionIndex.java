@@ -0,0 +1,211 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A sorted index of items by position, rounded to whole pixels, as used by {@link AlignAndDistribute}. Positions are
+ * kept in a primitive sorted array, with a bucket of items per position, so lookups are binary searches that neither
+ * box nor allocate.
+ */
+public class PositionIndex<T>
+{
+    public static final int   NOT_FOUND = Integer.MAX_VALUE;
+
+    private int[]             m_keys    = new int[16];
+
+    private LinkedList<?>[]   m_buckets = new LinkedList<?>[16];
+
+    private int               m_size    = 0;
+
+    public static int round(double pos)
+    {
+        return (int) Math.round(pos);
+    }
+
+    public void add(double pos, T item)
+    {
+        int key = round(pos);
+        int i = search(key);
+        if (i < 0)
+        {
+            i = -(i + 1);
+            if (m_size == m_keys.length)
+            {
+                int[] keys = new int[m_size * 2];
+                LinkedList<?>[] buckets = new LinkedList<?>[m_size * 2];
+                System.arraycopy(m_keys, 0, keys, 0, m_size);
+                System.arraycopy(m_buckets, 0, buckets, 0, m_size);
+                m_keys = keys;
+                m_buckets = buckets;
+            }
+            System.arraycopy(m_keys, i, m_keys, i + 1, m_size - i);
+            System.arraycopy(m_buckets, i, m_buckets, i + 1, m_size - i);
+            m_keys[i] = key;
+            m_buckets[i] = new LinkedList<T>();
+            m_size++;
+        }
+        bucket(i).add(item);
+    }
+
+    public void remove(double pos, T item)
+    {
+        int i = search(round(pos));
+        if (i < 0)
+        {
+            return;
+        }
+        LinkedList<T> bucket = bucket(i);
+        bucket.remove(item);
+        if (bucket.isEmpty())
+        {
+            System.arraycopy(m_keys, i + 1, m_keys, i, m_size - i - 1);
+            System.arraycopy(m_buckets, i + 1, m_buckets, i, m_size - i - 1);
+            m_size--;
+            m_buckets[m_size] = null;
+        }
+    }
+
+    /**
+     * Returns the items at the rounded position, or null.
+     */
+    public LinkedList<T> get(double pos)
+    {
+        int i = search(round(pos));
+        return (i < 0) ? null : bucket(i);
+    }
+
+    /**
+     * Returns the offset, in whole pixels, from the rounded position to the nearest indexed position within circa of it,
+     * or NOT_FOUND. When two are as near, the one after the position is used.
+     */
+    public int findNearestOffset(double pos, int circa)
+    {
+        int key = round(pos);
+        int i = search(key);
+        if (i >= 0)
+        {
+            return 0;
+        }
+        i = -(i + 1);
+
+        int offset = NOT_FOUND;
+        if (i < m_size && m_keys[i] - key <= circa)
+        {
+            offset = m_keys[i] - key;
+        }
+        if (i > 0 && key - m_keys[i - 1] <= circa && key - m_keys[i - 1] < Math.abs(offset))
+        {
+            offset = m_keys[i - 1] - key;
+        }
+        return offset;
+    }
+
+    /**
+     * Adds to the list up to count items, other than skip, from the positions nearest to and before the rounded position.
+     */
+    public void collectBefore(double pos, int count, T skip, List<T> list)
+    {
+        int i = search(round(pos));
+        i = (i < 0) ? -(i + 1) - 1 : i - 1;
+        for (int n = 0; i >= 0 && n < count; i--)
+        {
+            n = collect(bucket(i), count, n, skip, list);
+        }
+    }
+
+    /**
+     * Adds to the list up to count items, other than skip, from the positions nearest to and after the rounded position.
+     */
+    public void collectAfter(double pos, int count, T skip, List<T> list)
+    {
+        int i = search(round(pos));
+        i = (i < 0) ? -(i + 1) : i + 1;
+        for (int n = 0; i < m_size && n < count; i++)
+        {
+            n = collect(bucket(i), count, n, skip, list);
+        }
+    }
+
+    private static <T> int collect(LinkedList<T> bucket, int count, int n, T skip, List<T> list)
+    {
+        for (T item : bucket)
+        {
+            if (n == count)
+            {
+                break;
+            }
+            if (item != skip)
+            {
+                list.add(item);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public int size()
+    {
+        return m_size;
+    }
+
+    public boolean isEmpty()
+    {
+        return m_size == 0;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < m_size; i++)
+        {
+            m_buckets[i] = null;
+        }
+        m_size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedList<T> bucket(int i)
+    {
+        return (LinkedList<T>) m_buckets[i];
+    }
+
+    private int search(int key)
+    {
+        int lo = 0;
+        int hi = m_size - 1;
+        while (lo <= hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            int k = m_keys[mid];
+            if (k < key)
+            {
+                lo = mid + 1;
+            }
+            else if (k > key)
+            {
+                hi = mid - 1;
+            }
+            else
+            {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+}
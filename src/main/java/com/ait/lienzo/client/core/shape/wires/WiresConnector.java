@@ -21,6 +21,8 @@ import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.event.*;
 import com.ait.lienzo.client.core.shape.*;
 import com.ait.lienzo.client.core.shape.wires.MagnetManager.Magnets;
+import com.ait.lienzo.client.core.shape.wires.picker.GeometryBackedPicker;
+import com.ait.lienzo.client.core.shape.wires.picker.IPicker;
 import com.ait.lienzo.client.core.types.*;
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.client.widget.DragConstraintEnforcer;
@@ -166,7 +168,7 @@ public class WiresConnector
 
         private ImageData                         m_shapesBacking;
 
-        private ImageData                         m_magnetsBacking;
+        private IPicker                           m_picker;
 
         private Magnets                           m_magnets;
 
@@ -176,8 +178,6 @@ public class WiresConnector
 
         private final NFastStringMap<WiresShape>  m_shape_color_map  = new NFastStringMap<WiresShape>();
 
-        private final NFastStringMap<WiresMagnet> m_magnet_color_map = new NFastStringMap<WiresMagnet>();
-
         public ConnectionHandler(WiresConnector connector)
         {
             m_connector = connector;
@@ -192,11 +192,10 @@ public class WiresConnector
             }
 
             m_shapesBacking = null;// uses lots of memory, so let it GC
-            m_magnetsBacking = null;// uses lots of memory, so let it GC
+            m_picker = null;
             m_magnets = null;// if this is not nulled, the Mangets reference could stop Magnets being GC, when not used anywhere else
             m_colorKey = null;
             m_shape_color_map.clear();
-            m_magnet_color_map.clear();
         }
 
         @Override
@@ -210,29 +209,53 @@ public class WiresConnector
             m_startX = points.getX();
             m_startY = points.getY();
 
-            ScratchPad scratch = m_connector.getWiresManager().getLayer().getLayer().getScratchPad();
-
             WiresConnection c = getConnection();
             WiresLayer layer = c.getConnector().getWiresManager().getLayer();
 
-            MagnetManager mm = m_connector.getWiresManager().getMagnetManager();
-
-            m_shapesBacking = BackingColorMapUtils.drawShapesToBacking(layer.getChildShapes(), scratch, null, m_shape_color_map);
+            if (m_connector.getWiresManager().isGeometryPicking())
+            {
+                m_picker = new GeometryBackedPicker(layer.getChildShapes(), null);
+            }
+            else
+            {
+                ScratchPad scratch = m_connector.getWiresManager().getLayer().getLayer().getScratchPad();
+                m_shapesBacking = BackingColorMapUtils.drawShapesToBacking(layer.getChildShapes(), scratch, null, m_shape_color_map);
 
-            m_connector.getLine().getOverLayer().getContext().createImageData(m_shapesBacking);
+                m_connector.getLine().getOverLayer().getContext().createImageData(m_shapesBacking);
+            }
 
             if (c.getMagnet() != null)
             {
                 m_magnets = c.getMagnet().getMagnets();
-                m_magnetsBacking = mm.drawMagnetsToBack(m_magnets, m_shape_color_map, m_magnet_color_map, scratch);
             }
 
-            String colorKey = BackingColorMapUtils.findColorAtPoint(m_shapesBacking, (int) m_startX, (int) m_startY);
+            String colorKey = findShapeKeyAt((int) m_startX, (int) m_startY);
             showMagnets((int) m_startX, (int) m_startY, colorKey);
         }
 
         private String m_colorKey;
 
+        /**
+         * Returns the key of the shape under the point in m_shape_color_map, or null. With geometry picking the shape's
+         * uuid is used as its key.
+         */
+        private String findShapeKeyAt(int x, int y)
+        {
+            if (m_picker != null)
+            {
+                PickerPart part = m_picker.findShapeAt(x, y);
+                if (part == null)
+                {
+                    return null;
+                }
+                WiresShape prim = part.getShape();
+                String key = prim.getGroup().uuid();
+                m_shape_color_map.put(key, prim);
+                return key;
+            }
+            return BackingColorMapUtils.findColorAtPoint(m_shapesBacking, x, y);
+        }
+
         @Override
         public boolean adjust(Point2D dxy)
         {
@@ -242,8 +265,8 @@ public class WiresConnector
             int x = (int) (m_startX + dxy.getX());
             int y = (int) (m_startY + dxy.getY());
 
-            String colorKey = BackingColorMapUtils.findColorAtPoint(m_shapesBacking, x, y);
-            if (m_colorKey != null && !colorKey.equals(m_colorKey))
+            String colorKey = findShapeKeyAt(x, y);
+            if (m_colorKey != null && !m_colorKey.equals(colorKey))
             {
                 // this can happen when the mouse moves from an outer shape to an inner shape, or vice-sersa
                 // hide and null, and it'll show for the new.
@@ -259,22 +282,17 @@ public class WiresConnector
 
             if (m_magnets != null)
             {
-                String magnetColorKey = BackingColorMapUtils.findColorAtPoint(m_magnetsBacking, x, y);
-                if (magnetColorKey == null)
+                magnet = m_connector.getWiresManager().getMagnetManager().findMagnetAt(x, y, MagnetManager.CONTROL_RADIUS + MagnetManager.CONTROL_STROKE_WIDTH / 2, m_magnets);
+                if (magnet != null)
                 {
+                    control = magnet.getControl().asShape();
+                }
+                else if (colorKey == null)
+                {
+                    // neither over the shape nor over one of its magnets
                     m_magnets.hide();
                     m_magnets = null;
                     m_colorKey = null;
-                    magnet = null;
-                }
-                else
-                {
-
-                    magnet = m_magnet_color_map.get(magnetColorKey);
-                    if (magnet != null) // it can be null, when over the main shape, instead of a magnet
-                    {
-                        control = magnet.getControl().asShape();
-                    }
                 }
             }
 
@@ -325,8 +343,6 @@ public class WiresConnector
 
         private void showMagnets(int x, int y, String colorKey)
         {
-            ScratchPad scratch = m_connector.getWiresManager().getLayer().getLayer().getScratchPad();
-
             if (colorKey != null)
             {
                 WiresShape prim = m_shape_color_map.get(colorKey);
@@ -350,7 +366,6 @@ public class WiresConnector
                         if (m_magnets != null)
                         {
                             m_magnets.show();
-                            m_magnetsBacking = m_connector.getWiresManager().getMagnetManager().drawMagnetsToBack(m_magnets, m_shape_color_map, m_magnet_color_map, scratch);
                         }
                         else
                         {
@@ -25,6 +25,7 @@ import com.ait.lienzo.client.core.util.Geometry;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
 import com.ait.tooling.nativetools.client.collection.NFastStringMap;
 import com.ait.lienzo.client.core.shape.wires.AlignAndDistribute.AlignAndDistributeHandler;
+import com.ait.lienzo.client.core.shape.wires.picker.ColorMapBackedPicker;
 
 public final class WiresManager
 {
@@ -50,6 +51,10 @@ public final class WiresManager
 
     private IDockingAcceptor                          m_dockingAcceptor     = IDockingAcceptor.ALL;
 
+    private ColorMapBackedPicker                      m_dockingPicker       = null;
+
+    private boolean                                   m_geometryPicking     = false;
+
     public static final WiresManager get(final Layer layer)
     {
         final String uuid = layer.uuid();
@@ -129,6 +134,33 @@ public final class WiresManager
         return m_selectionManager;
     }
 
+    /**
+     * Returns the picker shared by the docking and containment drags of this manager's shapes. It is kept between drags
+     * and only redraws the shapes that changed, see {@link ColorMapBackedPicker#update(NFastArrayList, WiresShape, int, int)}.
+     */
+    public ColorMapBackedPicker getDockingAndContainmentPicker()
+    {
+        if (m_dockingPicker == null)
+        {
+            m_dockingPicker = new ColorMapBackedPicker(true, DockingAndContainmentHandler.DOCKING_BORDER_WIDTH);
+        }
+        return m_dockingPicker;
+    }
+
+    public boolean isGeometryPicking()
+    {
+        return m_geometryPicking;
+    }
+
+    /**
+     * When true, docking, containment and connection drags find the shape under the pointer from the shapes' geometry,
+     * with a {@link com.ait.lienzo.client.core.shape.wires.picker.GeometryBackedPicker}, instead of drawing a color map.
+     */
+    public void setGeometryPicking(boolean geometryPicking)
+    {
+        m_geometryPicking = geometryPicking;
+    }
+
     public WiresShape createShape(final MultiPath path)
     {
         WiresShape shape = new WiresShape(path, new WiresLayoutContainer(), this);
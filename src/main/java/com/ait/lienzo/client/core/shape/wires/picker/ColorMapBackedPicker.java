@@ -20,16 +20,30 @@ import com.ait.lienzo.client.core.Context2D;
 import com.ait.lienzo.client.core.shape.MultiPath;
 import com.ait.lienzo.client.core.shape.wires.BackingColorMapUtils;
 import com.ait.lienzo.client.core.shape.wires.PickerPart;
+import com.ait.lienzo.client.core.shape.wires.WiresContainer;
 import com.ait.lienzo.client.core.shape.wires.WiresShape;
+import com.ait.lienzo.client.core.types.BoundingBox;
 import com.ait.lienzo.client.core.types.ColorKeyRotor;
 import com.ait.lienzo.client.core.types.ImageData;
+import com.ait.lienzo.client.core.types.Point2D;
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.tooling.nativetools.client.collection.NFastArrayList;
 import com.ait.tooling.nativetools.client.collection.NFastStringMap;
 
-public class ColorMapBackedPicker
+/**
+ * Finds the {@link WiresShape} part under a point, by drawing every shape with its own color keys and reading the pixel.
+ * <p>
+ * A picker built with {@link #ColorMapBackedPicker(boolean, double)} is kept across drags: each {@link #update(NFastArrayList, WiresShape, int, int)}
+ * compares the shapes with the ones already drawn, and only clears and redraws the areas of the shapes that were added,
+ * removed, moved, resized or re-parented. Shapes outside the picker's canvas are not drawn at all.
+ */
+public class ColorMapBackedPicker implements IPicker
 {
-    private final ImageData                  m_imageData;
+    private static final int                 MAXIMUM_DIRTY_REGIONS = 8;
+
+    private static final double              MAXIMUM_DIRTY_RATIO   = 0.5;
+
+    private ImageData                        m_imageData;
 
     private final NFastStringMap<PickerPart> m_colorMap = new NFastStringMap<>();
 
@@ -39,6 +53,18 @@ public class ColorMapBackedPicker
 
     private final double                     m_borderWidth;
 
+    private final NFastStringMap<Entry>      m_entries = new NFastStringMap<>();
+
+    private final NFastArrayList<Entry>      m_order   = new NFastArrayList<>();
+
+    private final NFastArrayList<BoundingBox> m_dirty  = new NFastArrayList<>();
+
+    private ScratchPad                       m_scratch;
+
+    private boolean                          m_full    = true;
+
+    private int                              m_pass    = 0;
+
     public ColorMapBackedPicker(NFastArrayList<WiresShape> shapes, ScratchPad scratchPad, WiresShape shapeToSkip)
     {
         this(shapes, scratchPad, shapeToSkip, false, 0);
@@ -57,6 +83,15 @@ public class ColorMapBackedPicker
         this.m_imageData = ctx.getImageData(0, 0, scratchPad.getWidth(), scratchPad.getHeight());
     }
 
+    /**
+     * Creates an empty picker, with its own canvas, to be kept and brought up to date with {@link #update(NFastArrayList, WiresShape, int, int)}.
+     */
+    public ColorMapBackedPicker(boolean addHotspots, double borderWidth)
+    {
+        this.m_addHotspots = addHotspots;
+        this.m_borderWidth = borderWidth;
+    }
+
     private void addShapes(Context2D ctx, NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip)
     {
         for (int j = 0; j < shapes.size(); j++)
@@ -91,8 +126,241 @@ public class ColorMapBackedPicker
         BackingColorMapUtils.drawShapeToBacking(ctx, pickerPart.getShape(), color, strokeWidth, fill);
     }
 
+    /**
+     * Brings a persistent picker up to date with the given shapes, leaving out shapeToSkip and its children,
+     * on a canvas of the given size.
+     */
+    public void update(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip, int wide, int high)
+    {
+        if (m_scratch == null)
+        {
+            m_scratch = new ScratchPad(wide, high);
+            m_full = true;
+        }
+        else if (m_scratch.getWidth() != wide || m_scratch.getHeight() != high)
+        {
+            m_scratch.setPixelSize(wide, high);
+            m_full = true;
+        }
+        m_pass++;
+        m_order.clear();
+
+        collect(shapes, shapeToSkip, false);
+
+        // shapes that are gone
+        for (String key : m_entries.keys().toArray(new String[0]))
+        {
+            Entry entry = m_entries.get(key);
+            if (entry.m_pass != m_pass)
+            {
+                dirty(entry.m_box);
+                m_colorMap.remove(entry.m_colors[0]).remove(entry.m_colors[1]).remove(entry.m_colors[2]);
+                m_entries.remove(key);
+            }
+        }
+        if (m_full || isMostlyDirty())
+        {
+            redrawAll();
+        }
+        else
+        {
+            redrawDirty();
+        }
+        m_dirty.clear();
+    }
+
+    /**
+     * Makes the next {@link #update(NFastArrayList, WiresShape, int, int)} redraw everything, for changes it can't detect.
+     */
+    public void invalidate()
+    {
+        m_full = true;
+    }
+
+    private void collect(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip, boolean skipping)
+    {
+        for (int j = 0; j < shapes.size(); j++)
+        {
+            WiresShape prim = shapes.get(j);
+            boolean skipped = skipping || prim == shapeToSkip;
+            String key = prim.getGroup().uuid();
+            Entry entry = m_entries.get(key);
+            if (entry == null)
+            {
+                entry = new Entry(prim);
+                m_entries.put(key, entry);
+            }
+            entry.m_pass = m_pass;
+
+            BoundingBox box = skipped ? null : getPickerBounds(prim);
+            if (box != null)
+            {
+                m_order.add(entry);
+            }
+            if (!isSameBox(entry.m_box, box) || entry.m_parent != prim.getParent())
+            {
+                dirty(entry.m_box);
+                dirty(box);
+                entry.m_box = box;
+                entry.m_parent = prim.getParent();
+            }
+
+            if (prim.getChildShapes() != null)
+            {
+                collect(prim.getChildShapes(), shapeToSkip, skipped);
+            }
+        }
+    }
+
+    /**
+     * Returns the area the shape covers on the picker canvas, hotspot included, or null if it's outside of it.
+     */
+    private BoundingBox getPickerBounds(WiresShape prim)
+    {
+        MultiPath multiPath = prim.getPath();
+        BoundingBox bbox = multiPath.getBoundingBox();
+        if (bbox == null)
+        {
+            return null;
+        }
+        Point2D absLoc = multiPath.getAbsoluteLocation();
+        double margin = Math.max(multiPath.getStrokeWidth(), m_addHotspots ? m_borderWidth : 0) / 2 + 1;
+
+        double minx = absLoc.getX() + bbox.getX() - margin;
+        double miny = absLoc.getY() + bbox.getY() - margin;
+        double maxx = absLoc.getX() + bbox.getX() + bbox.getWidth() + margin;
+        double maxy = absLoc.getY() + bbox.getY() + bbox.getHeight() + margin;
+
+        if (maxx < 0 || maxy < 0 || minx > m_scratch.getWidth() || miny > m_scratch.getHeight())
+        {
+            return null;
+        }
+        return new BoundingBox(minx, miny, maxx, maxy);
+    }
+
+    private static boolean isSameBox(BoundingBox a, BoundingBox b)
+    {
+        if (a == null || b == null)
+        {
+            return a == b;
+        }
+        return a.getX() == b.getX() && a.getY() == b.getY() && a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight();
+    }
+
+    private void dirty(BoundingBox box)
+    {
+        if (box != null && !m_full)
+        {
+            m_dirty.add(box);
+        }
+    }
+
+    private boolean isMostlyDirty()
+    {
+        double area = 0;
+        for (int i = 0; i < m_dirty.size(); i++)
+        {
+            BoundingBox box = m_dirty.get(i);
+            area += box.getWidth() * box.getHeight();
+        }
+        return area > MAXIMUM_DIRTY_RATIO * m_scratch.getWidth() * m_scratch.getHeight();
+    }
+
+    private void redrawAll()
+    {
+        m_full = false;
+        m_scratch.clear();
+
+        Context2D ctx = m_scratch.getContext();
+        for (int i = 0; i < m_order.size(); i++)
+        {
+            drawEntry(ctx, m_order.get(i));
+        }
+        m_imageData = ctx.getImageData(0, 0, m_scratch.getWidth(), m_scratch.getHeight());
+    }
+
+    private void redrawDirty()
+    {
+        int size = m_dirty.size();
+        if (size < 1)
+        {
+            return;
+        }
+        if (size > MAXIMUM_DIRTY_REGIONS)
+        {
+            BoundingBox union = new BoundingBox(m_dirty.get(0));
+            for (int i = 1; i < size; i++)
+            {
+                union.add(m_dirty.get(i));
+            }
+            m_dirty.clear();
+            m_dirty.add(union);
+            size = 1;
+        }
+        Context2D ctx = m_scratch.getContext();
+        for (int i = 0; i < size; i++)
+        {
+            BoundingBox box = m_dirty.get(i);
+
+            // whole pixels, so the clip edges aren't anti-aliased
+            int x = (int) Math.max(0, Math.floor(box.getX()));
+            int y = (int) Math.max(0, Math.floor(box.getY()));
+            int w = (int) Math.min(m_scratch.getWidth(), Math.ceil(box.getX() + box.getWidth())) - x;
+            int h = (int) Math.min(m_scratch.getHeight(), Math.ceil(box.getY() + box.getHeight())) - y;
+            if (w < 1 || h < 1)
+            {
+                continue;
+            }
+            BoundingBox area = new BoundingBox(x, y, x + w, y + h);
+
+            ctx.clearRect(x, y, w, h);
+            ctx.save();
+            ctx.beginPath();
+            ctx.rect(x, y, w, h);
+            ctx.clip();
+            for (int j = 0; j < m_order.size(); j++)
+            {
+                Entry entry = m_order.get(j);
+                if (entry.m_box.intersects(area))
+                {
+                    drawEntry(ctx, entry);
+                }
+            }
+            ctx.restore();
+
+            copyImageData(m_imageData, ctx.getImageData(x, y, w, h), x, y);
+        }
+    }
+
+    private void drawEntry(Context2D ctx, Entry entry)
+    {
+        WiresShape prim = entry.m_shape;
+        MultiPath multiPath = prim.getPath();
+        BackingColorMapUtils.drawShapeToBacking(ctx, prim, entry.m_colors[0], multiPath.getStrokeWidth(), true);
+
+        if (m_addHotspots)
+        {
+            BackingColorMapUtils.drawShapeToBacking(ctx, prim, entry.m_colors[1], m_borderWidth, false);
+            BackingColorMapUtils.drawShapeToBacking(ctx, prim, entry.m_colors[2], multiPath.getStrokeWidth(), false);
+        }
+    }
+
+    private static final native void copyImageData(ImageData into, ImageData from, int x, int y)
+    /*-{
+		var wide = from.width;
+		var line = into.width * 4;
+		for (var j = 0; j < from.height; j++) {
+			into.data.set(from.data.subarray(j * wide * 4, (j + 1) * wide * 4), (y + j) * line + x * 4);
+		}
+    }-*/;
+
+    @Override
     public PickerPart findShapeAt(int x, int y)
     {
+        if (m_imageData == null)
+        {
+            return null;
+        }
         String color = BackingColorMapUtils.findColorAtPoint(m_imageData, x, y);
         if (color != null)
         {
@@ -104,4 +372,27 @@ public class ColorMapBackedPicker
         }
         return null;
     }
+
+    private final class Entry
+    {
+        private final WiresShape     m_shape;
+
+        private final String[]       m_colors;
+
+        private BoundingBox          m_box;
+
+        private WiresContainer       m_parent;
+
+        private int                  m_pass;
+
+        private Entry(WiresShape shape)
+        {
+            m_shape = shape;
+            m_colors = new String[] { m_colorKeyRotor.next(), m_colorKeyRotor.next(), m_colorKeyRotor.next() };
+
+            m_colorMap.put(m_colors[0], new PickerPart(shape, PickerPart.ShapePart.BODY));
+            m_colorMap.put(m_colors[1], new PickerPart(shape, PickerPart.ShapePart.BORDER_HOTSPOT));
+            m_colorMap.put(m_colors[2], new PickerPart(shape, PickerPart.ShapePart.BORDER));
+        }
+    }
 }
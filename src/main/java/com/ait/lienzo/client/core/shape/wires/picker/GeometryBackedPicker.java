@@ -0,0 +1,316 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+import com.ait.lienzo.client.core.shape.MultiPath;
+import com.ait.lienzo.client.core.shape.wires.PickerPart;
+import com.ait.lienzo.client.core.shape.wires.WiresShape;
+import com.ait.lienzo.client.core.types.BoundingBox;
+import com.ait.lienzo.client.core.types.PathPartEntryJSO;
+import com.ait.lienzo.client.core.types.PathPartList;
+import com.ait.lienzo.client.core.types.Point2D;
+import com.ait.tooling.nativetools.client.collection.NFastArrayList;
+import com.ait.tooling.nativetools.client.collection.NFastDoubleArrayJSO;
+import com.ait.tooling.nativetools.client.collection.NFastStringMap;
+
+/**
+ * Finds the {@link WiresShape} part under a point from the shapes' geometry, without drawing anything.
+ * <p>
+ * The shapes' absolute bounds are put in a uniform grid. A point is tested against the shapes in its grid cell, top
+ * most first, in the order {@link ColorMapBackedPicker} draws them: the BORDER if it is within half the stroke width
+ * of the outline, the BORDER_HOTSPOT if it is within half the border width, and the BODY if it is inside the path.
+ * Outlines, curves and arcs included, are flattened the first time a shape is tested. Shapes of any size are picked, as there is
+ * no canvas to clip them.
+ */
+public class GeometryBackedPicker implements IPicker
+{
+    public static final double                             DEFAULT_CELL_SIZE = 256;
+
+    // shapes covering more cells than this are tested for every point
+
+    private static final int                               MAXIMUM_CELLS     = 64;
+
+    private final boolean                                  m_addHotspots;
+
+    private final double                                   m_borderWidth;
+
+    private final double                                   m_cellSize;
+
+    private final NFastStringMap<NFastArrayList<Entry>>    m_cells           = new NFastStringMap<>();
+
+    private final NFastArrayList<Entry>                    m_large           = new NFastArrayList<>();
+
+    private int                                            m_count           = 0;
+
+    public GeometryBackedPicker(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip)
+    {
+        this(shapes, shapeToSkip, false, 0);
+    }
+
+    public GeometryBackedPicker(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip, boolean addHotspots, double borderWidth)
+    {
+        this(shapes, shapeToSkip, addHotspots, borderWidth, DEFAULT_CELL_SIZE);
+    }
+
+    public GeometryBackedPicker(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip, boolean addHotspots, double borderWidth, double cellSize)
+    {
+        this.m_addHotspots = addHotspots;
+        this.m_borderWidth = borderWidth;
+        this.m_cellSize = cellSize;
+
+        addShapes(shapes, shapeToSkip);
+    }
+
+    private void addShapes(NFastArrayList<WiresShape> shapes, WiresShape shapeToSkip)
+    {
+        for (int j = 0; j < shapes.size(); j++)
+        {
+            WiresShape prim = shapes.get(j);
+            if (prim == shapeToSkip)
+            {
+                continue;
+            }
+            addShape(prim);
+
+            if (prim.getChildShapes() != null)
+            {
+                addShapes(prim.getChildShapes(), shapeToSkip);
+            }
+        }
+    }
+
+    private void addShape(WiresShape prim)
+    {
+        MultiPath multiPath = prim.getPath();
+        BoundingBox bbox = multiPath.getBoundingBox();
+        if (bbox == null || bbox.getWidth() < 0 || bbox.getHeight() < 0)
+        {
+            return;
+        }
+        Point2D absLoc = multiPath.getAbsoluteLocation();
+        double margin = Math.max(multiPath.getStrokeWidth(), m_addHotspots ? m_borderWidth : 0) / 2 + 1;
+
+        Entry entry = new Entry(prim, m_count++, absLoc.getX(), absLoc.getY());
+        entry.m_minx = absLoc.getX() + bbox.getX() - margin;
+        entry.m_miny = absLoc.getY() + bbox.getY() - margin;
+        entry.m_maxx = absLoc.getX() + bbox.getX() + bbox.getWidth() + margin;
+        entry.m_maxy = absLoc.getY() + bbox.getY() + bbox.getHeight() + margin;
+
+        int mini = cell(entry.m_minx);
+        int minj = cell(entry.m_miny);
+        int maxi = cell(entry.m_maxx);
+        int maxj = cell(entry.m_maxy);
+
+        if ((long) (maxi - mini + 1) * (maxj - minj + 1) > MAXIMUM_CELLS)
+        {
+            m_large.add(entry);
+            return;
+        }
+        for (int i = mini; i <= maxi; i++)
+        {
+            for (int j = minj; j <= maxj; j++)
+            {
+                String key = i + ":" + j;
+                NFastArrayList<Entry> list = m_cells.get(key);
+                if (list == null)
+                {
+                    list = new NFastArrayList<>();
+                    m_cells.put(key, list);
+                }
+                list.add(entry);
+            }
+        }
+    }
+
+    private int cell(double v)
+    {
+        return (int) Math.floor(v / m_cellSize);
+    }
+
+    @Override
+    public PickerPart findShapeAt(int x, int y)
+    {
+        // the center of the pixel, as it would be rasterized
+        double px = x + 0.5;
+        double py = y + 0.5;
+
+        Hit hit = new Hit();
+
+        NFastArrayList<Entry> list = m_cells.get(cell(px) + ":" + cell(py));
+        if (list != null)
+        {
+            pick(list, px, py, hit);
+        }
+        pick(m_large, px, py, hit);
+
+        return hit.m_part;
+    }
+
+    private void pick(NFastArrayList<Entry> list, double px, double py, Hit hit)
+    {
+        for (int i = 0; i < list.size(); i++)
+        {
+            Entry entry = list.get(i);
+            if (entry.m_order < hit.m_order || px < entry.m_minx || px > entry.m_maxx || py < entry.m_miny || py > entry.m_maxy)
+            {
+                continue;
+            }
+            PickerPart part = test(entry, px, py);
+            if (part != null)
+            {
+                hit.m_order = entry.m_order;
+                hit.m_part = part;
+            }
+        }
+    }
+
+    private PickerPart test(Entry entry, double px, double py)
+    {
+        PathOutline[] outlines = entry.getOutlines();
+
+        double lx = px - entry.m_x;
+        double ly = py - entry.m_y;
+
+        double dist = Double.MAX_VALUE;
+        boolean inside = false;
+
+        for (int k = 0; k < outlines.length; k++)
+        {
+            dist = Math.min(dist, outlines[k].distance(lx, ly));
+            inside = inside || outlines[k].contains(lx, ly);
+        }
+        double stroke = entry.m_shape.getPath().getStrokeWidth() / 2;
+
+        if (m_addHotspots)
+        {
+            if (dist <= stroke)
+            {
+                return entry.m_border;
+            }
+            if (dist <= m_borderWidth / 2)
+            {
+                return entry.m_hotspot;
+            }
+        }
+        if (inside || dist <= stroke)
+        {
+            return entry.m_body;
+        }
+        return null;
+    }
+
+    /**
+     * Flattens a path, as {@link com.ait.lienzo.client.core.shape.wires.BackingColorMapUtils} draws it, into line segments.
+     */
+    private static PathOutline toOutline(PathPartList path)
+    {
+        PathOutline outline = new PathOutline();
+
+        for (int i = 0; i < path.size(); i++)
+        {
+            PathPartEntryJSO entry = path.get(i);
+            NFastDoubleArrayJSO p = entry.getPoints();
+
+            switch (entry.getCommand())
+            {
+                case PathPartEntryJSO.MOVETO_ABSOLUTE:
+                    outline.moveTo(p.get(0), p.get(1));
+                    break;
+                case PathPartEntryJSO.LINETO_ABSOLUTE:
+                    outline.lineTo(p.get(0), p.get(1));
+                    break;
+                case PathPartEntryJSO.QUADRATIC_CURVETO_ABSOLUTE:
+                    outline.quadraticCurveTo(p.get(0), p.get(1), p.get(2), p.get(3));
+                    break;
+                case PathPartEntryJSO.BEZIER_CURVETO_ABSOLUTE:
+                    outline.bezierCurveTo(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5));
+                    break;
+                case PathPartEntryJSO.ARCTO_ABSOLUTE:
+                    outline.ellipse(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4), p.get(5), p.get(6));
+                    break;
+                case PathPartEntryJSO.CANVAS_ARCTO_ABSOLUTE:
+                    outline.arcTo(p.get(0), p.get(1), p.get(2), p.get(3), p.get(4));
+                    break;
+                case PathPartEntryJSO.CLOSE_PATH_PART:
+                    outline.close();
+                    break;
+            }
+        }
+        outline.finish();
+
+        return outline;
+    }
+
+    private static final class Entry
+    {
+        private final WiresShape     m_shape;
+
+        private final int            m_order;
+
+        private final double         m_x;
+
+        private final double         m_y;
+
+        private final PickerPart     m_body;
+
+        private final PickerPart     m_hotspot;
+
+        private final PickerPart     m_border;
+
+        private double               m_minx;
+
+        private double               m_miny;
+
+        private double               m_maxx;
+
+        private double               m_maxy;
+
+        private PathOutline[]        m_outlines;
+
+        private Entry(WiresShape shape, int order, double x, double y)
+        {
+            m_shape = shape;
+            m_order = order;
+            m_x = x;
+            m_y = y;
+            m_body = new PickerPart(shape, PickerPart.ShapePart.BODY);
+            m_hotspot = new PickerPart(shape, PickerPart.ShapePart.BORDER_HOTSPOT);
+            m_border = new PickerPart(shape, PickerPart.ShapePart.BORDER);
+        }
+
+        private PathOutline[] getOutlines()
+        {
+            if (m_outlines == null)
+            {
+                NFastArrayList<PathPartList> paths = m_shape.getPath().getPathPartListArray();
+                m_outlines = new PathOutline[paths.size()];
+                for (int k = 0; k < paths.size(); k++)
+                {
+                    m_outlines[k] = toOutline(paths.get(k));
+                }
+            }
+            return m_outlines;
+        }
+    }
+
+    private static final class Hit
+    {
+        private int        m_order = -1;
+
+        private PickerPart m_part;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+import com.ait.lienzo.client.core.shape.wires.PickerPart;
+
+/**
+ * Finds the part of the top most {@link com.ait.lienzo.client.core.shape.wires.WiresShape} at a point, in absolute Layer coordinates.
+ *
+ * @see ColorMapBackedPicker
+ * @see GeometryBackedPicker
+ */
+public interface IPicker
+{
+    PickerPart findShapeAt(int x, int y);
+}
@@ -0,0 +1,254 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+/**
+ * Used internally by {@link GeometryBackedPicker}. A path flattened into line segments, built with the same commands a
+ * {@link com.ait.lienzo.client.core.types.PathPartList} holds, that can be tested for containment and distance. Curves
+ * and arcs are flattened to within a quarter of a pixel. Every sub path is closed, as it is when filled.
+ */
+final class PathOutline
+{
+    private static final double TOLERANCE = 0.25;
+
+    private static final int    MAX_STEPS = 256;
+
+    private double[]            m_segs    = new double[32];
+
+    private int                 m_size    = 0;
+
+    private double              m_sx      = 0;
+
+    private double              m_sy      = 0;
+
+    private double              m_cx      = 0;
+
+    private double              m_cy      = 0;
+
+    void moveTo(double x, double y)
+    {
+        add(m_cx, m_cy, m_sx, m_sy);
+        m_sx = m_cx = x;
+        m_sy = m_cy = y;
+    }
+
+    void lineTo(double x, double y)
+    {
+        add(m_cx, m_cy, x, y);
+        m_cx = x;
+        m_cy = y;
+    }
+
+    void close()
+    {
+        lineTo(m_sx, m_sy);
+    }
+
+    void quadraticCurveTo(double x1, double y1, double x, double y)
+    {
+        double x0 = m_cx;
+        double y0 = m_cy;
+        int steps = curveSteps(dist(x0, y0, x1, y1) + dist(x1, y1, x, y));
+        for (int i = 1; i < steps; i++)
+        {
+            double t = (double) i / steps;
+            double u = 1 - t;
+            lineTo(u * u * x0 + 2 * u * t * x1 + t * t * x, u * u * y0 + 2 * u * t * y1 + t * t * y);
+        }
+        lineTo(x, y);
+    }
+
+    void bezierCurveTo(double x1, double y1, double x2, double y2, double x, double y)
+    {
+        double x0 = m_cx;
+        double y0 = m_cy;
+        int steps = curveSteps(dist(x0, y0, x1, y1) + dist(x1, y1, x2, y2) + dist(x2, y2, x, y));
+        for (int i = 1; i < steps; i++)
+        {
+            double t = (double) i / steps;
+            double u = 1 - t;
+            double a = u * u * u;
+            double b = 3 * u * u * t;
+            double c = 3 * u * t * t;
+            double d = t * t * t;
+            lineTo(a * x0 + b * x1 + c * x2 + d * x, a * y0 + b * y1 + c * y2 + d * y);
+        }
+        lineTo(x, y);
+    }
+
+    /**
+     * A canvas arcTo: a line to the start of the arc of the given radius that is tangent to both lines, then the arc.
+     */
+    void arcTo(double x1, double y1, double x2, double y2, double r)
+    {
+        double ux = m_cx - x1;
+        double uy = m_cy - y1;
+        double vx = x2 - x1;
+        double vy = y2 - y1;
+        double ul = Math.sqrt(ux * ux + uy * uy);
+        double vl = Math.sqrt(vx * vx + vy * vy);
+
+        if (r <= 0 || ul == 0 || vl == 0)
+        {
+            lineTo(x1, y1);
+            return;
+        }
+        ux /= ul;
+        uy /= ul;
+        vx /= vl;
+        vy /= vl;
+
+        double angle = Math.acos(Math.max(-1, Math.min(1, ux * vx + uy * vy)));
+        double tan = Math.tan(angle / 2);
+
+        // collinear points draw a straight line
+        if (tan < 1e-9 || Math.abs(Math.PI - angle) < 1e-9)
+        {
+            lineTo(x1, y1);
+            return;
+        }
+        double d = r / tan;
+        double bx = ux + vx;
+        double by = uy + vy;
+        double bl = Math.sqrt(bx * bx + by * by);
+        double c = r / Math.sin(angle / 2);
+        double pcx = x1 + bx / bl * c;
+        double pcy = y1 + by / bl * c;
+        double psx = x1 + ux * d;
+        double psy = y1 + uy * d;
+        double pex = x1 + vx * d;
+        double pey = y1 + vy * d;
+
+        double start = Math.atan2(psy - pcy, psx - pcx);
+        double sweep = Math.atan2(pey - pcy, pex - pcx) - start;
+        if (sweep > Math.PI)
+        {
+            sweep -= 2 * Math.PI;
+        }
+        else if (sweep < -Math.PI)
+        {
+            sweep += 2 * Math.PI;
+        }
+        ellipse(pcx, pcy, r, r, start, sweep, 0);
+    }
+
+    /**
+     * A canvas ellipse, as stored for an SVG style arc: a line to the start of the arc, then the arc from the start angle
+     * through the signed sweep, on an ellipse rotated by psi radians.
+     */
+    void ellipse(double cx, double cy, double rx, double ry, double start, double sweep, double psi)
+    {
+        double cp = Math.cos(psi);
+        double sp = Math.sin(psi);
+        double r = Math.max(Math.abs(rx), Math.abs(ry));
+        double step = (r > TOLERANCE) ? 2 * Math.acos(1 - TOLERANCE / r) : Math.PI / 2;
+        int steps = (int) Math.min(MAX_STEPS, Math.max(1, Math.ceil(Math.abs(sweep) / step)));
+
+        for (int i = 0; i <= steps; i++)
+        {
+            double a = start + sweep * i / steps;
+            double ex = rx * Math.cos(a);
+            double ey = ry * Math.sin(a);
+            lineTo(cx + ex * cp - ey * sp, cy + ex * sp + ey * cp);
+        }
+    }
+
+    /**
+     * Closes the last sub path, call when the path is complete.
+     */
+    void finish()
+    {
+        add(m_cx, m_cy, m_sx, m_sy);
+    }
+
+    double distance(double px, double py)
+    {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < m_size; i += 4)
+        {
+            double x0 = m_segs[i];
+            double y0 = m_segs[i + 1];
+            double dx = m_segs[i + 2] - x0;
+            double dy = m_segs[i + 3] - y0;
+            double t = ((px - x0) * dx + (py - y0) * dy) / (dx * dx + dy * dy);
+            t = Math.max(0, Math.min(1, t));
+            double ex = x0 + t * dx - px;
+            double ey = y0 + t * dy - py;
+            best = Math.min(best, ex * ex + ey * ey);
+        }
+        return Math.sqrt(best);
+    }
+
+    // non-zero winding, as the canvas fills
+
+    boolean contains(double px, double py)
+    {
+        int wind = 0;
+        for (int i = 0; i < m_size; i += 4)
+        {
+            double x0 = m_segs[i];
+            double y0 = m_segs[i + 1];
+            double x1 = m_segs[i + 2];
+            double y1 = m_segs[i + 3];
+            double side = (x1 - x0) * (py - y0) - (px - x0) * (y1 - y0);
+            if (y0 <= py)
+            {
+                if (y1 > py && side > 0)
+                {
+                    wind++;
+                }
+            }
+            else if (y1 <= py && side < 0)
+            {
+                wind--;
+            }
+        }
+        return wind != 0;
+    }
+
+    private void add(double x0, double y0, double x1, double y1)
+    {
+        if (x0 == x1 && y0 == y1)
+        {
+            return;
+        }
+        if (m_size + 4 > m_segs.length)
+        {
+            double[] segs = new double[m_segs.length * 2];
+            System.arraycopy(m_segs, 0, segs, 0, m_size);
+            m_segs = segs;
+        }
+        m_segs[m_size++] = x0;
+        m_segs[m_size++] = y0;
+        m_segs[m_size++] = x1;
+        m_segs[m_size++] = y1;
+    }
+
+    // the control polygon's length bounds the curve's, so one step per pixel of it keeps every chord under a pixel long
+
+    private static int curveSteps(double length)
+    {
+        return (int) Math.min(MAX_STEPS, Math.max(1, Math.ceil(length)));
+    }
+
+    private static double dist(double x0, double y0, double x1, double y1)
+    {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -83,6 +83,27 @@ public final class BoundingBox
         return true;
     }
 
+    /**
+     * Returns true if this BoundingBox and the given one overlap or touch.
+     * An empty BoundingBox (no points added) never intersects.
+     */
+    public final boolean intersects(final BoundingBox other)
+    {
+        if (null == other)
+        {
+            return false;
+        }
+        if ((m_jso.getMinX() > other.m_jso.getMaxX()) || (m_jso.getMaxX() < other.m_jso.getMinX()))
+        {
+            return false;
+        }
+        if ((m_jso.getMinY() > other.m_jso.getMaxY()) || (m_jso.getMaxY() < other.m_jso.getMinY()))
+        {
+            return false;
+        }
+        return true;
+    }
+
     public final BoundingBox addX(final double x)
     {
         m_jso.addX(x);
@@ -0,0 +1,194 @@
+/*
+   Copyright (c) 2014,2015,2016 Ahome' Innovation Technologies. All rights reserved.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ait.lienzo.client.core.types;
+
+import com.ait.lienzo.shared.core.types.Color;
+
+/**
+ * Allocates unique 24-bit RGB color keys, packed as <code>0xRRGGBB</code>, and maps them back to their owners.
+ * <p>
+ * Keys are derived from a slot number through a multiplicative permutation of the 24-bit space, so keys handed out
+ * one after the other (usually neighbouring shapes) are far apart in color space, and an anti-aliased edge blending two
+ * of them is unlikely to land on a third. Black and white are never used. Released keys are recycled, and lookups are
+ * a single array access, with no String building.
+ */
+public final class ColorKeyAllocator<T>
+{
+    public static final int  COLOR_SPACE_MAXIMUM = 256 * 256 * 256;
+
+    private static final int COLOR_SPACE_MASK    = COLOR_SPACE_MAXIMUM - 1;
+
+    private static final int SLOT_TO_KEY         = 0x9E3779;
+
+    private static final int KEY_TO_SLOT         = 0xB382C9;
+
+    private static final int WHITE_SLOT          = toSlot(0xFFFFFF);
+
+    private Object[]         m_vals              = new Object[64];
+
+    private int[]            m_free              = new int[16];
+
+    private int              m_frees             = 0;
+
+    private int              m_next              = 1;
+
+    private int              m_size              = 0;
+
+    public ColorKeyAllocator()
+    {
+    }
+
+    /**
+     * Allocates a key for the given value.
+     *
+     * @param value must not be null
+     * @return the key, packed as <code>0xRRGGBB</code>
+     * @throws IllegalArgumentException if every key is in use
+     */
+    public final int acquire(final T value)
+    {
+        if (null == value)
+        {
+            throw new NullPointerException("value");
+        }
+        int slot;
+
+        if (m_frees > 0)
+        {
+            slot = m_free[--m_frees];
+        }
+        else
+        {
+            if (m_next == WHITE_SLOT)
+            {
+                m_next++;
+            }
+            if (m_next >= COLOR_SPACE_MAXIMUM)
+            {
+                throw new IllegalArgumentException("Exhausted color space " + m_size);
+            }
+            slot = m_next++;
+
+            if (slot >= m_vals.length)
+            {
+                final Object[] vals = new Object[Math.min(m_vals.length * 2, COLOR_SPACE_MAXIMUM)];
+
+                System.arraycopy(m_vals, 0, vals, 0, m_vals.length);
+
+                m_vals = vals;
+            }
+        }
+        m_vals[slot] = value;
+
+        m_size++;
+
+        return toKey(slot);
+    }
+
+    /**
+     * Returns the value the key was allocated for, or null.
+     *
+     * @param key packed as <code>0xRRGGBB</code>
+     */
+    @SuppressWarnings("unchecked")
+    public final T get(final int key)
+    {
+        final int slot = toSlot(key);
+
+        if ((slot > 0) && (slot < m_next))
+        {
+            return (T) m_vals[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value the color was allocated for, or null.
+     */
+    public final T get(final int r, final int g, final int b)
+    {
+        return get(((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF));
+    }
+
+    /**
+     * Releases the key so it can be recycled.
+     *
+     * @return true if the key was in use
+     */
+    public final boolean release(final int key)
+    {
+        final int slot = toSlot(key);
+
+        if ((slot < 1) || (slot >= m_next) || (null == m_vals[slot]))
+        {
+            return false;
+        }
+        m_vals[slot] = null;
+
+        if (m_frees == m_free.length)
+        {
+            final int[] free = new int[m_free.length * 2];
+
+            System.arraycopy(m_free, 0, free, 0, m_frees);
+
+            m_free = free;
+        }
+        m_free[m_frees++] = slot;
+
+        m_size--;
+
+        return true;
+    }
+
+    public final int size()
+    {
+        return m_size;
+    }
+
+    public final void clear()
+    {
+        m_vals = new Object[64];
+
+        m_free = new int[16];
+
+        m_frees = 0;
+
+        m_next = 1;
+
+        m_size = 0;
+    }
+
+    /**
+     * Returns the browser color, e.g. "#1234EF", of a packed key.
+     */
+    public static final String toBrowserHexColor(final int key)
+    {
+        return Color.rgbToBrowserHexColor((key >> 16) & 0xFF, (key >> 8) & 0xFF, key & 0xFF);
+    }
+
+    // both factors are below 2^24, so only the low 24 bits of the product are needed, and they survive int overflow.
+
+    private static final int toKey(final int slot)
+    {
+        return (slot * SLOT_TO_KEY) & COLOR_SPACE_MASK;
+    }
+
+    private static final int toSlot(final int key)
+    {
+        return ((key & COLOR_SPACE_MASK) * KEY_TO_SLOT) & COLOR_SPACE_MASK;
+    }
+}
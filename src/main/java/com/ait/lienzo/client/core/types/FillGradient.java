@@ -42,5 +42,17 @@ public interface FillGradient
         /*-{
         	return this.type;
         }-*/;
+
+        /**
+         * Returns the color of the middle color stop, as a single color standing in for the gradient, or null if there are no color stops.
+         */
+        public final native String getMiddleColor()
+        /*-{
+			var list = this.colorStops;
+			if (list && (list.length > 0)) {
+				return list[list.length >> 1].color;
+			}
+			return null;
+        }-*/;
     }
 }
@@ -36,6 +36,8 @@ public final class PathPartList
 
     private Path2D                m_p2d;
 
+    private boolean               m_p2d_no;
+
     private BoundingBox           m_box;
 
     private final PathPartListJSO m_jso;
@@ -61,6 +63,10 @@ public final class PathPartList
     {
         m_box = null;
 
+        m_p2d = null;
+
+        m_p2d_no = false;
+
         if (false == m_mov)
         {
             M(0, 0);
@@ -82,6 +88,8 @@ public final class PathPartList
     {
         m_p2d = null;
 
+        m_p2d_no = false;
+
         m_box = null;
 
         m_mov = false;
@@ -91,8 +99,20 @@ public final class PathPartList
         m_jso.setLength(0);
     }
 
+    /**
+     * Returns a native Path2D of this list, built on first use and kept until the list changes,
+     * or null if Path2D isn't supported, or can't represent the list.
+     * 
+     * @return Path2D
+     */
     public final Path2D getPath2D()
     {
+        if ((null == m_p2d) && (false == m_p2d_no) && (size() > 0))
+        {
+            m_p2d = Path2D.make(this);
+
+            m_p2d_no = (null == m_p2d);
+        }
         return m_p2d;
     }
 
@@ -374,9 +394,16 @@ public final class PathPartList
         points.push(cx, cy, rx, ry, th, dt, ps, fs);
     }
 
+    /**
+     * Drops the cached bounding box and Path2D. Call this after changing the points of entries in place.
+     */
     public void resetBoundingBox()
     {
         m_box = null;
+
+        m_p2d = null;
+
+        m_p2d_no = false;
     }
 
     public BoundingBox getBoundingBox()
@@ -18,6 +18,7 @@ package com.ait.lienzo.client.core.types;
 
 import com.ait.lienzo.client.core.util.ScratchPad;
 import com.ait.lienzo.shared.core.types.FillRepeat;
+import com.google.gwt.dom.client.CanvasElement;
 import com.google.gwt.dom.client.ImageElement;
 import com.google.gwt.json.client.JSONObject;
 
@@ -45,6 +46,17 @@ public final class PatternGradient implements FillGradient
         this(PatternGradientJSO.make(image, ScratchPad.toDataURL(image), repeat.getValue()));
     }
 
+    /**
+     * Creates a PatternGradient from a canvas drawn on the fly. It has no source URL, so it is not serialized.
+     * 
+     * @param canvas
+     * @param repeat
+     */
+    public PatternGradient(final CanvasElement canvas, final FillRepeat repeat)
+    {
+        this(PatternGradientJSO.make(canvas, repeat.getValue()));
+    }
+
     @Override
     public LinearGradient asLinearGradient()
     {
@@ -133,6 +145,17 @@ public final class PatternGradient implements FillGradient
 			}
         }-*/;
 
+        public static final native PatternGradientJSO make(CanvasElement e, String r)
+        /*-{
+			return {
+				repeat : r,
+				type : "PatternGradient",
+				image : function() {
+					return e;
+				}
+			}
+        }-*/;
+
         public final native String getSrc()
         /*-{
 			return this.src;
@@ -528,6 +528,8 @@ final class LienzoHandlerManager
 
     private final void doDragMove(final INodeXYEvent event)
     {
+        m_viewport.doInteraction();
+
         m_dragContext.dragUpdate(event);
 
         if (m_dragging_dispatch_move)
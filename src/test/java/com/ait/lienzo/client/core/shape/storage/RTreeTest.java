@@ -0,0 +1,134 @@
+package com.ait.lienzo.client.core.shape.storage;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RTreeTest {
+
+    private static Set<Integer> values(List<RTree.Entry<Integer>> list)
+    {
+        Set<Integer> set = new HashSet<Integer>();
+        for (RTree.Entry<Integer> e : list)
+        {
+            set.add(e.getValue());
+        }
+        return set;
+    }
+
+    private static Set<Integer> brute(double[][] boxes, boolean[] live, double minx, double miny, double maxx, double maxy)
+    {
+        Set<Integer> set = new HashSet<Integer>();
+        for (int i = 0; i < boxes.length; i++)
+        {
+            double[] b = boxes[i];
+            if (live[i] && b[0] <= maxx && b[2] >= minx && b[1] <= maxy && b[3] >= miny)
+            {
+                set.add(i);
+            }
+        }
+        return set;
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        RTree<Integer> tree = new RTree<Integer>();
+        assertTrue(tree.isEmpty());
+        assertTrue(tree.search(0, 0, 100, 100).isEmpty());
+    }
+
+    @Test
+    public void testSearchMatchesBruteForce()
+    {
+        Random random = new Random(42);
+        RTree<Integer> tree = new RTree<Integer>();
+        int count = 2000;
+        double[][] boxes = new double[count][];
+        boolean[] live = new boolean[count];
+        List<RTree.Entry<Integer>> entries = new ArrayList<RTree.Entry<Integer>>();
+
+        for (int i = 0; i < count; i++)
+        {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            double w = random.nextDouble() * 20;
+            double h = random.nextDouble() * 20;
+            boxes[i] = new double[] { x, y, x + w, y + h };
+            live[i] = true;
+            entries.add(tree.insert(i, x, y, x + w, y + h));
+        }
+        assertEquals(count, tree.size());
+
+        for (int q = 0; q < 50; q++)
+        {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            assertEquals(brute(boxes, live, x, y, x + 100, y + 100), values(tree.search(x, y, x + 100, y + 100)));
+        }
+        // remove half, move a quarter
+
+        for (int i = 0; i < count; i += 2)
+        {
+            assertTrue(tree.remove(entries.get(i)));
+            live[i] = false;
+        }
+        for (int i = 1; i < count; i += 4)
+        {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            boxes[i] = new double[] { x, y, x + 5, y + 5 };
+            tree.update(entries.get(i), x, y, x + 5, y + 5);
+        }
+        assertEquals(count / 2, tree.size());
+        assertFalse(tree.remove(entries.get(0)));
+
+        for (int q = 0; q < 50; q++)
+        {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            assertEquals(brute(boxes, live, x, y, x + 150, y + 150), values(tree.search(x, y, x + 150, y + 150)));
+        }
+        assertEquals(count / 2, tree.search(-1, -1, 2000, 2000).size());
+        assertTrue(tree.isContainedBy(-1, -1, 2000, 2000));
+    }
+
+    @Test
+    public void testRootSplitKeepsBounds()
+    {
+        RTree<Integer> tree = new RTree<Integer>();
+        int count = RTree.DEFAULT_MAX_ENTRIES + 1;
+
+        for (int i = 0; i < count; i++)
+        {
+            tree.insert(i, i * 10, i * 10, (i * 10) + 5, (i * 10) + 5);
+        }
+        assertEquals(0, tree.getMinX(), 0);
+        assertEquals(((count - 1) * 10) + 5, tree.getMaxY(), 0);
+        assertEquals(count, tree.search(-1, -1, 1000, 1000).size());
+
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(Collections.singleton(i), values(tree.search((i * 10) + 1, (i * 10) + 1, (i * 10) + 2, (i * 10) + 2)));
+        }
+        tree.insert(count, 500, 500, 505, 505);
+        assertEquals(count + 1, tree.search(-1, -1, 1000, 1000).size());
+    }
+
+    @Test
+    public void testZeroAreaBounds()
+    {
+        RTree<Integer> tree = new RTree<Integer>();
+        tree.insert(1, 0, 10, 100, 10);
+        tree.insert(2, 50, 0, 50, 100);
+        assertEquals(2, tree.search(40, 5, 60, 15).size());
+        assertEquals(0, tree.search(60, 20, 70, 30).size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.ait.lienzo.client.core.shape.wires;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PositionIndexTest {
+
+    @Test
+    public void testAddGetRemove()
+    {
+        PositionIndex<String> index = new PositionIndex<String>();
+
+        for (int i = 100; i >= 0; i--)
+        {
+            index.add(i * 10 + 0.2, "a" + i);
+        }
+        index.add(50.4, "b");
+        assertEquals(101, index.size());
+        assertEquals(2, index.get(49.6).size());
+        assertNull(index.get(51));
+
+        index.remove(50, "a5");
+        assertEquals(1, index.get(50).size());
+        assertEquals("b", index.get(50).getFirst());
+
+        index.remove(50, "b");
+        assertNull(index.get(50));
+        assertEquals(100, index.size());
+        assertEquals("a6", index.get(60).getFirst());
+    }
+
+    @Test
+    public void testFindNearestOffset()
+    {
+        PositionIndex<String> index = new PositionIndex<String>();
+        index.add(100, "a");
+        index.add(110, "b");
+
+        assertEquals(0, index.findNearestOffset(100.3, 4));
+        assertEquals(-3, index.findNearestOffset(103, 4));
+        assertEquals(4, index.findNearestOffset(106, 4));
+        assertEquals(5, index.findNearestOffset(105, 5));
+        assertEquals(PositionIndex.NOT_FOUND, index.findNearestOffset(105, 4));
+        assertEquals(PositionIndex.NOT_FOUND, index.findNearestOffset(50, 4));
+        assertEquals(-4, index.findNearestOffset(114, 4));
+
+        assertEquals(PositionIndex.NOT_FOUND, new PositionIndex<String>().findNearestOffset(0, 4));
+    }
+
+    @Test
+    public void testCollectNearest()
+    {
+        PositionIndex<String> index = new PositionIndex<String>();
+        index.add(10, "a");
+        index.add(20, "b");
+        index.add(20, "c");
+        index.add(30, "d");
+        index.add(40, "e");
+
+        List<String> list = new ArrayList<String>();
+        index.collectBefore(30, 2, null, list);
+        assertEquals(Arrays.asList("b", "c"), list);
+
+        list.clear();
+        index.collectBefore(30.4, 3, "c", list);
+        assertEquals(Arrays.asList("b", "a"), list);
+
+        list.clear();
+        index.collectAfter(20, 5, null, list);
+        assertEquals(Arrays.asList("d", "e"), list);
+
+        list.clear();
+        index.collectAfter(45, 5, null, list);
+        assertTrue(list.isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ait.lienzo.client.core.shape.wires.picker;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * The outlines are built with the commands MultiPath's M, L, Q, C, A and Z push into a PathPartList.
+ */
+public class PathOutlineTest {
+
+    @Test
+    public void testQuadraticCurve()
+    {
+        // M(0,0).Q(50,100,100,0).Z(), the curve peaks at (50,50)
+        PathOutline outline = new PathOutline();
+        outline.moveTo(0, 0);
+        outline.quadraticCurveTo(50, 100, 100, 0);
+        outline.close();
+        outline.finish();
+
+        assertTrue(outline.contains(50, 45));
+        assertFalse(outline.contains(50, 55));
+        assertTrue(outline.contains(25, 30));
+        assertFalse(outline.contains(25, 40));
+        assertEquals(0, outline.distance(50, 50), 0.25);
+        assertEquals(5, outline.distance(50, 55), 0.25);
+    }
+
+    @Test
+    public void testBezierCurve()
+    {
+        // M(0,0).C(0,100,100,100,100,0).Z(), the curve peaks at (50,75)
+        PathOutline outline = new PathOutline();
+        outline.moveTo(0, 0);
+        outline.bezierCurveTo(0, 100, 100, 100, 100, 0);
+        outline.close();
+        outline.finish();
+
+        assertTrue(outline.contains(50, 70));
+        assertFalse(outline.contains(50, 80));
+        assertEquals(0, outline.distance(50, 75), 0.25);
+        assertEquals(10, outline.distance(50, 85), 0.25);
+    }
+
+    @Test
+    public void testEllipticalArc()
+    {
+        // M(100,0).A(50,50,0,0,1,0,0).Z(), a half circle of radius 50 around (50,0), through (50,50)
+        PathOutline outline = new PathOutline();
+        outline.moveTo(100, 0);
+        outline.ellipse(50, 0, 50, 50, 0, Math.PI, 0);
+        outline.close();
+        outline.finish();
+
+        assertTrue(outline.contains(50, 49));
+        assertFalse(outline.contains(50, 51));
+        assertFalse(outline.contains(50, -1));
+        assertTrue(outline.contains(50 + 35, 35));
+        assertFalse(outline.contains(50 + 37, 37));
+        assertEquals(0, outline.distance(50 + 50 * Math.cos(1), 50 * Math.sin(1)), 0.25);
+    }
+
+    @Test
+    public void testRotatedEllipticalArc()
+    {
+        // a full ellipse with radii 40 and 10 around (0,0), rotated a quarter turn, so it is tall and narrow
+        PathOutline outline = new PathOutline();
+        outline.moveTo(0, 40);
+        outline.ellipse(0, 0, 40, 10, 0, 2 * Math.PI, Math.PI / 2);
+        outline.finish();
+
+        assertTrue(outline.contains(0, 35));
+        assertFalse(outline.contains(15, 0));
+        assertTrue(outline.contains(9, 0));
+        assertEquals(0, outline.distance(10, 0), 0.25);
+    }
+
+    @Test
+    public void testCanvasArcTo()
+    {
+        // M(0,0).A(100,0,100,100,20).L(100,100).L(0,100).Z(), a square with a rounded top right corner
+        PathOutline outline = new PathOutline();
+        outline.moveTo(0, 0);
+        outline.arcTo(100, 0, 100, 100, 20);
+        outline.lineTo(100, 100);
+        outline.lineTo(0, 100);
+        outline.close();
+        outline.finish();
+
+        assertFalse(outline.contains(99, 1));
+        assertTrue(outline.contains(80, 1));
+        assertTrue(outline.contains(99, 20));
+        assertEquals(0, outline.distance(80 + 20 * Math.cos(-Math.PI / 4), 20 + 20 * Math.sin(-Math.PI / 4)), 0.25);
+    }
+}
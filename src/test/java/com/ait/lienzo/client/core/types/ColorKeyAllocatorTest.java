@@ -0,0 +1,63 @@
+package com.ait.lienzo.client.core.types;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ColorKeyAllocatorTest {
+
+    @Test
+    public void testKeysAreUniqueAndResolve()
+    {
+        ColorKeyAllocator<Integer> keys = new ColorKeyAllocator<Integer>();
+        Set<Integer> seen = new HashSet<Integer>();
+        int count = 100000;
+        int[] issued = new int[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            int key = keys.acquire(i);
+            assertTrue(key > 0);
+            assertTrue(key < 0xFFFFFF);
+            assertTrue(seen.add(key));
+            issued[i] = key;
+        }
+        assertEquals(count, keys.size());
+
+        for (int i = 0; i < count; i++)
+        {
+            int key = issued[i];
+            assertEquals(Integer.valueOf(i), keys.get(key));
+            assertEquals(Integer.valueOf(i), keys.get((key >> 16) & 0xFF, (key >> 8) & 0xFF, key & 0xFF));
+        }
+        assertNull(keys.get(0));
+        assertNull(keys.get(0xFFFFFF));
+    }
+
+    @Test
+    public void testReleasedKeysAreRecycled()
+    {
+        ColorKeyAllocator<String> keys = new ColorKeyAllocator<String>();
+        int a = keys.acquire("a");
+        int b = keys.acquire("b");
+
+        assertTrue(keys.release(a));
+        assertFalse(keys.release(a));
+        assertNull(keys.get(a));
+        assertEquals("b", keys.get(b));
+        assertEquals(1, keys.size());
+
+        int c = keys.acquire("c");
+        assertEquals(a, c);
+        assertEquals("c", keys.get(c));
+    }
+
+    @Test
+    public void testBrowserHexColor()
+    {
+        assertEquals("#0A0B0C", ColorKeyAllocator.toBrowserHexColor(0x0A0B0C).toUpperCase());
+    }
+}